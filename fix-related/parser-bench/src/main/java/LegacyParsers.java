@@ -0,0 +1,56 @@
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Static entry points for the default-package parser experiments under
+ * {@code roray/} and {@code parser-v2/}. JMH refuses benchmark classes in the
+ * default package and named packages cannot import from it, so the benchmarks
+ * bind to these methods through constant {@code MethodHandle}s.
+ *
+ * The visitors fold every field into a sink so the JIT cannot drop the tag and
+ * value work. They are shared, so the benchmarks are meant to run with one
+ * thread per fork.
+ */
+public final class LegacyParsers {
+
+  private static final MsFixSink MS_FIX_SINK = new MsFixSink();
+  private static final ParserV2Sink PARSER_V2_SINK = new ParserV2Sink();
+
+  private LegacyParsers() {
+  }
+
+  public static long msFixParser(byte[] buffer, int length) {
+    MSFixParser.parse(buffer, length, MS_FIX_SINK);
+    return MS_FIX_SINK.sink;
+  }
+
+  public static long msFixParserV1(MemorySegment buffer, long length) {
+    return MSFixParserV1.parse(buffer, length);
+  }
+
+  public static long msFixParserV2(byte[] buffer) {
+    return MSFixParserV2.parse(buffer);
+  }
+
+  public static long parserV2(MemorySegment buffer) {
+    Main.parse(buffer, PARSER_V2_SINK);
+    return PARSER_V2_SINK.sink;
+  }
+
+  private static final class MsFixSink implements MSFixParser.FixVisitor {
+    long sink;
+
+    @Override
+    public void onField(int tag, byte[] buffer, int valueOffset, int valueLength) {
+      sink += tag ^ valueLength;
+    }
+  }
+
+  private static final class ParserV2Sink implements Main.FixVisitor {
+    long sink;
+
+    @Override
+    public void onField(int tag, MemorySegment buffer, long valueOffset, int valueLength) {
+      sink += tag ^ valueLength;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.example.fix.ClOrdIdBloomFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-order cost of the ClOrdID duplicate check. The filter is sized for
+ * {@code ids} entries and pre-filled with them; lookups alternate between
+ * present and absent IDs laid out off-heap the way they sit in a message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class BloomFilterBenchmark {
+  private static final int KEY_STRIDE = 16;
+  private static final int KEY_LENGTH = 14;
+
+  @Param({"1000000", "50000000"})
+  public int ids;
+
+  @Param({"0.0001"})
+  public double falsePositiveRate;
+
+  private Arena arena;
+  private MemorySegment keys;
+  private ClOrdIdBloomFilter filter;
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    arena = Arena.ofShared();
+    int keyCount = 2 * ids;
+    keys = arena.allocate((long) keyCount * KEY_STRIDE);
+    for (int i = 0; i < keyCount; i++) {
+      byte[] key = String.format("ORD%011d\u0001", i).getBytes(StandardCharsets.US_ASCII);
+      MemorySegment.copy(MemorySegment.ofArray(key), 0, keys, (long) i * KEY_STRIDE, key.length);
+    }
+    filter = new ClOrdIdBloomFilter(ids, falsePositiveRate);
+    for (int i = 0; i < ids; i++) {
+      filter.add(keys, (long) i * KEY_STRIDE, KEY_LENGTH);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    filter.close();
+    arena.close();
+  }
+
+  @Benchmark
+  public boolean mightContain() {
+    int index = nextKey();
+    return filter.mightContain(keys, (long) index * KEY_STRIDE, KEY_LENGTH);
+  }
+
+  @Benchmark
+  public boolean add() {
+    int index = nextKey();
+    return filter.add(keys, (long) index * KEY_STRIDE, KEY_LENGTH);
+  }
+
+  private int nextKey() {
+    // Stride through the key space so consecutive lookups land on unrelated blocks.
+    cursor = (cursor + 7_919) % (2 * ids);
+    return cursor;
+  }
+}
@@ -0,0 +1,128 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+import com.example.fix.FixNewOrderSingle;
+import com.example.fix.FixNewOrderSingleColumns;
+import com.example.fix.FixNewOrderSingleParser;
+import com.example.fix.FixOrderAnalytics;
+import com.example.fix.SymbolDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-of-day analytics over a whole corpus: decoding every 35=D into
+ * {@link FixNewOrderSingleColumns} (with a full or a narrow projection)
+ * against one {@link FixNewOrderSingleParser} call per message, and the
+ * Vector API VWAP/notional in {@link FixOrderAnalytics} against scalar loops
+ * over the same columns. One operation covers the whole corpus.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+@State(Scope.Thread)
+public class ColumnarBenchmark {
+  private static final int NARROW =
+      FixNewOrderSingleColumns.SIDE | FixNewOrderSingleColumns.ORDER_QTY | FixNewOrderSingleColumns.PRICE;
+
+  @Param({"ALL", "NARROW"})
+  public String projection;
+
+  private final FixNewOrderSingleParser parser = new FixNewOrderSingleParser();
+  private final FixNewOrderSingle order = new FixNewOrderSingle();
+  private SymbolDictionary symbols;
+  private FixNewOrderSingleColumns columns;
+  private long[] qtys;
+  private long[] prices;
+
+  @Setup(Level.Trial)
+  public void setUp(WireCorpus corpus) {
+    symbols = new SymbolDictionary(1024);
+    int mask = projection.equals("ALL") ? FixNewOrderSingleColumns.ALL : NARROW;
+    columns = new FixNewOrderSingleColumns(corpus.count(), mask,
+        FixNewOrderSingleColumns.DEFAULT_PRICE_SCALE, symbols);
+    qtys = new long[corpus.count()];
+    prices = new long[corpus.count()];
+    decodeColumns(corpus);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    columns.close();
+    symbols.close();
+  }
+
+  @Benchmark
+  public int decodeColumns(WireCorpus corpus) {
+    MemorySegment block = corpus.block();
+    columns.clear();
+    columns.decode(block, 0, block.byteSize());
+    return columns.size();
+  }
+
+  @Benchmark
+  public int parsePerMessage(WireCorpus corpus) {
+    int rows = 0;
+    for (int i = 0; i < corpus.count(); i++) {
+      MemorySegment message = corpus.segment(i);
+      if (parser.parse(message, (int) message.byteSize(), order)) {
+        qtys[rows] = order.orderQty();
+        prices[rows] = order.priceMantissa();
+        rows++;
+      }
+    }
+    return rows;
+  }
+
+  @Benchmark
+  public double vwapVector() {
+    return FixOrderAnalytics.vwap(columns);
+  }
+
+  @Benchmark
+  public double vwapScalar() {
+    double notional = 0;
+    long volume = 0;
+    for (int row = 0; row < columns.size(); row++) {
+      long qty = columns.orderQty(row);
+      long price = columns.price(row);
+      if (qty > 0 && price != FixNewOrderSingleColumns.NO_PRICE) {
+        notional += (double) price * qty;
+        volume += qty;
+      }
+    }
+    return notional / volume;
+  }
+
+  @Benchmark
+  public double buyNotionalVector() {
+    return FixOrderAnalytics.notional(columns, (byte) '1');
+  }
+
+  @Benchmark
+  public double buyNotionalScalar() {
+    double notional = 0;
+    for (int row = 0; row < columns.size(); row++) {
+      long qty = columns.orderQty(row);
+      long price = columns.price(row);
+      if (qty > 0 && price != FixNewOrderSingleColumns.NO_PRICE && columns.side(row) == '1') {
+        notional += (double) price * qty;
+      }
+    }
+    return notional;
+  }
+}
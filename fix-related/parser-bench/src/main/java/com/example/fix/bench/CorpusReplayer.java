@@ -0,0 +1,274 @@
+package com.example.fix.bench;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.fix.FixJournal;
+import com.example.fix.FixNewOrderSingle;
+import com.example.fix.FixNewOrderSingleParser;
+import com.example.fix.FixScanner;
+import com.example.fix.FixStageTimers;
+import com.example.fix.FixStructuralIndex;
+import com.example.fix.LatencyHistogram;
+import com.example.fix.MappedWireReader;
+
+/**
+ * Replays a wire capture (a {@code data-vN/fix_messages_wire.txt}) or a
+ * {@link FixJournal} directory through one parser at a fixed target rate, and
+ * reports the latency distribution the way a host-sizing exercise needs it.
+ *
+ * <p>Message {@code i} is due at {@code start + i / rate}. Its latency is
+ * measured from that intended send time, not from when the loop got round to
+ * it, so a stall also counts against every message that should have been sent
+ * during it; measuring from the actual start would hide exactly those
+ * (coordinated omission). The uncorrected service-time p99 is printed next to
+ * it for comparison. Latencies go into a {@link LatencyHistogram}, so memory
+ * does not grow with the rate or the duration. With {@code -Dfix.timing=true}
+ * the zero-GC parsers also print a {@link FixStageTimers} breakdown (count
+ * column: sampled parses). Before replaying, {@link FixScanner#calibrate}
+ * picks the SOH scan backend on the loaded messages and prints its figures.
+ * Run it as a main class:
+ * {@code java --add-modules jdk.incubator.vector -cp target/benchmarks.jar
+ * com.example.fix.bench.CorpusReplayer <wire file | journal dir> [rates...]
+ * [--parser NAME] [--seconds N] [--warmup N]}.
+ */
+public final class CorpusReplayer {
+  private enum Parser {
+    ZERO_GC,
+    ZERO_GC_VALIDATING,
+    STRUCTURAL_INDEX,
+    MS_FIX_PARSER,
+    MS_FIX_PARSER_V1,
+    MS_FIX_PARSER_V2,
+    PARSER_V2
+  }
+
+  // Parses message i of the loaded stream.
+  private interface Target {
+    long parse(int index) throws Throwable;
+  }
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  private final MemorySegment block;
+  private final long[] offsets;
+  private final int[] lengths;
+  private final MemorySegment[] slices;
+  private byte[][] arrays;
+
+  private final LatencyHistogram latencies = new LatencyHistogram();
+  private final LatencyHistogram service = new LatencyHistogram();
+  private final FixStageTimers timers = new FixStageTimers();
+  private LatencyHistogram stageSnapshot = new LatencyHistogram();
+
+  private long sink;
+
+  private CorpusReplayer(MemorySegment block, long[] offsets, int[] lengths) {
+    this.block = block;
+    this.offsets = offsets;
+    this.lengths = lengths;
+    this.slices = new MemorySegment[offsets.length];
+    for (int i = 0; i < offsets.length; i++) {
+      slices[i] = block.asSlice(offsets[i], lengths[i]);
+    }
+  }
+
+  public static void main(String[] args) throws Throwable {
+    if (args.length == 0) {
+      System.err.println("usage: CorpusReplayer <wire file | journal dir> [rates...]"
+          + " [--parser " + Arrays.toString(Parser.values()) + "] [--seconds N] [--warmup N]");
+      System.exit(2);
+    }
+    Path input = Path.of(args[0]);
+    List<Long> rates = new ArrayList<>();
+    Parser parser = Parser.ZERO_GC;
+    int seconds = 5;
+    int warmup = 2;
+    for (int i = 1; i < args.length; i++) {
+      switch (args[i]) {
+        case "--parser" -> parser = Parser.valueOf(args[++i]);
+        case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+        case "--warmup" -> warmup = Integer.parseInt(args[++i]);
+        default -> rates.add(Long.parseLong(args[i]));
+      }
+    }
+    if (rates.isEmpty()) {
+      rates.addAll(List.of(100_000L, 1_000_000L, 5_000_000L));
+    }
+
+    try (Arena arena = Arena.ofShared()) {
+      CorpusReplayer replayer = Files.isDirectory(input)
+          ? loadJournal(input, arena)
+          : loadWire(input, arena);
+      // Before target(), which builds the parser with the selected backend.
+      System.out.println(FixScanner.calibrate(replayer.block, 0, replayer.block.byteSize()));
+      Target target = replayer.target(parser);
+      System.out.printf("%s: %d messages, parser=%s seconds=%d%n",
+          input, replayer.offsets.length, parser, seconds);
+      System.out.printf("%12s %12s %10s %10s %10s %12s %12s%n",
+          "target/s", "achieved/s", "p50 us", "p99 us", "p99.9 us", "max us", "svc p99 us");
+      for (long rate : rates) {
+        replayer.run(target, rate, warmup, false);
+        replayer.run(target, rate, seconds, true);
+      }
+      System.err.println("sink=" + replayer.sink);
+    }
+  }
+
+  private void run(Target target, long rate, int seconds, boolean report) throws Throwable {
+    long total = rate * seconds;
+    if (total > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("rate * seconds must stay below 2^31 messages");
+    }
+    int count = (int) total;
+    latencies.reset();
+    service.reset();
+    stages(false);
+    int messages = offsets.length;
+    int next = 0;
+    long acc = 0;
+
+    long start = System.nanoTime();
+    for (int i = 0; i < count; i++) {
+      long intended = start + i * NANOS_PER_SECOND / rate;
+      long began;
+      while ((began = System.nanoTime()) < intended) {
+        Thread.onSpinWait();
+      }
+      acc += target.parse(next);
+      long done = System.nanoTime();
+      next = next + 1 == messages ? 0 : next + 1;
+      latencies.record(done - intended);
+      service.record(done - began);
+    }
+    long elapsed = System.nanoTime() - start;
+    sink += acc;
+    if (!report) {
+      return;
+    }
+
+    System.out.printf("%12d %12.0f %10.2f %10.2f %10.2f %12.2f %12.2f%n",
+        rate, count * 1e9 / elapsed,
+        latencies.valueAtQuantile(0.50) / 1e3, latencies.valueAtQuantile(0.99) / 1e3,
+        latencies.valueAtQuantile(0.999) / 1e3, latencies.max() / 1e3,
+        service.valueAtQuantile(0.99) / 1e3);
+    stages(true);
+  }
+
+  // Per-stage breakdown of the zero-GC parser's sampled parses since the last
+  // call, with -Dfix.timing=true.
+  private void stages(boolean print) {
+    if (!FixStageTimers.ENABLED) {
+      return;
+    }
+    for (FixStageTimers.Stage stage : FixStageTimers.Stage.values()) {
+      stageSnapshot = timers.snapshot(stage, stageSnapshot);
+      if (print && stageSnapshot.count() > 0) {
+        System.out.printf("%12s %12d %10.3f %10.3f %10.3f %12.3f %12s%n",
+            stage, stageSnapshot.count(),
+            stageSnapshot.valueAtQuantile(0.50) / 1e3, stageSnapshot.valueAtQuantile(0.99) / 1e3,
+            stageSnapshot.valueAtQuantile(0.999) / 1e3, stageSnapshot.max() / 1e3, "");
+      }
+    }
+  }
+
+  private Target target(Parser parser) {
+    switch (parser) {
+      case ZERO_GC, ZERO_GC_VALIDATING -> {
+        FixNewOrderSingleParser zeroGc =
+            new FixNewOrderSingleParser(parser == Parser.ZERO_GC_VALIDATING, null, timers);
+        FixNewOrderSingle order = new FixNewOrderSingle();
+        return i -> zeroGc.parse(block, offsets[i], lengths[i], order) ? 1 : 0;
+      }
+      case STRUCTURAL_INDEX -> {
+        FixStructuralIndex index = new FixStructuralIndex(64 * 1024);
+        return i -> index.index(block, offsets[i], lengths[i]) ? index.fieldCount() : -1;
+      }
+      case MS_FIX_PARSER -> {
+        byte[][] messages = arrays();
+        return i -> (long) LegacyHandles.MS_FIX_PARSER.invokeExact(messages[i], messages[i].length);
+      }
+      case MS_FIX_PARSER_V1 -> {
+        return i -> (long) LegacyHandles.MS_FIX_PARSER_V1.invokeExact(slices[i], slices[i].byteSize());
+      }
+      case MS_FIX_PARSER_V2 -> {
+        byte[][] messages = arrays();
+        return i -> (long) LegacyHandles.MS_FIX_PARSER_V2.invokeExact(messages[i]);
+      }
+      case PARSER_V2 -> {
+        return i -> (long) LegacyHandles.PARSER_V2.invokeExact(slices[i]);
+      }
+      default -> throw new IllegalArgumentException("Unknown parser " + parser);
+    }
+  }
+
+  // Exact-size copies for the byte[] parsers, made once before timing.
+  private byte[][] arrays() {
+    if (arrays == null) {
+      arrays = new byte[offsets.length][];
+      for (int i = 0; i < offsets.length; i++) {
+        arrays[i] = slices[i].toArray(ValueLayout.JAVA_BYTE);
+      }
+    }
+    return arrays;
+  }
+
+  // Both sources are copied into one contiguous off-heap block up front, so
+  // the timed loop reads the same memory layout whatever the input was.
+  private static CorpusReplayer loadWire(Path path, Arena arena) throws IOException {
+    try (MappedWireReader reader = MappedWireReader.open(path)) {
+      List<long[]> ranges = new ArrayList<>();
+      long total = 0;
+      while (reader.next()) {
+        ranges.add(new long[] {reader.messageOffset(), reader.messageLength()});
+        total += reader.messageLength();
+      }
+      if (ranges.isEmpty()) {
+        throw new IllegalArgumentException("No messages in " + path);
+      }
+      MemorySegment block = arena.allocate(total, 64);
+      long at = 0;
+      for (long[] range : ranges) {
+        MemorySegment.copy(reader.segment(), range[0], block, at, range[1]);
+        range[0] = at;
+        at += range[1];
+      }
+      return fromRanges(block, ranges);
+    }
+  }
+
+  // Every journaled message, in MsgSeqNum order.
+  private static CorpusReplayer loadJournal(Path directory, Arena arena) throws IOException {
+    try (FixJournal journal = FixJournal.open(directory)) {
+      List<long[]> ranges = new ArrayList<>();
+      MemorySegment block = arena.allocate(Math.max(1, journal.position()), 64);
+      long[] at = new long[1];
+      journal.replay(1, 0, (buffer, offset, length) -> {
+        MemorySegment.copy(buffer, offset, block, at[0], length);
+        ranges.add(new long[] {at[0], length});
+        at[0] += length;
+      });
+      if (ranges.isEmpty()) {
+        throw new IllegalArgumentException("No messages in " + directory);
+      }
+      return fromRanges(block, ranges);
+    }
+  }
+
+  private static CorpusReplayer fromRanges(MemorySegment block, List<long[]> ranges) {
+    long[] offsets = new long[ranges.size()];
+    int[] lengths = new int[ranges.size()];
+    for (int i = 0; i < offsets.length; i++) {
+      offsets[i] = ranges.get(i)[0];
+      lengths[i] = (int) ranges.get(i)[1];
+    }
+    return new CorpusReplayer(block, offsets, lengths);
+  }
+}
@@ -0,0 +1,143 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import com.example.fix.FixEncoder;
+import com.example.fix.FixNewOrderSingle;
+import com.example.fix.FixNewOrderSingleEncoder;
+import com.example.fix.FixNewOrderSingleParser;
+import com.example.fix.FixTimestampDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Encoding one 35=D with {@link FixNewOrderSingleEncoder} into a reused
+ * segment, against building the same message with a StringBuilder. The
+ * orders are the corpus' own NewOrderSingles, decoded once in setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class EncoderBenchmark {
+  private static final DateTimeFormatter TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+
+  private final FixNewOrderSingleEncoder encoder =
+      new FixNewOrderSingleEncoder(new FixEncoder("FIX.4.2", "CLIENT", "BROKER"));
+  private Arena arena;
+  private MemorySegment buffer;
+  private byte[][] clOrdIds;
+  private byte[][] symbols;
+  private byte[] sides;
+  private long[] qtys;
+  private long[] prices;
+  private int[] scales;
+  private long[] transactTimes;
+  private int orders;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp(WireCorpus corpus) {
+    arena = Arena.ofConfined();
+    buffer = arena.allocate(FixEncoder.DEFAULT_MAX_MESSAGE_LENGTH, 64);
+    FixNewOrderSingleParser parser = new FixNewOrderSingleParser();
+    FixNewOrderSingle order = new FixNewOrderSingle();
+    FixTimestampDecoder timestamps = new FixTimestampDecoder();
+    clOrdIds = new byte[corpus.count()][];
+    symbols = new byte[corpus.count()][];
+    sides = new byte[corpus.count()];
+    qtys = new long[corpus.count()];
+    prices = new long[corpus.count()];
+    scales = new int[corpus.count()];
+    transactTimes = new long[corpus.count()];
+    for (int i = 0; i < corpus.count(); i++) {
+      MemorySegment message = corpus.segment(i);
+      if (!parser.parse(message, (int) message.byteSize(), order) || !order.pricePresent()) {
+        continue;
+      }
+      clOrdIds[orders] = bytes(message, order.clOrdIdOffset(), order.clOrdIdLength());
+      symbols[orders] = bytes(message, order.symbolOffset(), order.symbolLength());
+      sides[orders] = order.side();
+      qtys[orders] = order.orderQty();
+      prices[orders] = order.priceMantissa();
+      scales[orders] = order.priceScale();
+      transactTimes[orders] = Math.max(timestamps.transactTime(order), 0);
+      orders++;
+    }
+    if (orders == 0) {
+      throw new IllegalStateException("Corpus has no NewOrderSingle with a price");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    arena.close();
+  }
+
+  @Benchmark
+  public int encode() {
+    int i = nextOrder();
+    return encoder.begin(buffer, 0, i + 1, transactTimes[i])
+        .clOrdId(clOrdIds[i]).handlInst((byte) '1').symbol(symbols[i]).side(sides[i])
+        .transactTime(transactTimes[i]).orderQty(qtys[i]).ordType((byte) '2')
+        .price(prices[i], scales[i]).end();
+  }
+
+  @Benchmark
+  public int stringBuilder() {
+    int i = nextOrder();
+    String time = TIMESTAMP.format(Instant.ofEpochSecond(0, transactTimes[i]));
+    StringBuilder body = new StringBuilder(256)
+        .append("35=D\u000149=CLIENT\u000156=BROKER\u000134=").append(i + 1)
+        .append("\u000152=").append(time)
+        .append("\u000111=").append(new String(clOrdIds[i], StandardCharsets.US_ASCII))
+        .append("\u000121=1\u000155=").append(new String(symbols[i], StandardCharsets.US_ASCII))
+        .append("\u000154=").append((char) sides[i])
+        .append("\u000160=").append(time)
+        .append("\u000138=").append(qtys[i])
+        .append("\u000140=2\u000144=").append(BigDecimal.valueOf(prices[i], scales[i]).toPlainString())
+        .append('\u0001');
+    String head = "8=FIX.4.2\u00019=" + body.length() + "\u0001" + body;
+    byte[] bytes = head.getBytes(StandardCharsets.US_ASCII);
+    int sum = 0;
+    for (byte b : bytes) {
+      sum += b & 0xFF;
+    }
+    byte[] message = (head + "10=" + String.format("%03d", sum & 0xFF) + "\u0001")
+        .getBytes(StandardCharsets.US_ASCII);
+    MemorySegment.copy(MemorySegment.ofArray(message), 0, buffer, 0, message.length);
+    return message.length;
+  }
+
+  private int nextOrder() {
+    int i = next;
+    next = i + 1 == orders ? 0 : i + 1;
+    return i;
+  }
+
+  private static byte[] bytes(MemorySegment message, long offset, int length) {
+    byte[] value = new byte[length];
+    MemorySegment.copy(message, offset, MemorySegment.ofArray(value), 0, length);
+    return value;
+  }
+}
@@ -0,0 +1,185 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+import com.example.fix.FixEncoder;
+import com.example.fix.FixExecutionReport;
+import com.example.fix.FixExecutionReportEncoder;
+import com.example.fix.FixExecutionReportParser;
+import com.example.fix.FixNewOrderSingle;
+import com.example.fix.FixNewOrderSingleEncoder;
+import com.example.fix.FixNewOrderSingleParser;
+import com.example.fix.FixTimestampDecoder;
+
+/**
+ * Round-trip check for {@link FixEncoder}. Encodes random NewOrderSingles and
+ * ExecutionReports, parses them back with CheckSum and BodyLength validation
+ * and compares every field; a sample is also compared byte for byte with a
+ * String-built reference. Then times the encoder on pre-generated orders
+ * against the {@value #TARGET_NANOS} ns/order target, which is not met yet
+ * (see the README). Throws on the first mismatch. Run it as a main class:
+ * {@code java -cp target/benchmarks.jar com.example.fix.bench.EncoderCheck
+ * [messages]}.
+ */
+public final class EncoderCheck {
+  private static final int TARGET_NANOS = 100;
+  private static final String SOH = "\u0001";
+  private static final DateTimeFormatter TIMESTAMP =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HH:mm:ss.SSS").withZone(ZoneOffset.UTC);
+  private static final byte[][] SYMBOLS = {
+      ascii("NVDA"), ascii("AAPL"), ascii("MSFT"), ascii("AMZN"), ascii("GOOGL"), ascii("BRK.B")
+  };
+  private static final long MAX_NANOS = Instant.parse("2099-12-31T23:59:59Z").getEpochSecond() * 1_000_000_000L;
+
+  private EncoderCheck() {
+  }
+
+  public static void main(String[] args) {
+    int messages = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    FixEncoder encoder = new FixEncoder("FIX.4.2", "CLIENT", "BROKER");
+    FixNewOrderSingleEncoder orders = new FixNewOrderSingleEncoder(encoder);
+    FixExecutionReportEncoder reports = new FixExecutionReportEncoder(encoder);
+    FixNewOrderSingleParser orderParser = new FixNewOrderSingleParser(true);
+    FixExecutionReportParser reportParser = new FixExecutionReportParser(true);
+    FixNewOrderSingle order = new FixNewOrderSingle();
+    FixExecutionReport report = new FixExecutionReport();
+    FixTimestampDecoder timestamps = new FixTimestampDecoder();
+    SplittableRandom random = new SplittableRandom(42);
+
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment buffer = arena.allocate(1024, 64);
+      for (int i = 0; i < messages; i++) {
+        int seq = random.nextInt(1, Integer.MAX_VALUE);
+        long sendingTime = random.nextLong(MAX_NANOS);
+        long transactTime = random.nextLong(MAX_NANOS);
+        byte[] clOrdId = ascii("ORD" + random.nextLong(1_000_000_000_000L));
+        byte[] symbol = SYMBOLS[random.nextInt(SYMBOLS.length)];
+        byte side = (byte) (random.nextBoolean() ? '1' : '2');
+        long qty = random.nextLong(1, 1_000_000_000L);
+        int scale = random.nextInt(0, 7);
+        long price = random.nextLong(0, 100_000_000_000L);
+        long offset = random.nextInt(0, 64);
+
+        int length = orders.begin(buffer, offset, seq, sendingTime)
+            .clOrdId(clOrdId).handlInst((byte) '1').symbol(symbol).side(side)
+            .transactTime(transactTime).orderQty(qty).ordType((byte) '2').price(price, scale).end();
+        long start = offset;
+        check(orderParser.parse(buffer, start, length, order), "order did not parse", buffer, start, length);
+        check(order.msgSeqNum() == seq && order.side() == side && order.orderQty() == qty
+            && order.ordType() == '2' && order.pricePresent()
+            && order.priceMantissa() == price && order.priceScale() == scale
+            && equal(order.buffer(), start + order.clOrdIdOffset(), order.clOrdIdLength(), clOrdId)
+            && equal(order.buffer(), start + order.symbolOffset(), order.symbolLength(), symbol)
+            && timestamps.sendingTime(order) == millis(sendingTime)
+            && timestamps.transactTime(order) == millis(transactTime), "order fields differ", buffer, start, length);
+        if (i % 1000 == 0) {
+          String expected = withTrailer(header('D', seq, sendingTime)
+              + "11=" + ascii(clOrdId) + SOH + "21=1" + SOH + "55=" + ascii(symbol) + SOH
+              + "54=" + (char) side + SOH + "60=" + TIMESTAMP.format(instant(transactTime)) + SOH
+              + "38=" + qty + SOH + "40=2" + SOH + "44=" + decimal(price, scale) + SOH);
+          check(expected.equals(string(buffer, start, length)), "order bytes differ from reference", buffer, start, length);
+        }
+
+        long cumQty = random.nextLong(0, qty + 1);
+        length = reports.begin(buffer, offset, seq, sendingTime)
+            .orderId(clOrdId).clOrdId(clOrdId).execId(clOrdId).execType((byte) '1').ordStatus((byte) '1')
+            .symbol(symbol).side(side).orderQty(qty).lastShares(cumQty).lastPx(price, scale)
+            .leavesQty(qty - cumQty).cumQty(cumQty).avgPx(price, scale).end();
+        check(reportParser.parse(buffer, start, length, report), "report did not parse", buffer, start, length);
+        check(report.cumQty() == cumQty && report.leavesQty() == qty - cumQty && report.lastShares() == cumQty
+            && report.lastPxMantissa() == price && report.lastPxScale() == scale && report.ordStatus() == '1'
+            && equal(report.buffer(), start + report.orderIdOffset(), report.orderIdLength(), clOrdId),
+            "report fields differ", buffer, start, length);
+      }
+      System.out.println("round trip ok: " + messages + " orders and " + messages + " execution reports");
+
+      time(orders, buffer, random);
+    }
+  }
+
+  private static void time(FixNewOrderSingleEncoder orders, MemorySegment buffer, SplittableRandom random) {
+    int count = 1 << 16;
+    long[] qtys = new long[count];
+    long[] prices = new long[count];
+    byte[][] clOrdIds = new byte[count][];
+    for (int i = 0; i < count; i++) {
+      qtys[i] = random.nextLong(1, 100) * 100;
+      prices[i] = random.nextLong(10_000, 100_000);
+      clOrdIds[i] = ascii("ORD" + random.nextInt(10_000, 100_000));
+    }
+    long now = System.currentTimeMillis() * 1_000_000L;
+    long checksum = 0;
+    for (int round = 0; round < 10; round++) {
+      long start = System.nanoTime();
+      int iterations = 5_000_000;
+      for (int i = 0; i < iterations; i++) {
+        int k = i & (count - 1);
+        checksum += orders.begin(buffer, 0, i, now + i)
+            .clOrdId(clOrdIds[k]).handlInst((byte) '1').symbol(SYMBOLS[k & 3]).side((byte) '1')
+            .transactTime(now + i).orderQty(qtys[k]).ordType((byte) '2').price(prices[k], 2).end();
+      }
+      long elapsed = System.nanoTime() - start;
+      System.out.printf("encode: %.1f ns/order (target %d)%n", (double) elapsed / iterations, TARGET_NANOS);
+    }
+    System.out.println("(bytes written: " + checksum + ")");
+  }
+
+  private static String header(char msgType, int seq, long sendingTime) {
+    return "35=" + msgType + SOH + "49=CLIENT" + SOH + "56=BROKER" + SOH + "34=" + seq + SOH
+        + "52=" + TIMESTAMP.format(instant(sendingTime)) + SOH;
+  }
+
+  private static String withTrailer(String body) {
+    String head = "8=FIX.4.2" + SOH + "9=" + body.length() + SOH + body;
+    int sum = 0;
+    for (int i = 0; i < head.length(); i++) {
+      sum += head.charAt(i);
+    }
+    return head + "10=" + String.format("%03d", sum & 0xFF) + SOH;
+  }
+
+  private static String decimal(long mantissa, int scale) {
+    return BigDecimal.valueOf(mantissa, scale).toPlainString();
+  }
+
+  private static Instant instant(long epochNanos) {
+    return Instant.ofEpochSecond(0, epochNanos);
+  }
+
+  private static long millis(long epochNanos) {
+    return epochNanos / 1_000_000L * 1_000_000L;
+  }
+
+  private static boolean equal(MemorySegment buffer, long offset, int length, byte[] expected) {
+    return length == expected.length
+        && MemorySegment.mismatch(buffer, offset, offset + length,
+            MemorySegment.ofArray(expected), 0, expected.length) < 0;
+  }
+
+  private static void check(boolean condition, String message, MemorySegment buffer, long offset, int length) {
+    if (!condition) {
+      throw new IllegalStateException(message + ": " + string(buffer, offset, length).replace('\u0001', '|'));
+    }
+  }
+
+  private static String string(MemorySegment buffer, long offset, int length) {
+    return new String(buffer.asSlice(offset, length).toArray(ValueLayout.JAVA_BYTE),
+        StandardCharsets.US_ASCII);
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static String ascii(byte[] value) {
+    return new String(value, StandardCharsets.US_ASCII);
+  }
+}
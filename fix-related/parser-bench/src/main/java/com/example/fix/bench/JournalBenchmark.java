@@ -0,0 +1,133 @@
+package com.example.fix.bench;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.example.fix.FixFramer;
+import com.example.fix.FixJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link FixJournal} append and resend costs. The journal is filled with
+ * a million corpus messages at setup. {@code append} times filling a fresh
+ * journal with the background flush running (per message), and
+ * {@code replayGap} answers a ResendRequest for {@code gap} consecutive
+ * messages starting at a different point each time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class JournalBenchmark {
+  private static final int MESSAGES = 1_000_000;
+  private static final long SEGMENT_SIZE = 64L * 1024 * 1024;
+  private static final long FLUSH_INTERVAL_MILLIS = 100;
+
+  @Param({"1000", "100000"})
+  public int gap;
+
+  private Path directory;
+  private FixJournal journal;
+  private int nextGap;
+  private Blackhole blackhole;
+  private final FixFramer.MessageHandler consumer = this::consume;
+
+  @Setup(Level.Trial)
+  public void setUp(WireCorpus corpus, Blackhole blackhole) throws IOException {
+    this.blackhole = blackhole;
+    directory = Files.createTempDirectory("fix-journal");
+    journal = FixJournal.open(directory, SEGMENT_SIZE, MESSAGES, FLUSH_INTERVAL_MILLIS);
+    for (int seqNum = 1; seqNum <= MESSAGES; seqNum++) {
+      MemorySegment message = corpus.segment(corpus.next());
+      journal.append(seqNum, message, 0, (int) message.byteSize());
+    }
+    nextGap = 1;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    journal.close();
+    delete(directory);
+  }
+
+  // Each invocation fills a fresh journal, so the files never outgrow one
+  // batch however long the run is.
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OperationsPerInvocation(MESSAGES)
+  @OutputTimeUnit(TimeUnit.NANOSECONDS)
+  @Warmup(iterations = 3)
+  @Measurement(iterations = 10)
+  public long append(WireCorpus corpus, FreshJournal fresh) {
+    FixJournal target = fresh.journal;
+    for (int seqNum = 1; seqNum <= MESSAGES; seqNum++) {
+      MemorySegment message = corpus.segment(corpus.next());
+      target.append(seqNum, message, 0, (int) message.byteSize());
+    }
+    return target.position();
+  }
+
+  @Benchmark
+  public int replayGap() {
+    int from = nextGap;
+    nextGap = from + gap > MESSAGES - gap ? 1 : from + gap;
+    return journal.replay(from, from + gap - 1, consumer);
+  }
+
+  private void consume(MemorySegment buffer, long offset, int length) {
+    blackhole.consume(buffer.get(ValueLayout.JAVA_BYTE, offset + length - 1));
+  }
+
+  private static void delete(Path directory) throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(path -> {
+        try {
+          Files.delete(path);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class FreshJournal {
+    private Path directory;
+    private FixJournal journal;
+
+    @Setup(Level.Invocation)
+    public void open() throws IOException {
+      directory = Files.createTempDirectory("fix-journal-append");
+      journal = FixJournal.open(directory, SEGMENT_SIZE, MESSAGES, FLUSH_INTERVAL_MILLIS);
+    }
+
+    @TearDown(Level.Invocation)
+    public void close() throws IOException {
+      journal.close();
+      delete(directory);
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ * Constant handles onto {@code LegacyParsers}. Static final handles are
+ * constant-folded and inlined by C2, so calling through them costs the same
+ * as a direct static call.
+ */
+final class LegacyHandles {
+  static final MethodHandle MS_FIX_PARSER =
+      find("msFixParser", MethodType.methodType(long.class, byte[].class, int.class));
+  static final MethodHandle MS_FIX_PARSER_V1 =
+      find("msFixParserV1", MethodType.methodType(long.class, MemorySegment.class, long.class));
+  static final MethodHandle MS_FIX_PARSER_V2 =
+      find("msFixParserV2", MethodType.methodType(long.class, byte[].class));
+  static final MethodHandle PARSER_V2 =
+      find("parserV2", MethodType.methodType(long.class, MemorySegment.class));
+
+  private LegacyHandles() {
+  }
+
+  private static MethodHandle find(String name, MethodType type) {
+    try {
+      return MethodHandles.publicLookup().findStatic(Class.forName("LegacyParsers"), name, type);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package com.example.fix.bench;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.fix.FixConnection;
+import com.example.fix.FixEventLoop;
+import com.example.fix.LatencyHistogram;
+
+/**
+ * Order round trips over loopback TCP between two {@link FixEventLoop}s. The
+ * initiator keeps a window of NewOrderSingles in flight on every connection;
+ * the acceptor parses each one in place from its receive buffer and answers
+ * with an ExecutionReport encoded straight into the send buffer. For each
+ * connection count it reports messages/sec and round-trip latency
+ * percentiles.
+ *
+ * <p>Not a JMH benchmark, since latency here is per message across two
+ * threads. Run it from the shaded jar:
+ * {@code java -cp target/benchmarks.jar com.example.fix.bench.LoopbackBenchmark
+ * [connections...] [--seconds N] [--window N] [--spin]}.
+ */
+public final class LoopbackBenchmark {
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private LoopbackBenchmark() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    List<Integer> connectionCounts = new ArrayList<>();
+    int seconds = 5;
+    int window = 1;
+    boolean spin = false;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+        case "--window" -> window = Integer.parseInt(args[++i]);
+        case "--spin" -> spin = true;
+        default -> connectionCounts.add(Integer.parseInt(args[i]));
+      }
+    }
+    if (connectionCounts.isEmpty()) {
+      connectionCounts.addAll(List.of(1, 4, 16, 64, 256));
+    }
+
+    System.out.printf("window=%d seconds=%d spin=%b%n", window, seconds, spin);
+    System.out.printf("%11s %12s %10s %10s %10s %10s %14s%n",
+        "connections", "msgs/s", "p50 us", "p99 us", "p99.9 us", "max us", "replies/write");
+    for (int connections : connectionCounts) {
+      run(connections, window, seconds, spin);
+    }
+  }
+
+  private static void run(int connections, int window, int seconds, boolean spin)
+      throws IOException, InterruptedException {
+    Acceptor acceptor = new Acceptor();
+    LoopbackInitiator initiator = new LoopbackInitiator(connections, window);
+    FixEventLoop server = new FixEventLoop("fix-acceptor", BUFFER_SIZE, BUFFER_SIZE, spin, acceptor);
+    FixEventLoop client = new FixEventLoop("fix-initiator", BUFFER_SIZE, BUFFER_SIZE, spin, initiator);
+    try {
+      InetSocketAddress address = server.listen(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+      server.start();
+      client.start();
+      for (int i = 0; i < connections; i++) {
+        client.connect(address);
+      }
+      long deadline = System.nanoTime() + 10_000_000_000L;
+      while (client.connections() < connections) {
+        if (System.nanoTime() > deadline) {
+          throw new IllegalStateException("Only " + client.connections() + " of " + connections + " connected");
+        }
+        Thread.sleep(10);
+      }
+
+      Thread.sleep(1000);
+      initiator.startRecording();
+      Thread.sleep(seconds * 1000L);
+      initiator.stopRecording();
+      Thread.sleep(100);
+    } finally {
+      client.close();
+      server.close();
+    }
+    if (acceptor.rejected() > 0 || initiator.rejected() > 0) {
+      throw new IllegalStateException("Messages failed to parse: acceptor " + acceptor.rejected()
+          + ", initiator " + initiator.rejected());
+    }
+
+    LatencyHistogram roundTrips = initiator.roundTrips();
+    System.out.printf("%11d %12.0f %10.1f %10.1f %10.1f %10.1f %14.2f%n",
+        connections, initiator.messagesPerSecond(),
+        roundTrips.valueAtQuantile(0.50) / 1e3, roundTrips.valueAtQuantile(0.99) / 1e3,
+        roundTrips.valueAtQuantile(0.999) / 1e3, roundTrips.max() / 1e3,
+        (double) acceptor.replies() / Math.max(1, acceptor.writes()));
+  }
+
+  // Parses every order in place and acknowledges it with a fill.
+  static final class Acceptor implements FixConnection.Handler {
+    private final OrderAcknowledger acknowledger = new OrderAcknowledger();
+    private long writes;
+
+    @Override
+    public void onDisconnected(FixConnection connection) {
+      writes += connection.writes();
+    }
+
+    @Override
+    public void onMessage(FixConnection connection, MemorySegment buffer, long offset, int length) {
+      long at = connection.prepareSend(OrderAcknowledger.MAX_REPLY);
+      if (at < 0) {
+        throw new IllegalStateException("Send buffer full");
+      }
+      int reply = acknowledger.acknowledge(buffer, offset, length, connection.sendBuffer(), at);
+      if (reply > 0) {
+        connection.commitSend(reply);
+      }
+    }
+
+    long replies() {
+      return acknowledger.replies();
+    }
+
+    long rejected() {
+      return acknowledger.rejected();
+    }
+
+    // Write calls on connections closed so far.
+    long writes() {
+      return writes;
+    }
+  }
+}
@@ -0,0 +1,129 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+
+import com.example.fix.FixConnection;
+import com.example.fix.FixEncoder;
+import com.example.fix.FixExecutionReport;
+import com.example.fix.FixExecutionReportParser;
+import com.example.fix.FixNewOrderSingleEncoder;
+import com.example.fix.LatencyHistogram;
+
+/**
+ * Load-generating side of the loopback harnesses: keeps {@code window}
+ * NewOrderSingles in flight on every connection of a {@link
+ * com.example.fix.FixEventLoop} and times each round trip with a
+ * per-connection FIFO of send times (TCP keeps the replies in order).
+ */
+final class LoopbackInitiator implements FixConnection.Handler {
+  static final int MAX_MESSAGE = 512;
+  private static final byte[] SYMBOL = "NVDA".getBytes(StandardCharsets.US_ASCII);
+
+  private final int window;
+  private final long[][] sendTimes;
+  private final int[] heads;
+  private final int[] tails;
+  private final int[] sequences;
+  private final FixNewOrderSingleEncoder orders =
+      new FixNewOrderSingleEncoder(new FixEncoder("FIX.4.2", "CLIENT", "BROKER"));
+  private final FixExecutionReportParser parser = new FixExecutionReportParser(true);
+  private final FixExecutionReport report = new FixExecutionReport();
+  private final byte[] clOrdId = new byte[16];
+
+  private final LatencyHistogram roundTrips = new LatencyHistogram();
+  private long recorded;
+  private long rejected;
+  private volatile boolean recording;
+  private long recordingStart;
+  private long recordingNanos;
+
+  LoopbackInitiator(int connections, int window) {
+    this.window = window;
+    this.sendTimes = new long[connections][window];
+    this.heads = new int[connections];
+    this.tails = new int[connections];
+    this.sequences = new int[connections];
+  }
+
+  void startRecording() {
+    recordingStart = System.nanoTime();
+    recording = true;
+  }
+
+  void stopRecording() {
+    recording = false;
+    recordingNanos = System.nanoTime() - recordingStart;
+  }
+
+  // Only valid once the initiator's event loop has been closed.
+  double messagesPerSecond() {
+    return recorded * 1e9 / recordingNanos;
+  }
+
+  long rejected() {
+    return rejected;
+  }
+
+  // Round-trip times in nanoseconds; only valid once the initiator's event
+  // loop has been closed.
+  LatencyHistogram roundTrips() {
+    return roundTrips;
+  }
+
+  @Override
+  public void onConnected(FixConnection connection) {
+    for (int i = 0; i < window; i++) {
+      send(connection);
+    }
+  }
+
+  @Override
+  public void onMessage(FixConnection connection, MemorySegment buffer, long offset, int length) {
+    long now = System.nanoTime();
+    int id = connection.id();
+    if (!parser.parse(buffer, offset, length, report)) {
+      rejected++;
+    }
+    long sent = sendTimes[id][tails[id]];
+    tails[id] = tails[id] + 1 == window ? 0 : tails[id] + 1;
+    if (recording) {
+      recorded++;
+      roundTrips.record(now - sent);
+    }
+    send(connection);
+  }
+
+  private void send(FixConnection connection) {
+    int id = connection.id();
+    long at = connection.prepareSend(MAX_MESSAGE);
+    if (at < 0) {
+      throw new IllegalStateException("Send buffer full");
+    }
+    int seq = ++sequences[id];
+    clOrdId(id, seq);
+    long now = System.nanoTime();
+    int length = orders.begin(connection.sendBuffer(), at, seq, System.currentTimeMillis() * 1_000_000L)
+        .clOrdId(clOrdId)
+        .handlInst((byte) '1').symbol(SYMBOL).side((byte) '1')
+        .orderQty(100).ordType((byte) '2').price(12550, 2).end();
+    connection.commitSend(length);
+    sendTimes[id][heads[id]] = now;
+    heads[id] = heads[id] + 1 == window ? 0 : heads[id] + 1;
+  }
+
+  // Fixed-width "<connection>-<seq>", zero-padded, written without
+  // allocating.
+  private void clOrdId(int connection, int seq) {
+    int p = clOrdId.length;
+    for (int i = 0; i < 10; i++) {
+      clOrdId[--p] = (byte) ('0' + seq % 10);
+      seq /= 10;
+    }
+    clOrdId[--p] = '-';
+    while (p > 0) {
+      clOrdId[--p] = (byte) ('0' + connection % 10);
+      connection /= 10;
+    }
+  }
+}
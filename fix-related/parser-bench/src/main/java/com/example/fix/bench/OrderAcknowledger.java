@@ -0,0 +1,54 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.MemorySegment;
+
+import com.example.fix.FixEncoder;
+import com.example.fix.FixExecutionReportEncoder;
+import com.example.fix.FixNewOrderSingle;
+import com.example.fix.FixNewOrderSingleParser;
+
+/**
+ * Accepting side of the loopback harnesses, independent of the threading
+ * model: parses a NewOrderSingle in place and encodes a filled
+ * ExecutionReport for it straight into a send buffer. One instance per
+ * thread.
+ */
+final class OrderAcknowledger {
+  static final int MAX_REPLY = 512;
+
+  private final FixNewOrderSingleParser parser = new FixNewOrderSingleParser(true);
+  private final FixNewOrderSingle order = new FixNewOrderSingle();
+  private final FixExecutionReportEncoder reports =
+      new FixExecutionReportEncoder(new FixEncoder("FIX.4.2", "BROKER", "CLIENT"));
+  private long replies;
+  private long rejected;
+
+  // Returns the reply's length, or -1 if the message is not a valid order.
+  int acknowledge(MemorySegment buffer, long offset, int length, MemorySegment out, long at) {
+    if (!parser.parse(buffer, offset, length, order)) {
+      rejected++;
+      return -1;
+    }
+    long clOrdId = offset + order.clOrdIdOffset();
+    long now = System.currentTimeMillis() * 1_000_000L;
+    replies++;
+    return reports.begin(out, at, order.msgSeqNum(), now)
+        .orderId(buffer, clOrdId, order.clOrdIdLength())
+        .clOrdId(buffer, clOrdId, order.clOrdIdLength())
+        .execId(buffer, clOrdId, order.clOrdIdLength())
+        .execType((byte) 'F').ordStatus((byte) '2')
+        .symbol(buffer, offset + order.symbolOffset(), order.symbolLength())
+        .side(order.side()).orderQty(order.orderQty())
+        .lastShares(order.orderQty()).lastPx(order.priceMantissa(), order.priceScale())
+        .leavesQty(0).cumQty(order.orderQty()).avgPx(order.priceMantissa(), order.priceScale())
+        .end();
+  }
+
+  long replies() {
+    return replies;
+  }
+
+  long rejected() {
+    return rejected;
+  }
+}
@@ -0,0 +1,81 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.example.fix.OrderIdIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Order-lifecycle churn on the ClOrdID index. The index holds {@code open}
+ * orders; each operation opens the next order, looks up an open one and
+ * closes the oldest, so the table stays at a steady size while every slot
+ * eventually sees inserts and backward-shift deletes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class OrderIdIndexBenchmark {
+  private static final int KEY_STRIDE = 16;
+  private static final int KEY_LENGTH = 14;
+
+  @Param({"10000", "1000000"})
+  public int open;
+
+  private Arena arena;
+  private MemorySegment keys;
+  private OrderIdIndex index;
+  private int keyCount;
+  private int oldest;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    arena = Arena.ofShared();
+    keyCount = 4 * open;
+    keys = arena.allocate((long) keyCount * KEY_STRIDE);
+    for (int i = 0; i < keyCount; i++) {
+      byte[] key = String.format("ORD%011d\u0001", i).getBytes(StandardCharsets.US_ASCII);
+      MemorySegment.copy(MemorySegment.ofArray(key), 0, keys, (long) i * KEY_STRIDE, key.length);
+    }
+    index = new OrderIdIndex(open + 1);
+    for (next = 0; next < open; next++) {
+      index.put(keys, (long) next * KEY_STRIDE, KEY_LENGTH, next);
+    }
+    oldest = 0;
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    index.close();
+    arena.close();
+  }
+
+  @Benchmark
+  public int lifecycle() {
+    index.put(keys, (long) next * KEY_STRIDE, KEY_LENGTH, next);
+    next = next + 1 == keyCount ? 0 : next + 1;
+    int middle = oldest + open / 2;
+    int found = index.get(keys, (long) (middle % keyCount) * KEY_STRIDE, KEY_LENGTH);
+    int removed = index.remove(keys, (long) oldest * KEY_STRIDE, KEY_LENGTH);
+    oldest = oldest + 1 == keyCount ? 0 : oldest + 1;
+    return found ^ removed;
+  }
+}
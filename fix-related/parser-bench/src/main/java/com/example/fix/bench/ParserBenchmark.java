@@ -0,0 +1,67 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+import com.example.fix.FixNewOrderSingle;
+import com.example.fix.FixNewOrderSingleParser;
+import com.example.fix.FixStructuralIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Every parser variant in the repo, one message per operation, cycling through
+ * the messages of a data-gen corpus.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+@State(Scope.Thread)
+public class ParserBenchmark {
+  private final FixNewOrderSingleParser parser = new FixNewOrderSingleParser();
+  private final FixNewOrderSingle order = new FixNewOrderSingle();
+  private final FixStructuralIndex index = new FixStructuralIndex(64 * 1024);
+
+  @Benchmark
+  public long msFixParser(WireCorpus corpus) throws Throwable {
+    byte[] message = corpus.array(corpus.next());
+    return (long) LegacyHandles.MS_FIX_PARSER.invokeExact(message, message.length);
+  }
+
+  @Benchmark
+  public long msFixParserV1(WireCorpus corpus) throws Throwable {
+    MemorySegment message = corpus.segment(corpus.next());
+    return (long) LegacyHandles.MS_FIX_PARSER_V1.invokeExact(message, message.byteSize());
+  }
+
+  @Benchmark
+  public long msFixParserV2(WireCorpus corpus) throws Throwable {
+    return (long) LegacyHandles.MS_FIX_PARSER_V2.invokeExact(corpus.array(corpus.next()));
+  }
+
+  @Benchmark
+  public long parserV2(WireCorpus corpus) throws Throwable {
+    return (long) LegacyHandles.PARSER_V2.invokeExact(corpus.segment(corpus.next()));
+  }
+
+  @Benchmark
+  public boolean zeroGcNewOrderSingle(WireCorpus corpus) {
+    MemorySegment message = corpus.segment(corpus.next());
+    return parser.parse(message, (int) message.byteSize(), order);
+  }
+
+  @Benchmark
+  public int structuralIndex(WireCorpus corpus) {
+    MemorySegment message = corpus.segment(corpus.next());
+    return index.index(message, 0, (int) message.byteSize()) ? index.fieldCount() : -1;
+  }
+}
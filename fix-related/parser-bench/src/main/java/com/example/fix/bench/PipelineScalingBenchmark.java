@@ -0,0 +1,93 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+import com.example.fix.FixNewOrderSingle;
+import com.example.fix.FixNewOrderSingleParser;
+import com.example.fix.IngestPipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Messages per microsecond through {@link IngestPipeline} as parser workers
+ * are added. The benchmark thread is the framer: each invocation publishes a
+ * batch of corpus messages and waits until the handler has seen all of them.
+ * {@code workers=0} parses the same batch on the benchmark thread, as the
+ * single-core baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PipelineScalingBenchmark {
+  private static final int BATCH = 4096;
+
+  @Param({"0", "1", "2", "4", "8"})
+  public int workers;
+
+  @Param({"SESSION", "SYMBOL", "ROUND_ROBIN"})
+  public IngestPipeline.Partitioning partitioning;
+
+  private final FixNewOrderSingleParser parser = new FixNewOrderSingleParser(true);
+  private final FixNewOrderSingle order = new FixNewOrderSingle();
+  private final QuantitySum sum = new QuantitySum();
+  private IngestPipeline pipeline;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    if (workers > 0) {
+      pipeline = new IngestPipeline(16 * 1024, 1024, workers, partitioning, true, sum);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    if (pipeline != null) {
+      pipeline.close();
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(BATCH)
+  public long ingest(WireCorpus corpus) {
+    if (pipeline == null) {
+      for (int i = 0; i < BATCH; i++) {
+        MemorySegment message = corpus.segment(corpus.next());
+        if (parser.parse(message, 0, (int) message.byteSize(), order)) {
+          sum.onOrder(i, order);
+        }
+      }
+      return sum.total;
+    }
+    for (int i = 0; i < BATCH; i++) {
+      MemorySegment message = corpus.segment(corpus.next());
+      pipeline.onMessage(message, 0, (int) message.byteSize());
+    }
+    pipeline.drain();
+    return sum.total;
+  }
+
+  private static final class QuantitySum implements IngestPipeline.OrderHandler {
+    long total;
+
+    @Override
+    public void onOrder(long sequence, FixNewOrderSingle order) {
+      total += order.orderQty();
+    }
+  }
+}
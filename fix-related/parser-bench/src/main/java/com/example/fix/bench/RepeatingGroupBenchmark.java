@@ -0,0 +1,109 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import com.example.fix.FixGroupIndex;
+import com.example.fix.FixNewOrderSingle;
+import com.example.fix.FixNewOrderSingleParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A NewOrderSingle carrying {@code entries} NoPartyIDs entries (448/447/452)
+ * and two NoAllocs entries, parsed with a {@link FixGroupIndex} attached
+ * ({@code indexed}, which also walks the parties with the cursor) and without
+ * one ({@code discarded}, the groups fall through to the default branch).
+ * Time per message should grow linearly with {@code entries}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RepeatingGroupBenchmark {
+  private static final int MAX_ENTRIES = 256;
+
+  @Param({"0", "4", "16", "64"})
+  public int entries;
+
+  private Arena arena;
+  private MemorySegment message;
+  private int length;
+  private FixGroupIndex groups;
+  private final FixNewOrderSingleParser parser = new FixNewOrderSingleParser();
+  private FixNewOrderSingle indexedOrder;
+  private final FixNewOrderSingle plainOrder = new FixNewOrderSingle();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    StringBuilder body = new StringBuilder()
+        .append("35=D\u000134=1\u000149=CLIENT\u000156=BROKER\u000152=20240101-12:00:00.000\u0001")
+        .append("11=ORD00000001\u000155=NVDA\u000154=1\u000138=100\u000140=2\u000144=125.50\u0001")
+        .append("453=").append(entries).append('\u0001');
+    for (int i = 0; i < entries; i++) {
+      body.append("448=PARTY").append(i).append("\u0001447=D\u0001452=").append(1 + i % 12).append('\u0001');
+    }
+    body.append("78=2\u000179=ACC1\u000180=60\u000179=ACC2\u000180=40\u0001")
+        .append("60=20240101-12:00:00.000\u0001");
+    String head = "8=FIX.4.2\u00019=" + body.length() + "\u0001";
+    int sum = 0;
+    for (char c : (head + body).toCharArray()) {
+      sum += c;
+    }
+    byte[] bytes = (head + body + String.format("10=%03d\u0001", sum & 0xFF)).getBytes(StandardCharsets.US_ASCII);
+
+    arena = Arena.ofShared();
+    message = arena.allocate(bytes.length + 8, 64);
+    MemorySegment.copy(MemorySegment.ofArray(bytes), 0, message, 0, bytes.length);
+    length = bytes.length;
+    groups = new FixGroupIndex(MAX_ENTRIES);
+    indexedOrder = new FixNewOrderSingle(groups);
+    if (!parser.parse(message, 0, length, indexedOrder)
+        || groups.cursor(FixGroupIndex.PARTIES).count() != entries) {
+      throw new IllegalStateException("Benchmark message did not parse");
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    groups.close();
+    arena.close();
+  }
+
+  @Benchmark
+  public long indexed() {
+    if (!parser.parse(message, 0, length, indexedOrder)) {
+      return -1;
+    }
+    long sum = 0;
+    FixGroupIndex.Cursor parties = groups.cursor(FixGroupIndex.PARTIES);
+    while (parties.next()) {
+      sum += parties.intValue(452) + parties.valueLength(448);
+    }
+    FixGroupIndex.Cursor allocs = groups.cursor(FixGroupIndex.ALLOCS);
+    while (allocs.next()) {
+      sum += allocs.longValue(80);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public boolean discarded() {
+    return parser.parse(message, 0, length, plainOrder);
+  }
+}
@@ -0,0 +1,71 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+import com.example.fix.FixNewOrderSingle;
+import com.example.fix.FixNewOrderSingleParser;
+import com.example.fix.FixScanner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Every {@link FixScanner} backend on the same corpus stream: {@code scan}
+ * finds each SOH of a message field by field, {@code parse} runs the
+ * non-validating {@link FixNewOrderSingleParser} on top of the backend. Each
+ * fork sees a single backend, so the call site stays monomorphic as it
+ * would in production. Compare the ranking with what
+ * {@link FixScanner#calibrate} picks on the same host.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules=jdk.incubator.vector"})
+@State(Scope.Thread)
+public class ScannerBenchmark {
+  @Param({"scalar", "swar", "swar-aligned", "vector"})
+  public String backend;
+
+  private final FixNewOrderSingle order = new FixNewOrderSingle();
+  private FixScanner.Backend scanner;
+  private FixNewOrderSingleParser parser;
+
+  @Setup
+  public void setUp() {
+    scanner = FixScanner.backend(backend);
+    parser = new FixNewOrderSingleParser(false, null, null, null, scanner);
+  }
+
+  @Benchmark
+  public long scan(WireCorpus corpus) {
+    MemorySegment message = corpus.segment(corpus.next());
+    long end = message.byteSize();
+    long sum = 0;
+    long from = 0;
+    while (from < end) {
+      long soh = scanner.indexOfSoh(message, from, end);
+      if (soh < 0) {
+        break;
+      }
+      sum += soh;
+      from = soh + 1;
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public boolean parse(WireCorpus corpus) {
+    MemorySegment message = corpus.segment(corpus.next());
+    return parser.parse(message, (int) message.byteSize(), order);
+  }
+}
@@ -0,0 +1,236 @@
+package com.example.fix.bench;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import com.example.fix.FixConnection;
+import com.example.fix.FixEventLoop;
+import com.example.fix.FixSession;
+import com.example.fix.FixSessionServer;
+import com.example.fix.LatencyHistogram;
+
+/**
+ * Head-to-head of the server threading models on loopback: a
+ * {@link FixSessionServer} with one virtual thread per session, the same with
+ * platform threads, and the {@link FixEventLoop} selector. One event-loop
+ * initiator drives every model identically with {@link LoopbackInitiator};
+ * the server side parses in place and replies through
+ * {@link OrderAcknowledger}. Every model gives each session its own
+ * acknowledger (parser, encoder and order), so per-session handler state is
+ * the same everywhere and the memory columns differ only by threading model.
+ * For each model and session count it prints messages/sec, round-trip
+ * percentiles, and heap and RSS growth per session.
+ *
+ * <p>Memory is measured in one process, so the figures include the
+ * initiator's per-connection buffers, which are the same for every model.
+ * Run it as a main class:
+ * {@code java -cp target/benchmarks.jar com.example.fix.bench.SessionServerBenchmark
+ * [sessions...] [--models VIRTUAL,PLATFORM,EVENT_LOOP] [--seconds N] [--window N]}.
+ */
+public final class SessionServerBenchmark {
+  private enum Model {
+    VIRTUAL,
+    PLATFORM,
+    EVENT_LOOP
+  }
+
+  private record Server(AutoCloseable closeable, InetSocketAddress address, IntSupplier sessions) {
+  }
+
+  private static final int BUFFER_SIZE = 16 * 1024;
+  private static final long CONNECT_TIMEOUT_NANOS = 60_000_000_000L;
+
+  private SessionServerBenchmark() {
+  }
+
+  public static void main(String[] args) throws Exception {
+    List<Integer> sessionCounts = new ArrayList<>();
+    List<Model> models = new ArrayList<>(List.of(Model.values()));
+    int seconds = 5;
+    int window = 1;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--seconds" -> seconds = Integer.parseInt(args[++i]);
+        case "--window" -> window = Integer.parseInt(args[++i]);
+        case "--models" -> {
+          models.clear();
+          for (String model : args[++i].split(",")) {
+            models.add(Model.valueOf(model));
+          }
+        }
+        default -> sessionCounts.add(Integer.parseInt(args[i]));
+      }
+    }
+    if (sessionCounts.isEmpty()) {
+      sessionCounts.addAll(List.of(100, 1_000, 10_000));
+    }
+
+    System.out.printf("window=%d seconds=%d%n", window, seconds);
+    System.out.printf("%-10s %8s %12s %10s %10s %10s %10s %12s %12s%n",
+        "model", "sessions", "msgs/s", "p50 us", "p99 us", "p99.9 us", "max us", "heap KB/s", "rss KB/s");
+    for (int sessions : sessionCounts) {
+      for (Model model : models) {
+        try {
+          run(model, sessions, window, seconds);
+        } catch (Exception | OutOfMemoryError e) {
+          System.out.printf("%-10s %8d failed: %s%n", model, sessions, e);
+        }
+      }
+    }
+  }
+
+  private static void run(Model model, int sessions, int window, int seconds) throws Exception {
+    LoopbackInitiator initiator = new LoopbackInitiator(sessions, window);
+    FixEventLoop client = new FixEventLoop("fix-initiator", BUFFER_SIZE, BUFFER_SIZE, false, initiator);
+    SessionAcceptor sessionAcceptor = new SessionAcceptor();
+    ConnectionAcceptor loopAcceptor = new ConnectionAcceptor();
+    long heapBefore = heapUsed();
+    long rssBefore = rss();
+    long heapAfter;
+    long rssAfter;
+    Server server = start(model, sessions, sessionAcceptor, loopAcceptor);
+    try {
+      client.start();
+      for (int i = 0; i < sessions; i++) {
+        client.connect(server.address());
+      }
+      long deadline = System.nanoTime() + CONNECT_TIMEOUT_NANOS;
+      while (client.connections() < sessions || server.sessions().getAsInt() < sessions) {
+        if (System.nanoTime() > deadline) {
+          throw new IllegalStateException("Only " + server.sessions().getAsInt() + " of " + sessions + " accepted");
+        }
+        Thread.sleep(10);
+      }
+
+      Thread.sleep(1000);
+      heapAfter = heapUsed();
+      rssAfter = rss();
+      initiator.startRecording();
+      Thread.sleep(seconds * 1000L);
+      initiator.stopRecording();
+      Thread.sleep(100);
+    } finally {
+      client.close();
+      server.closeable().close();
+    }
+    long rejected = sessionAcceptor.rejected.get() + loopAcceptor.rejected + initiator.rejected();
+    if (rejected > 0) {
+      throw new IllegalStateException(rejected + " messages failed to parse");
+    }
+
+    LatencyHistogram roundTrips = initiator.roundTrips();
+    System.out.printf("%-10s %8d %12.0f %10.1f %10.1f %10.1f %10.1f %12.1f %12s%n",
+        model, sessions, initiator.messagesPerSecond(),
+        roundTrips.valueAtQuantile(0.50) / 1e3, roundTrips.valueAtQuantile(0.99) / 1e3,
+        roundTrips.valueAtQuantile(0.999) / 1e3, roundTrips.max() / 1e3,
+        (heapAfter - heapBefore) / 1024.0 / sessions,
+        rssBefore < 0 ? "n/a" : String.format("%.1f", (rssAfter - rssBefore) / 1024.0 / sessions));
+  }
+
+  private static Server start(Model model, int sessions, SessionAcceptor sessionAcceptor,
+      ConnectionAcceptor loopAcceptor) throws IOException {
+    InetSocketAddress any = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+    if (model == Model.EVENT_LOOP) {
+      FixEventLoop loop = new FixEventLoop("fix-acceptor", BUFFER_SIZE, BUFFER_SIZE, false, loopAcceptor);
+      InetSocketAddress address = loop.listen(any);
+      loop.start();
+      return new Server(loop, address, loop::connections);
+    }
+    FixSessionServer server = new FixSessionServer(sessions, BUFFER_SIZE, BUFFER_SIZE,
+        model == Model.VIRTUAL ? FixSessionServer.Threading.VIRTUAL : FixSessionServer.Threading.PLATFORM,
+        sessionAcceptor);
+    return new Server(server, server.listen(any), server::sessions);
+  }
+
+  private static long heapUsed() {
+    System.gc();
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+
+  // Resident set size in bytes, or -1 where /proc is not available.
+  private static long rss() throws IOException {
+    Path status = Path.of("/proc/self/status");
+    if (!Files.isReadable(status)) {
+      return -1;
+    }
+    for (String line : Files.readAllLines(status)) {
+      if (line.startsWith("VmRSS:")) {
+        return Long.parseLong(line.replaceAll("[^0-9]", "")) * 1024;
+      }
+    }
+    return -1;
+  }
+
+  // Thread-per-session acceptor: each session keeps its own acknowledger, as
+  // straight-line session logic would.
+  private static final class SessionAcceptor implements FixSession.Handler {
+    private final AtomicLong rejected = new AtomicLong();
+
+    @Override
+    public void onConnected(FixSession session) {
+      session.attach(new OrderAcknowledger());
+    }
+
+    @Override
+    public void onMessage(FixSession session, MemorySegment buffer, long offset, int length) {
+      OrderAcknowledger acknowledger = (OrderAcknowledger) session.attachment();
+      long at = session.prepareSend(OrderAcknowledger.MAX_REPLY);
+      if (at < 0) {
+        return;
+      }
+      int reply = acknowledger.acknowledge(buffer, offset, length, session.sendBuffer(), at);
+      if (reply > 0) {
+        session.commitSend(reply);
+      }
+    }
+
+    @Override
+    public void onDisconnected(FixSession session) {
+      if (session.attachment() instanceof OrderAcknowledger acknowledger) {
+        rejected.addAndGet(acknowledger.rejected());
+      }
+    }
+  }
+
+  // Event-loop acceptor with the same per-session state as SessionAcceptor:
+  // one acknowledger attached to every connection rather than one shared by
+  // the loop.
+  private static final class ConnectionAcceptor implements FixConnection.Handler {
+    // Loop thread only; read after the loop has been closed.
+    private long rejected;
+
+    @Override
+    public void onConnected(FixConnection connection) {
+      connection.attach(new OrderAcknowledger());
+    }
+
+    @Override
+    public void onMessage(FixConnection connection, MemorySegment buffer, long offset, int length) {
+      OrderAcknowledger acknowledger = (OrderAcknowledger) connection.attachment();
+      long at = connection.prepareSend(OrderAcknowledger.MAX_REPLY);
+      if (at < 0) {
+        throw new IllegalStateException("Send buffer full");
+      }
+      int reply = acknowledger.acknowledge(buffer, offset, length, connection.sendBuffer(), at);
+      if (reply > 0) {
+        connection.commitSend(reply);
+      }
+    }
+
+    @Override
+    public void onDisconnected(FixConnection connection) {
+      if (connection.attachment() instanceof OrderAcknowledger acknowledger) {
+        rejected += acknowledger.rejected();
+      }
+    }
+  }
+}
@@ -0,0 +1,177 @@
+package com.example.fix.bench;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import com.example.fix.FixStructuralIndex;
+
+/**
+ * Equivalence check for {@link FixStructuralIndex} against a byte-at-a-time
+ * reference tokenizer. Every message of the data-v1, data-v2 and data-v3
+ * corpora is indexed at each of the 64 start offsets within a cache line, so
+ * every message crosses vector and bitmap-word boundaries at every position.
+ * Then random messages are compared: tags of 1-6 digits, values with '=' in
+ * them and values long enough to span several bitmap words, and one in four
+ * corrupted (a byte replaced, or the final SOH dropped) so that rejections are
+ * compared too. Throws on the first mismatch.
+ *
+ * The index uses {@code ByteVector.SPECIES_PREFERRED}; run with
+ * {@code -XX:MaxVectorSize=16} or {@code 32} to check the 128- and 256-bit
+ * shapes on a wider machine:
+ * {@code java --add-modules jdk.incubator.vector -cp target/benchmarks.jar
+ * com.example.fix.bench.StructuralIndexCheck [random messages]}.
+ */
+public final class StructuralIndexCheck {
+  private static final String[] CORPORA = {"data-v1", "data-v2", "data-v3"};
+  private static final int CAPACITY = 4096;
+  private static final int OFFSETS = 64;
+  private static final byte SOH = 1;
+  private static final byte[] VALUE_BYTES = "ABCXYZabcxyz0123456789.-:= ".getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] CORRUPTIONS = {SOH, '=', 'x', '0'};
+
+  private final FixStructuralIndex index = new FixStructuralIndex(CAPACITY);
+  private final int[] tags = new int[CAPACITY];
+  private final int[] valueOffsets = new int[CAPACITY];
+  private final int[] valueLengths = new int[CAPACITY];
+  private final MemorySegment buffer;
+
+  private long messages;
+  private long fields;
+  private long rejected;
+
+  private StructuralIndexCheck(Arena arena) {
+    buffer = arena.allocate(CAPACITY + OFFSETS, 64);
+  }
+
+  public static void main(String[] args) throws IOException {
+    int randomMessages = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+    System.out.println("species " + FixStructuralIndex.species());
+    try (Arena arena = Arena.ofConfined()) {
+      for (String name : CORPORA) {
+        StructuralIndexCheck check = new StructuralIndexCheck(arena);
+        WireCorpus corpus = new WireCorpus();
+        corpus.corpus = name;
+        corpus.load();
+        try {
+          for (int i = 0; i < corpus.count(); i++) {
+            byte[] message = corpus.array(i);
+            for (int offset = 0; offset < OFFSETS; offset++) {
+              check.compare(message, message.length, offset);
+            }
+          }
+        } finally {
+          corpus.close();
+        }
+        System.out.println(check.summary(name + ": " + corpus.count() + " messages x " + OFFSETS + " offsets"));
+      }
+
+      StructuralIndexCheck check = new StructuralIndexCheck(arena);
+      SplittableRandom random = new SplittableRandom(42);
+      byte[] message = new byte[CAPACITY];
+      for (int i = 0; i < randomMessages; i++) {
+        int length = randomMessage(random, message);
+        check.compare(message, length, random.nextInt(OFFSETS));
+      }
+      System.out.println(check.summary("random: " + randomMessages + " messages"));
+    }
+  }
+
+  private void compare(byte[] message, int length, int offset) {
+    MemorySegment.copy(message, 0, buffer, ValueLayout.JAVA_BYTE, offset, length);
+    boolean indexed = index.index(buffer, offset, length);
+    int expected = reference(message, length);
+    messages++;
+    if (indexed != (expected >= 0)) {
+      throw mismatch("index returned " + indexed, message, length, offset);
+    }
+    if (!indexed) {
+      rejected++;
+      return;
+    }
+    if (index.fieldCount() != expected) {
+      throw mismatch(index.fieldCount() + " fields, expected " + expected, message, length, offset);
+    }
+    for (int f = 0; f < expected; f++) {
+      if (index.tag(f) != tags[f] || index.valueOffset(f) != valueOffsets[f]
+          || index.valueLength(f) != valueLengths[f]) {
+        throw mismatch("field " + f + " differs", message, length, offset);
+      }
+    }
+    fields += expected;
+  }
+
+  // The same rules as FixStructuralIndex, one byte at a time: a field is the
+  // first '=' at or after its start, behind a non-empty all-digit tag, then
+  // the first SOH after that '='. Returns the field count, or -1.
+  private int reference(byte[] message, int length) {
+    int count = 0;
+    int p = 0;
+    while (p < length) {
+      int tag = 0;
+      int start = p;
+      for (; p < length && message[p] != '='; p++) {
+        int digit = message[p] - '0';
+        if (digit < 0 || digit > 9) {
+          return -1;
+        }
+        tag = tag * 10 + digit;
+      }
+      if (p == length || p == start) {
+        return -1;
+      }
+      int equals = p++;
+      while (p < length && message[p] != SOH) {
+        p++;
+      }
+      if (p == length) {
+        return -1;
+      }
+      tags[count] = tag;
+      valueOffsets[count] = equals + 1;
+      valueLengths[count] = p - equals - 1;
+      count++;
+      p++;
+    }
+    return count;
+  }
+
+  private static int randomMessage(SplittableRandom random, byte[] message) {
+    int length = 0;
+    int fieldCount = random.nextInt(1, 40);
+    for (int f = 0; f < fieldCount; f++) {
+      byte[] tag = Integer.toString(random.nextInt(1, 1_000_000)).getBytes(StandardCharsets.US_ASCII);
+      int valueLength = random.nextInt(8) == 0 ? random.nextInt(64, 200) : random.nextInt(0, 12);
+      if (length + tag.length + valueLength + 2 > message.length) {
+        break;
+      }
+      System.arraycopy(tag, 0, message, length, tag.length);
+      length += tag.length;
+      message[length++] = '=';
+      for (int v = 0; v < valueLength; v++) {
+        message[length++] = VALUE_BYTES[random.nextInt(VALUE_BYTES.length)];
+      }
+      message[length++] = SOH;
+    }
+    if (random.nextInt(4) == 0) {
+      if (random.nextBoolean()) {
+        length--;
+      } else {
+        message[random.nextInt(length)] = CORRUPTIONS[random.nextInt(CORRUPTIONS.length)];
+      }
+    }
+    return length;
+  }
+
+  private String summary(String what) {
+    return what + " matched, " + fields + " fields, " + rejected + " of " + messages + " rejected by both";
+  }
+
+  private static IllegalStateException mismatch(String what, byte[] message, int length, int offset) {
+    String text = new String(message, 0, length, StandardCharsets.US_ASCII).replace('\u0001', '|');
+    return new IllegalStateException(what + " at offset " + offset + ": " + text);
+  }
+}
@@ -0,0 +1,89 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.example.fix.SymbolDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Symbol to id resolution: the off-heap dictionary against the
+ * {@code new String} plus {@code HashMap} lookup it replaces. Symbols are laid
+ * out off-heap, SOH-terminated, the way they sit in a message.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SymbolDictionaryBenchmark {
+  private static final int KEY_STRIDE = 16;
+
+  @Param({"10", "10000"})
+  public int symbols;
+
+  private Arena arena;
+  private MemorySegment keys;
+  private int[] lengths;
+  private SymbolDictionary dictionary;
+  private Map<String, Integer> map;
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    arena = Arena.ofShared();
+    keys = arena.allocate((long) symbols * KEY_STRIDE);
+    lengths = new int[symbols];
+    dictionary = new SymbolDictionary(symbols);
+    map = new HashMap<>();
+    for (int i = 0; i < symbols; i++) {
+      String symbol = "SYM" + Integer.toString(i, 36).toUpperCase();
+      byte[] key = (symbol + "\u0001").getBytes(StandardCharsets.US_ASCII);
+      MemorySegment.copy(MemorySegment.ofArray(key), 0, keys, (long) i * KEY_STRIDE, key.length);
+      lengths[i] = symbol.length();
+      map.put(symbol, dictionary.intern(keys, (long) i * KEY_STRIDE, lengths[i]));
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    dictionary.close();
+    arena.close();
+  }
+
+  @Benchmark
+  public int dictionaryLookup() {
+    int index = nextKey();
+    return dictionary.lookup(keys, (long) index * KEY_STRIDE, lengths[index]);
+  }
+
+  @Benchmark
+  public int stringHashMap() {
+    int index = nextKey();
+    byte[] bytes = keys.asSlice((long) index * KEY_STRIDE, lengths[index]).toArray(ValueLayout.JAVA_BYTE);
+    return map.get(new String(bytes, StandardCharsets.US_ASCII));
+  }
+
+  private int nextKey() {
+    cursor = (cursor + 7_919) % symbols;
+    return cursor;
+  }
+}
@@ -0,0 +1,53 @@
+package com.example.fix.bench;
+
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.TimeUnit;
+
+import com.example.fix.FixNewOrderSingle;
+import com.example.fix.FixNewOrderSingleParser;
+import com.example.fix.FixParseErrors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of CheckSum (10) and BodyLength (9) validation over the plain parse,
+ * on the same corpus stream. With {@code report} the parser also records
+ * every rejected message's reason in a {@link FixParseErrors}, which should
+ * cost nothing measurable on a corpus that is mostly well formed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ValidationBenchmark {
+  @Param({"false", "true"})
+  public boolean validate;
+
+  @Param({"false", "true"})
+  public boolean report;
+
+  private final FixNewOrderSingle order = new FixNewOrderSingle();
+  private FixNewOrderSingleParser parser;
+
+  @Setup
+  public void setUp() {
+    parser = new FixNewOrderSingleParser(validate, null, null, report ? new FixParseErrors() : null);
+  }
+
+  @Benchmark
+  public boolean parse(WireCorpus corpus) {
+    MemorySegment message = corpus.segment(corpus.next());
+    return parser.parse(message, (int) message.byteSize(), order);
+  }
+}
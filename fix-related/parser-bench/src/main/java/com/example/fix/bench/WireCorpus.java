@@ -0,0 +1,113 @@
+package com.example.fix.bench;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * One {@code data-vN/fix_messages_wire.txt} corpus, split into messages and
+ * replayed round-robin so every benchmark sees the same mixed stream of
+ * message types. Each message is available both as an exact-size
+ * {@code byte[]} and as an exact-size off-heap slice of one contiguous block.
+ *
+ * The data-gen directory defaults to {@code ../data-gen} (the module is run
+ * from {@code parser-bench/}) and can be overridden with {@code -Dfix.dataGen}.
+ */
+@State(Scope.Thread)
+public class WireCorpus {
+  private static final byte LF = '\n';
+  private static final byte CR = '\r';
+
+  @Param({"data-v1", "data-v2", "data-v3"})
+  public String corpus;
+
+  private Arena arena;
+  private MemorySegment block;
+  private byte[][] arrays;
+  private MemorySegment[] segments;
+  private int count;
+  private int cursor;
+
+  @Setup(Level.Trial)
+  public void load() throws IOException {
+    Path dataGen = Path.of(System.getProperty("fix.dataGen", "../data-gen"));
+    byte[] file = Files.readAllBytes(dataGen.resolve(corpus).resolve("fix_messages_wire.txt"));
+
+    List<byte[]> messages = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i <= file.length; i++) {
+      if (i == file.length || file[i] == LF) {
+        int end = i;
+        if (end > start && file[end - 1] == CR) {
+          end--;
+        }
+        if (end > start) {
+          messages.add(Arrays.copyOfRange(file, start, end));
+        }
+        start = i + 1;
+      }
+    }
+    if (messages.isEmpty()) {
+      throw new IllegalStateException("No messages in corpus " + corpus);
+    }
+
+    count = messages.size();
+    arrays = messages.toArray(new byte[0][]);
+    segments = new MemorySegment[count];
+
+    long total = 0;
+    for (byte[] message : arrays) {
+      total += message.length;
+    }
+    arena = Arena.ofShared();
+    block = arena.allocate(total, 64);
+    long offset = 0;
+    for (int i = 0; i < count; i++) {
+      MemorySegment slice = block.asSlice(offset, arrays[i].length);
+      slice.copyFrom(MemorySegment.ofArray(arrays[i]));
+      segments[i] = slice;
+      offset += arrays[i].length;
+    }
+    cursor = 0;
+  }
+
+  @TearDown(Level.Trial)
+  public void close() {
+    arena.close();
+  }
+
+  int next() {
+    int index = cursor;
+    cursor = index + 1 == count ? 0 : index + 1;
+    return index;
+  }
+
+  byte[] array(int index) {
+    return arrays[index];
+  }
+
+  MemorySegment segment(int index) {
+    return segments[index];
+  }
+
+  // Every message back to back, as in a capture without separators.
+  MemorySegment block() {
+    return block;
+  }
+
+  int count() {
+    return count;
+  }
+}
@@ -33,10 +33,24 @@ public class Main {
     private static final ByteVector SOH_VECTOR = ByteVector.broadcast(SPECIES, SOH);
     private static final int SPECIES_LENGTH = SPECIES.length();
     private static final int VECTOR_THRESHOLD = SPECIES_LENGTH;
-    private static final boolean USE_SIMD = SPECIES_LENGTH > 16;
+    // Whether the vector loop beats SWAR depends on the CPU and the traffic, so it is
+    // measured rather than guessed: com.example.fix.FixScanner.calibrate times both on
+    // real messages. Pass its choice as -Dfix.scanner; without it, fall back to
+    // enabling the vector loop for species wider than 128 bits.
+    private static final String SCANNER = System.getProperty("fix.scanner");
+    private static final boolean USE_SIMD = SCANNER == null ? SPECIES_LENGTH > 16 : SCANNER.equals("vector");
     private static final ByteOrder NATIVE_ORDER = ByteOrder.nativeOrder();
     private static final ValueLayout.OfByte JAVA_BYTE = ValueLayout.JAVA_BYTE;
     private static final ValueLayout.OfLong JAVA_LONG_UNALIGNED = ValueLayout.JAVA_LONG_UNALIGNED;
+    private static final ValueLayout.OfLong JAVA_LONG_UNALIGNED_LE =
+            ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    // SWAR Constants for decoding tags: '=' in every byte, and ASCII '0' padding
+    private static final long EQUALS_PATTERN_LONG = 0x3d3d3d3d3d3d3d3dL;
+    private static final long ZERO_DIGITS_LONG = 0x3030303030303030L;
+
+    /** SessionRejectReason (373) "Other", reported when the message ends inside a tag. */
+    public static final int REJECT_OTHER = 99;
 
     /**
      * Interface for the callback. In a real system, the implementation
@@ -55,10 +69,12 @@ public class Main {
         void onField(int tag, MemorySegment buffer, long valueOffset, int valueLength);
 
         /**
-         * Optional error handler.
+         * Optional error handler. Runs on the parsing thread, so it gets a
+         * primitive code instead of a message: count it, don't log it.
+         * @param reason A SessionRejectReason (373) code, e.g. {@link #REJECT_OTHER}
+         * @param offset Where in the buffer the problem was found
          */
-        default void onError(String msg, long offset) {
-            System.err.println("Parse Error at " + offset + ": " + msg);
+        default void onError(int reason, long offset) {
         }
     }
 
@@ -67,6 +83,34 @@ public class Main {
         return (input - SOH_PATTERN_LONG) & ~input & HIGH_BIT_MASK;
     }
 
+    /**
+     * Decodes the tag at the start of a little-endian word.
+     * @return tag << 3 | digitCount, or -1 when the word holds no '=' after 1-7 digits
+     */
+    private static int swarTag(long word) {
+        long input = word ^ EQUALS_PATTERN_LONG;
+        long equals = (input - SOH_PATTERN_LONG) & ~input & HIGH_BIT_MASK;
+        if (equals == 0) {
+            return -1;
+        }
+        int digits = Long.numberOfTrailingZeros(equals) >>> 3;
+        if (digits == 0) {
+            return -1;
+        }
+        // Left-pad the digits with '0' so every tag is an 8-digit number
+        int pad = (8 - digits) << 3;
+        long padded = word << pad | ZERO_DIGITS_LONG >>> (64 - pad);
+        if (((padded & 0xF0F0F0F0F0F0F0F0L) | (((padded + 0x0606060606060606L) & 0xF0F0F0F0F0F0F0F0L) >>> 4))
+                != 0x3333333333333333L) {
+            return -1;
+        }
+        // Multiply-shift: pairs of digits, then pairs of pairs, then both halves
+        long value = (padded & 0x0F0F0F0F0F0F0F0FL) * 2561 >>> 8;
+        value = (value & 0x00FF00FF00FF00FFL) * 6553601 >>> 16;
+        value = (value & 0x0000FFFF0000FFFFL) * 42949672960001L >>> 32;
+        return (int) value << 3 | digits;
+    }
+
     /**
      * The main entry point for parsing.
      * @param buffer The off-heap MemorySegment containing the raw FIX message.
@@ -83,30 +127,48 @@ public class Main {
             // --- 1. PARSE TAG (Integer) ---
             int tag = 0;
             long tagStart = offset;
-            
-            // Fast-path for tag parsing (Scalar)
-            while (offset < limit) {
-                byte b = buffer.get(JAVA_BYTE, offset++);
-                if (b == EQUALS) {
-                    break;
+            long valueStart;
+            long valueEnd = -1;
+
+            // Fast-path for tag parsing (SWAR)
+            // One 8-byte load finds '=', decodes the digits in front of it and, for
+            // short fields (e.g. "35=D", "54=1"), also finds the SOH ending the value.
+            long tagWord = limit - offset >= 8 ? buffer.get(JAVA_LONG_UNALIGNED_LE, offset) : 0;
+            int packedTag = swarTag(tagWord);
+            if (packedTag >= 0) {
+                int digits = packedTag & 7;
+                tag = packedTag >>> 3;
+                valueStart = offset + digits + 1;
+                long result = swarMatch(tagWord) & ((-1L << (digits << 3)) << 8);
+                if (result != 0) {
+                    valueEnd = offset + (Long.numberOfTrailingZeros(result) >>> 3);
+                    offset = valueEnd + 1;
+                } else {
+                    offset += 8;
+                }
+            } else {
+                // Slow path: 8+ digit tags and the last few bytes of the buffer
+                while (offset < limit) {
+                    byte b = buffer.get(JAVA_BYTE, offset++);
+                    if (b == EQUALS) {
+                        break;
+                    }
+                    tag = (tag * 10) + (b - '0');
                 }
-                tag = (tag * 10) + (b - '0');
-            }
 
-            if (offset >= limit) {
-                visitor.onError("Unexpected end of message inside tag", tagStart);
-                return; 
+                if (offset >= limit) {
+                    visitor.onError(REJECT_OTHER, tagStart);
+                    return;
+                }
+                valueStart = offset;
             }
 
             // --- 2. PARSE VALUE (String/Raw) ---
-            long valueStart = offset;
-            long valueEnd = -1;
-
             // A. SIMD LOOP (Vector API)
             // Efficient for very long fields (Buffer > 16/32/64 bytes depending on hardware)
             // If the species is 128-bit (16 bytes), this IS the 16-byte read loop.
             long remaining = limit - offset;
-            if (USE_SIMD && remaining >= VECTOR_THRESHOLD) {
+            if (valueEnd == -1 && USE_SIMD && remaining >= VECTOR_THRESHOLD) {
                 while (remaining >= SPECIES_LENGTH) {
                     ByteVector vector = ByteVector.fromMemorySegment(SPECIES, buffer, offset, NATIVE_ORDER);
 
@@ -222,7 +284,7 @@ public class Main {
                 @Override
                 public void onField(int tag, MemorySegment buf, long vOffset, int vLen) {}
                 @Override
-                public void onError(String msg, long offset) { System.err.println("Error: " + msg); }
+                public void onError(int reason, long offset) { System.err.println("Error: reason " + reason + " at " + offset); }
             };
             
             FixVisitor debugVisitor = (tag, buf, vOffset, vLen) -> {
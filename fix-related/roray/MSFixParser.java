@@ -3,40 +3,48 @@ import java.lang.invoke.VarHandle;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
-class Constants {
-    static final String FIX_MSG =
-            "8=FIX.4.4\u0001" +
-                    "9=120\u0001" +
-                    "35=D\u0001" +
-                    "34=102\u0001" +
-                    "49=BANZAI\u0001" +
-                    "56=EXEC\u0001" +
-                    "52=20250108-10:00:00.000\u0001" +
-                    "11=ORDERID12345\u0001" +
-                    "55=MSFT\u0001" +
-                    "54=1\u0001" +
-                    "38=1000\u0001" +
-                    "40=2\u0001" +
-                    "44=99.50\u0001" +
-                    "10=123\u0001";
-}
-
 public class MSFixParser {
 
+    static final class Constants {
+        static final String FIX_MSG =
+                "8=FIX.4.4\u0001" +
+                        "9=120\u0001" +
+                        "35=D\u0001" +
+                        "34=102\u0001" +
+                        "49=BANZAI\u0001" +
+                        "56=EXEC\u0001" +
+                        "52=20250108-10:00:00.000\u0001" +
+                        "11=ORDERID12345\u0001" +
+                        "55=MSFT\u0001" +
+                        "54=1\u0001" +
+                        "38=1000\u0001" +
+                        "40=2\u0001" +
+                        "44=99.50\u0001" +
+                        "10=123\u0001";
+    }
+
     private static final byte SOH = 0x01;
     private static final byte EQUALS = '=';
     private static final long SOH_PATTERN_LONG = 0x0101010101010101L;
     private static final long HIGH_BIT_MASK = 0x8080808080808080L;
     private static final VarHandle LONG_VIEW =
             MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG_VIEW_LE =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long EQUALS_PATTERN_LONG = 0x3d3d3d3d3d3d3d3dL;
+    private static final long ZERO_DIGITS_LONG = 0x3030303030303030L;
     private static final byte[] FIX_BYTES = Constants.FIX_MSG.getBytes(StandardCharsets.US_ASCII);
 
+    // SessionRejectReason (373) "Other": the message ends inside a tag.
+    public static final int REJECT_OTHER = 99;
+
     @FunctionalInterface
     public interface FixVisitor {
         void onField(int tag, byte[] buffer, int valueOffset, int valueLength);
 
-        default void onError(String msg, int offset) {
-            System.err.println("Parse Error at " + offset + ": " + msg);
+        // reason is a SessionRejectReason (373) code. Called on the parsing
+        // thread, so implementations should count rather than log.
+        default void onError(int reason, int offset) {
         }
     }
 
@@ -45,6 +53,33 @@ public class MSFixParser {
         return (input - SOH_PATTERN_LONG) & ~input & HIGH_BIT_MASK;
     }
 
+    /**
+     * Decodes the tag at the start of a little-endian word. Returns
+     * tag << 3 | digitCount, or -1 when the word holds no '=' after 1-7 digits.
+     */
+    private static int swarTag(long word) {
+        long input = word ^ EQUALS_PATTERN_LONG;
+        long equals = (input - SOH_PATTERN_LONG) & ~input & HIGH_BIT_MASK;
+        if (equals == 0) {
+            return -1;
+        }
+        int digits = Long.numberOfTrailingZeros(equals) >>> 3;
+        if (digits == 0) {
+            return -1;
+        }
+        // Left-pad the digits with '0' so every tag is an 8-digit number.
+        int pad = (8 - digits) << 3;
+        long padded = word << pad | ZERO_DIGITS_LONG >>> (64 - pad);
+        if (((padded & 0xF0F0F0F0F0F0F0F0L) | (((padded + 0x0606060606060606L) & 0xF0F0F0F0F0F0F0F0L) >>> 4))
+                != 0x3333333333333333L) {
+            return -1;
+        }
+        long value = (padded & 0x0F0F0F0F0F0F0F0FL) * 2561 >>> 8;
+        value = (value & 0x00FF00FF00FF00FFL) * 6553601 >>> 16;
+        value = (value & 0x0000FFFF0000FFFFL) * 42949672960001L >>> 32;
+        return (int) value << 3 | digits;
+    }
+
     public static void parse(byte[] buffer, int length, FixVisitor visitor) {
         int offset = 0;
         int limit = length;
@@ -52,40 +87,23 @@ public class MSFixParser {
         while (offset < limit) {
             int tag = 0;
             int tagStart = offset;
+            int valueStart;
+            int valueEnd = -1;
 
-            int tagRemaining = limit - offset;
-            if (tagRemaining >= 4) {
-                byte b0 = buffer[offset];
-                if (b0 == EQUALS) {
-                    offset++;
+            // SWAR tag: one load finds the '=', decodes the digits in front of it and,
+            // for short fields like 35=D, also finds the SOH that ends the value.
+            long tagWord = limit - offset >= 8 ? (long) LONG_VIEW_LE.get(buffer, offset) : 0;
+            int packedTag = swarTag(tagWord);
+            if (packedTag >= 0) {
+                int digits = packedTag & 7;
+                tag = packedTag >>> 3;
+                valueStart = offset + digits + 1;
+                long result = swarMatch(tagWord) & ((-1L << (digits << 3)) << 8);
+                if (result != 0) {
+                    valueEnd = offset + (Long.numberOfTrailingZeros(result) >>> 3);
+                    offset = valueEnd + 1;
                 } else {
-                    byte b1 = buffer[offset + 1];
-                    if (b1 == EQUALS) {
-                        tag = b0 - '0';
-                        offset += 2;
-                    } else {
-                        byte b2 = buffer[offset + 2];
-                        if (b2 == EQUALS) {
-                            tag = (b0 - '0') * 10 + (b1 - '0');
-                            offset += 3;
-                        } else {
-                            byte b3 = buffer[offset + 3];
-                            if (b3 == EQUALS) {
-                                tag = ((b0 - '0') * 10 + (b1 - '0')) * 10 + (b2 - '0');
-                                offset += 4;
-                            } else {
-                                tag = ((b0 - '0') * 10 + (b1 - '0')) * 10 + (b2 - '0');
-                                offset += 3;
-                                while (offset < limit) {
-                                    byte b = buffer[offset++];
-                                    if (b == EQUALS) {
-                                        break;
-                                    }
-                                    tag = (tag * 10) + (b - '0');
-                                }
-                            }
-                        }
-                    }
+                    offset += 8;
                 }
             } else {
                 while (offset < limit) {
@@ -95,17 +113,15 @@ public class MSFixParser {
                     }
                     tag = (tag * 10) + (b - '0');
                 }
-            }
 
-            if (offset >= limit) {
-                visitor.onError("Unexpected end of message inside tag", tagStart);
-                return;
+                if (offset >= limit) {
+                    visitor.onError(REJECT_OTHER, tagStart);
+                    return;
+                }
+                valueStart = offset;
             }
 
-            int valueStart = offset;
-            int valueEnd = -1;
-
-            while ((offset & 7) != 0 && offset < limit) {
+            while (valueEnd == -1 && (offset & 7) != 0 && offset < limit) {
                 if (buffer[offset] == SOH) {
                     valueEnd = offset;
                     offset++;
@@ -193,8 +209,8 @@ public class MSFixParser {
             public void onField(int tag, byte[] buffer, int valueOffset, int valueLength) {}
 
             @Override
-            public void onError(String msg, int offset) {
-                System.err.println("Error: " + msg);
+            public void onError(int reason, int offset) {
+                System.err.println("Error: reason " + reason + " at " + offset);
             }
         };
 
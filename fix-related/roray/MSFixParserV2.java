@@ -3,31 +3,31 @@ import java.lang.invoke.VarHandle;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
-class Constants {
-    static final long SOH = 0x01L;
-    static final long LONG_EQUALS = 0x3d3d3d3d3d3d3d3dL;
-    static final String TEST_STRING = "0123=567";
-    static final String FIX_MSG =
-            "8=FIX.4.4\u0001" +
-                    "9=176\u0001" +
-                    "35=D\u0001" +
-                    "49=SENDER\u0001" +
-                    "56=TARGET\u0001" +
-                    "34=2\u0001" +
-                    "52=20240101-12:00:00.000\u0001" +
-                    "11=ABC123\u0001" +
-                    "55=IBM\u0001" +
-                    "54=1\u0001" +
-                    "38=100\u0001" +
-                    "40=2\u0001" +
-                    "44=125.50\u0001" +
-                    "59=0\u0001" +
-                    "60=20240101-12:00:00.000\u0001" +
-                    "10=000\u0001";
-}
-
 public class MSFixParserV2 {
 
+    static final class Constants {
+        static final long SOH = 0x01L;
+        static final long LONG_EQUALS = 0x3d3d3d3d3d3d3d3dL;
+        static final String TEST_STRING = "0123=567";
+        static final String FIX_MSG =
+                "8=FIX.4.4\u0001" +
+                        "9=176\u0001" +
+                        "35=D\u0001" +
+                        "49=SENDER\u0001" +
+                        "56=TARGET\u0001" +
+                        "34=2\u0001" +
+                        "52=20240101-12:00:00.000\u0001" +
+                        "11=ABC123\u0001" +
+                        "55=IBM\u0001" +
+                        "54=1\u0001" +
+                        "38=100\u0001" +
+                        "40=2\u0001" +
+                        "44=125.50\u0001" +
+                        "59=0\u0001" +
+                        "60=20240101-12:00:00.000\u0001" +
+                        "10=000\u0001";
+    }
+
     private static final long ONE_MASK = 0x0101010101010101L;
     private static final long HIGH_BIT_MASK = 0x8080808080808080L;
     private static final VarHandle LONG_VIEW =
@@ -0,0 +1,746 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * Build-time generator for zero-GC FIX decoders. Reads a QuickFIX-layout
+ * dictionary and writes, per message type, a flyweight ({@code Fix<Name>})
+ * and a parser ({@code Fix<Name>Parser}) in the same offset/length,
+ * flag-bitmask style as the hand-written NewOrderSingle pair, plus a
+ * {@code FixMessageDecoder} that switches on MsgType (35).
+ *
+ * Run by exec-maven-plugin in generate-sources:
+ *
+ * <pre>
+ * java src/main/codegen/FixCodegen.java &lt;dictionary.xml&gt; &lt;outputDir&gt; &lt;package&gt; [--handwritten=D,...]
+ *     [--template=FixNewOrderSingleParser.java]
+ * </pre>
+ *
+ * Message types listed in {@code --handwritten} get no generated classes; the
+ * decoder dispatches them to the existing {@code Fix<Name>}/{@code Fix<Name>Parser}.
+ *
+ * The tokenizer, the BodyLength/CheckSum checks and the reject helpers are
+ * not kept here but copied from the {@code // codegen: begin/end} sections of
+ * the hand-written parser ({@code --template}, by default
+ * {@code src/main/java/<package>/FixNewOrderSingleParser.java}), so every
+ * message type runs the same hot path and cannot drift from it.
+ */
+public final class FixCodegen {
+
+  private static final int MSG_TYPE = 35;
+  private static final int BEGIN_STRING = 8;
+  private static final int BODY_LENGTH = 9;
+  private static final int CHECK_SUM = 10;
+
+  enum Kind { BYTE, INT, LONG, DECIMAL, RANGE }
+
+  record Field(int number, String name, Kind kind) {
+    String property() {
+      String s = name.replaceAll("ID(?=[A-Z]|$)", "Id");
+      return Character.toLowerCase(s.charAt(0)) + s.substring(1);
+    }
+
+    String flag() {
+      return "F_" + property().replaceAll("([A-Z])", "_$1").toUpperCase(Locale.ROOT);
+    }
+  }
+
+  record MessageField(Field field, boolean required) {
+  }
+
+  record Message(String name, char msgType, List<MessageField> fields) {
+    String flyweight() {
+      return "Fix" + name;
+    }
+
+    String parser() {
+      return "Fix" + name + "Parser";
+    }
+
+    String parserField() {
+      return Character.toLowerCase(name.charAt(0)) + name.substring(1) + "Parser";
+    }
+
+    String messageField() {
+      return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+  }
+
+  private final String dictionaryName;
+  private final String packageName;
+  private final String scan;
+  private final String validation;
+  private final String helpers;
+
+  private FixCodegen(String dictionaryName, String packageName, Path template) throws IOException {
+    this.dictionaryName = dictionaryName;
+    this.packageName = packageName;
+    List<String> lines = Files.readAllLines(template, StandardCharsets.UTF_8);
+    this.scan = section(lines, template, "scan");
+    this.validation = section(lines, template, "validation");
+    // The helpers name the hand-written flyweight; parser() substitutes its own.
+    this.helpers = section(lines, template, "helpers");
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 3) {
+      System.err.println("Usage: FixCodegen <dictionary.xml> <outputDir> <package> [--handwritten=D,...]"
+          + " [--template=FixNewOrderSingleParser.java]");
+      System.exit(2);
+    }
+    Path dictionary = Path.of(args[0]);
+    Path outputDir = Path.of(args[1]);
+    String packageName = args[2];
+    Set<Character> handwritten = new LinkedHashSet<>();
+    Path template = Path.of("src/main/java", packageName.replace('.', '/'), "FixNewOrderSingleParser.java");
+    for (int i = 3; i < args.length; i++) {
+      if (args[i].startsWith("--template=")) {
+        template = Path.of(args[i].substring("--template=".length()));
+      } else if (args[i].startsWith("--handwritten=")) {
+        for (String type : args[i].substring("--handwritten=".length()).split(",")) {
+          if (!type.isBlank()) {
+            handwritten.add(singleCharMsgType(type.trim()));
+          }
+        }
+      } else {
+        throw new IllegalArgumentException("Unknown argument " + args[i]);
+      }
+    }
+
+    Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(dictionary.toFile());
+    Element root = document.getDocumentElement();
+
+    Map<String, Field> fields = readFields(root);
+    List<MessageField> header = readFieldRefs(child(root, "header"), fields, "header");
+    List<Message> messages = new ArrayList<>();
+    for (Element message : children(child(root, "messages"), "message")) {
+      String name = message.getAttribute("name");
+      List<MessageField> body = new ArrayList<>();
+      for (MessageField field : header) {
+        int number = field.field().number();
+        if (number != BEGIN_STRING && number != BODY_LENGTH && number != MSG_TYPE) {
+          body.add(new MessageField(field.field(), false));
+        }
+      }
+      body.addAll(readFieldRefs(message, fields, name));
+      messages.add(new Message(name, singleCharMsgType(message.getAttribute("msgtype")), body));
+    }
+
+    Path packageDir = outputDir.resolve(packageName.replace('.', '/'));
+    Files.createDirectories(packageDir);
+    FixCodegen codegen = new FixCodegen(dictionary.getFileName().toString(), packageName, template);
+    for (Message message : messages) {
+      if (handwritten.contains(message.msgType())) {
+        continue;
+      }
+      write(packageDir.resolve(message.flyweight() + ".java"), codegen.flyweight(message));
+      write(packageDir.resolve(message.parser() + ".java"), codegen.parser(message));
+    }
+    write(packageDir.resolve("FixMessageDecoder.java"), codegen.decoder(messages, handwritten));
+  }
+
+  private static char singleCharMsgType(String msgType) {
+    if (msgType.length() != 1) {
+      throw new IllegalArgumentException("Only single-character MsgType values are supported: " + msgType);
+    }
+    return msgType.charAt(0);
+  }
+
+  private static Map<String, Field> readFields(Element root) {
+    Map<String, Field> fields = new HashMap<>();
+    for (Element field : children(child(root, "fields"), "field")) {
+      String name = field.getAttribute("name");
+      int number = Integer.parseInt(field.getAttribute("number"));
+      fields.put(name, new Field(number, name, kind(field.getAttribute("type"))));
+    }
+    return fields;
+  }
+
+  private static List<MessageField> readFieldRefs(Element parent, Map<String, Field> fields, String owner) {
+    List<MessageField> refs = new ArrayList<>();
+    NodeList nodes = parent.getChildNodes();
+    for (int i = 0; i < nodes.getLength(); i++) {
+      if (!(nodes.item(i) instanceof Element element)) {
+        continue;
+      }
+      if (!element.getTagName().equals("field")) {
+        throw new IllegalArgumentException(
+            owner + ": <" + element.getTagName() + "> is not supported by the generator");
+      }
+      Field field = fields.get(element.getAttribute("name"));
+      if (field == null) {
+        throw new IllegalArgumentException(owner + ": unknown field " + element.getAttribute("name"));
+      }
+      refs.add(new MessageField(field, "Y".equals(element.getAttribute("required"))));
+    }
+    return refs;
+  }
+
+  private static Kind kind(String type) {
+    return switch (type) {
+      case "CHAR", "BOOLEAN" -> Kind.BYTE;
+      case "INT", "SEQNUM", "LENGTH", "NUMINGROUP", "DAYOFMONTH" -> Kind.INT;
+      case "QTY" -> Kind.LONG;
+      case "PRICE", "AMT", "PRICEOFFSET", "FLOAT", "PERCENTAGE" -> Kind.DECIMAL;
+      default -> Kind.RANGE;
+    };
+  }
+
+  private static Element child(Element parent, String name) {
+    List<Element> matches = children(parent, name);
+    if (matches.size() != 1) {
+      throw new IllegalArgumentException("Expected exactly one <" + name + ">");
+    }
+    return matches.get(0);
+  }
+
+  private static List<Element> children(Element parent, String name) {
+    List<Element> result = new ArrayList<>();
+    for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+      if (node instanceof Element element && element.getTagName().equals(name)) {
+        result.add(element);
+      }
+    }
+    return result;
+  }
+
+  // The lines between "// codegen: begin <name>" and "// codegen: end <name>".
+  private static String section(List<String> lines, Path template, String name) {
+    int begin = -1;
+    int end = -1;
+    for (int i = 0; i < lines.size(); i++) {
+      String line = lines.get(i).trim();
+      if (line.equals("// codegen: begin " + name)) {
+        begin = i;
+      } else if (line.equals("// codegen: end " + name)) {
+        end = i;
+      }
+    }
+    if (begin < 0 || end < begin) {
+      throw new IllegalArgumentException(template + " has no codegen section " + name);
+    }
+    StringBuilder section = new StringBuilder();
+    for (String line : lines.subList(begin + 1, end)) {
+      section.append(line).append('\n');
+    }
+    return section.toString();
+  }
+
+  private static void write(Path file, String source) throws IOException {
+    // Leave untouched files alone so incremental compilation stays incremental.
+    if (Files.exists(file) && Files.readString(file, StandardCharsets.UTF_8).equals(source)) {
+      return;
+    }
+    Files.writeString(file, source, StandardCharsets.UTF_8);
+  }
+
+  // --- flyweight -------------------------------------------------------------
+
+  private String flyweight(Message message) {
+    Source src = new Source();
+    src.line("package " + packageName + ";");
+    src.line();
+    src.line("import java.lang.foreign.MemorySegment;");
+    src.line();
+    src.line("// Generated by FixCodegen from " + dictionaryName + "; do not edit.");
+    src.line("// " + message.name() + " (35=" + message.msgType() + ") flyweight. String-like values are kept");
+    src.line("// as offsets/lengths relative to baseOffset().");
+    src.line("public final class " + message.flyweight() + " {");
+    src.line("  private MemorySegment buffer;");
+    src.line("  private long baseOffset;");
+    src.line();
+    src.line("  private byte msgType;");
+    for (MessageField ref : message.fields()) {
+      declare(src, ref.field());
+    }
+    src.line();
+    src.line("  private int checksum = -1;");
+    src.line();
+    src.line("  private int flags;");
+    src.line();
+
+    src.line("  void reset(MemorySegment segment, long offset) {");
+    src.line("    buffer = segment;");
+    src.line("    baseOffset = offset;");
+    src.line("    msgType = 0;");
+    for (MessageField ref : message.fields()) {
+      reset(src, ref.field());
+    }
+    src.line("    checksum = -1;");
+    src.line("    flags = 0;");
+    src.line("  }");
+    src.line();
+    src.line("  void markFlag(int flag) {");
+    src.line("    flags |= flag;");
+    src.line("  }");
+    src.line();
+    src.line("  int flags() {");
+    src.line("    return flags;");
+    src.line("  }");
+    src.line();
+    src.line("  void msgType(byte value) {");
+    src.line("    msgType = value;");
+    src.line("  }");
+    src.line();
+    for (MessageField ref : message.fields()) {
+      setter(src, ref.field());
+    }
+    src.line("  void checksum(int value) {");
+    src.line("    checksum = value;");
+    src.line("  }");
+    src.line();
+    src.line("  public MemorySegment buffer() {");
+    src.line("    return buffer;");
+    src.line("  }");
+    src.line();
+    src.line("  public long baseOffset() {");
+    src.line("    return baseOffset;");
+    src.line("  }");
+    src.line();
+    src.line("  public byte msgType() {");
+    src.line("    return msgType;");
+    src.line("  }");
+    src.line();
+    for (MessageField ref : message.fields()) {
+      getters(src, ref.field());
+    }
+    src.line("  public int checksum() {");
+    src.line("    return checksum;");
+    src.line("  }");
+    src.line("}");
+    return src.toString();
+  }
+
+  private static void declare(Source src, Field field) {
+    String p = field.property();
+    switch (field.kind()) {
+      case BYTE -> src.line("  private byte " + p + ";");
+      case INT -> src.line("  private int " + p + " = -1;");
+      case LONG -> src.line("  private long " + p + " = -1;");
+      case DECIMAL -> {
+        src.line("  private long " + p + "Mantissa;");
+        src.line("  private int " + p + "Scale;");
+        src.line("  private boolean " + p + "Present;");
+      }
+      case RANGE -> {
+        src.line("  private int " + p + "Offset = -1;");
+        src.line("  private int " + p + "Length;");
+      }
+    }
+  }
+
+  private static void reset(Source src, Field field) {
+    String p = field.property();
+    switch (field.kind()) {
+      case BYTE -> src.line("    " + p + " = 0;");
+      case INT, LONG -> src.line("    " + p + " = -1;");
+      case DECIMAL -> {
+        src.line("    " + p + "Mantissa = 0;");
+        src.line("    " + p + "Scale = 0;");
+        src.line("    " + p + "Present = false;");
+      }
+      case RANGE -> {
+        src.line("    " + p + "Offset = -1;");
+        src.line("    " + p + "Length = 0;");
+      }
+    }
+  }
+
+  private static void setter(Source src, Field field) {
+    String p = field.property();
+    switch (field.kind()) {
+      case BYTE, INT, LONG -> {
+        src.line("  void " + p + "(" + javaType(field.kind()) + " value) {");
+        src.line("    " + p + " = value;");
+      }
+      case DECIMAL -> {
+        src.line("  void " + p + "(long mantissa, int scale) {");
+        src.line("    " + p + "Mantissa = mantissa;");
+        src.line("    " + p + "Scale = scale;");
+        src.line("    " + p + "Present = true;");
+      }
+      case RANGE -> {
+        src.line("  void " + p + "(int offset, int length) {");
+        src.line("    " + p + "Offset = offset;");
+        src.line("    " + p + "Length = length;");
+      }
+    }
+    src.line("  }");
+    src.line();
+  }
+
+  private static void getters(Source src, Field field) {
+    String p = field.property();
+    switch (field.kind()) {
+      case BYTE, INT, LONG -> getter(src, javaType(field.kind()), p, p);
+      case DECIMAL -> {
+        getter(src, "boolean", p + "Present", p + "Present");
+        getter(src, "long", p + "Mantissa", p + "Mantissa");
+        getter(src, "int", p + "Scale", p + "Scale");
+      }
+      case RANGE -> {
+        getter(src, "int", p + "Offset", p + "Offset");
+        getter(src, "int", p + "Length", p + "Length");
+      }
+    }
+  }
+
+  private static void getter(Source src, String type, String name, String field) {
+    src.line("  public " + type + " " + name + "() {");
+    src.line("    return " + field + ";");
+    src.line("  }");
+    src.line();
+  }
+
+  private static String javaType(Kind kind) {
+    return switch (kind) {
+      case BYTE -> "byte";
+      case INT -> "int";
+      case LONG -> "long";
+      default -> throw new IllegalArgumentException(kind.name());
+    };
+  }
+
+  // --- parser ----------------------------------------------------------------
+
+  private String parser(Message message) {
+    List<Field> required = new ArrayList<>();
+    for (MessageField ref : message.fields()) {
+      if (ref.required()) {
+        required.add(ref.field());
+      }
+    }
+    if (required.size() > 30) {
+      throw new IllegalArgumentException(message.name() + ": too many required fields for an int bitmask");
+    }
+
+    Source src = new Source();
+    src.line("package " + packageName + ";");
+    src.line();
+    src.line("import java.lang.foreign.MemorySegment;");
+    src.line("import java.lang.foreign.ValueLayout;");
+    src.line("import java.nio.ByteOrder;");
+    src.line();
+    src.line("// Generated by FixCodegen from " + dictionaryName + "; do not edit.");
+    src.line("// Same hot path as FixNewOrderSingleParser, for " + message.name() + " (35=" + message.msgType() + ").");
+    src.line("public final class " + message.parser() + " {");
+    src.line("  private static final byte SOH = 1;");
+    src.line("  private static final byte EQ = '=';");
+    src.line();
+    src.line("  private static final ValueLayout.OfLong LONG_LE =");
+    src.line("      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);");
+    src.line();
+    src.line("  private static final int F_MSG_TYPE = 1 << 0;");
+    StringBuilder requiredFlags = new StringBuilder("F_MSG_TYPE");
+    StringBuilder flagTags = new StringBuilder(Integer.toString(MSG_TYPE));
+    for (int i = 0; i < required.size(); i++) {
+      src.line("  private static final int " + required.get(i).flag() + " = 1 << " + (i + 1) + ";");
+      requiredFlags.append(" | ").append(required.get(i).flag());
+      flagTags.append(", ").append(required.get(i).number());
+    }
+    src.line();
+    src.line("  private static final int REQUIRED_FLAGS =");
+    src.line("      " + requiredFlags + ";");
+    src.line("  // The tag behind each flag bit, for reporting a missing one.");
+    src.line("  private static final int[] FLAG_TAGS = {" + flagTags + "};");
+    src.line();
+    src.line("  private final boolean validate;");
+    src.line("  private final FixFieldDispatcher fields;");
+    src.line("  private final FixParseErrors errors;");
+    src.line("  private final boolean lenient;");
+    src.line("  private final FixScanner.Backend scanner;");
+    src.line();
+    src.line("  public " + message.parser() + "() {");
+    src.line("    this(false);");
+    src.line("  }");
+    src.line();
+    src.line("  public " + message.parser() + "(boolean validate) {");
+    src.line("    this(validate, null);");
+    src.line("  }");
+    src.line();
+    src.line("  public " + message.parser() + "(boolean validate, FixFieldDispatcher fields) {");
+    src.line("    this(validate, fields, null);");
+    src.line("  }");
+    src.line();
+    src.line("  // Every rejected message is reported to errors, if given, and its mode");
+    src.line("  // decides what is tolerated (see FixParseErrors). Without errors the parser");
+    src.line("  // is strict.");
+    src.line("  public " + message.parser() + "(boolean validate, FixFieldDispatcher fields, FixParseErrors errors) {");
+    src.line("    this(validate, fields, errors, FixScanner.selected());");
+    src.line("  }");
+    src.line();
+    src.line("  // Values that do not end in the word holding their tag are scanned for SOH");
+    src.line("  // by scanner; the other constructors take FixScanner.selected(). With");
+    src.line("  // validate set the parser keeps its own SWAR loop, which sums the checksum");
+    src.line("  // from the words it loads.");
+    src.line("  public " + message.parser() + "(boolean validate, FixFieldDispatcher fields, FixParseErrors errors,");
+    src.line("      FixScanner.Backend scanner) {");
+    src.line("    this.validate = validate;");
+    src.line("    this.fields = fields;");
+    src.line("    this.errors = errors;");
+    src.line("    this.lenient = errors != null && errors.lenient();");
+    src.line("    this.scanner = scanner;");
+    src.line("  }");
+    src.line();
+    src.line("  public boolean validating() {");
+    src.line("    return validate;");
+    src.line("  }");
+    src.line();
+    src.line("  public FixParseErrors errors() {");
+    src.line("    return errors;");
+    src.line("  }");
+    src.line();
+    src.line("  public FixScanner.Backend scanner() {");
+    src.line("    return scanner;");
+    src.line("  }");
+    src.line();
+    src.line("  public boolean parse(MemorySegment buffer, int length, " + message.flyweight() + " out) {");
+    src.line("    return parse(buffer, 0, length, out);");
+    src.line("  }");
+    src.line();
+    src.line("  public boolean parse(MemorySegment buffer, long offset, int length, " + message.flyweight() + " out) {");
+    src.line("    out.reset(buffer, offset);");
+    src.line();
+    src.raw(scan);
+    src.line();
+    src.line("      switch (tag) {");
+    src.line("        case 35 -> {");
+    src.line("          if (valueLength != 1) {");
+    src.line("            return reject(valueLength == 0 ? FixRejectReason.TAG_SPECIFIED_WITHOUT_A_VALUE");
+    src.line("                : FixRejectReason.INVALID_MSG_TYPE, tag, valueStart);");
+    src.line("          }");
+    src.line("          if (!first(out, F_MSG_TYPE, tag, fieldStart)) {");
+    src.line("            return false;");
+    src.line("          }");
+    src.line("          out.msgType(FixDecoding.getByte(buffer, offset + valueStart));");
+    src.line("          out.markFlag(F_MSG_TYPE);");
+    src.line("        }");
+    for (MessageField ref : message.fields()) {
+      fieldCase(src, ref);
+    }
+    src.line("        case 9 -> {");
+    src.line("          bodyLength = FixDecoding.parseInt(buffer, offset + valueStart, offset + valueEnd);");
+    src.line("          if (bodyLength < 0) {");
+    src.line("            return reject(malformed(valueLength), tag, valueStart);");
+    src.line("          }");
+    src.line("          bodyStart = valueEnd + 1;");
+    src.line("        }");
+    src.line("        case 10 -> {");
+    src.line("          int checksum = FixDecoding.parseInt(buffer, offset + valueStart, offset + valueEnd);");
+    src.line("          if (checksum < 0) {");
+    src.line("            return reject(malformed(valueLength), tag, valueStart);");
+    src.line("          }");
+    src.line("          out.checksum(checksum);");
+    src.line("          trailerStart = fieldStart;");
+    src.line("          trailerEnd = valueEnd + 1;");
+    src.line("          computedChecksum = fieldSum & 0xFF;");
+    src.line("        }");
+    src.line("        default -> {");
+    src.line("          if (fields != null) {");
+    src.line("            fields.dispatch(tag, buffer, offset + valueStart, valueLength);");
+    src.line("          }");
+    src.line("        }");
+    src.line("      }");
+    src.line();
+    src.line("      index++;");
+    src.line("    }");
+    src.line();
+    src.raw(validation);
+    src.line();
+    src.line("    int flags = out.flags();");
+    src.line("    if ((flags & F_MSG_TYPE) != 0 && out.msgType() != '" + message.msgType() + "') {");
+    src.line("      return reject(FixRejectReason.INVALID_MSG_TYPE, 35, -1);");
+    src.line("    }");
+    src.line();
+    src.line("    int missing = REQUIRED_FLAGS & ~flags;");
+    src.line("    if (missing != 0) {");
+    src.line("      return reject(FixRejectReason.REQUIRED_TAG_MISSING, FLAG_TAGS[Integer.numberOfTrailingZeros(missing)], -1);");
+    src.line("    }");
+    src.line();
+    src.line("    return true;");
+    src.line("  }");
+    src.line();
+    src.raw(helpers.replace("FixNewOrderSingle out", message.flyweight() + " out"));
+    src.line("}");
+    return src.toString();
+  }
+
+  // A malformed required field rejects the message. A malformed optional one
+  // is dropped in LENIENT mode, as FixNewOrderSingleParser does with Price.
+  private static void fieldCase(Source src, MessageField ref) {
+    Field field = ref.field();
+    String p = field.property();
+    String range = "offset + valueStart, offset + valueEnd";
+    String valid;
+    String invalid;
+    String store;
+    src.line("        case " + field.number() + " -> {");
+    switch (field.kind()) {
+      case BYTE -> {
+        valid = "valueLength == 1";
+        invalid = "valueLength != 1";
+        store = "out." + p + "(FixDecoding.getByte(buffer, offset + valueStart));";
+      }
+      case INT -> {
+        src.line("          int value = FixDecoding.parseInt(buffer, " + range + ");");
+        valid = "value >= 0";
+        invalid = "value < 0";
+        store = "out." + p + "(value);";
+      }
+      case LONG -> {
+        src.line("          long value = FixDecoding.parseLong(buffer, " + range + ");");
+        valid = "value >= 0";
+        invalid = "value < 0";
+        store = "out." + p + "(value);";
+      }
+      case DECIMAL -> {
+        src.line("          long value = FixDecoding.parseDecimal(buffer, " + range + ");");
+        valid = "value >= 0";
+        invalid = "value < 0";
+        store = "out." + p + "(FixDecoding.mantissa(value), FixDecoding.scale(value));";
+      }
+      default -> {
+        valid = null;
+        invalid = null;
+        store = "out." + p + "(valueStart, valueLength);";
+      }
+    }
+    if (ref.required()) {
+      if (valid != null) {
+        src.line("          if (" + invalid + ") {");
+        src.line("            return reject(malformed(valueLength), tag, valueStart);");
+        src.line("          }");
+      }
+      src.line("          if (!first(out, " + field.flag() + ", tag, fieldStart)) {");
+      src.line("            return false;");
+      src.line("          }");
+      src.line("          " + store);
+      src.line("          out.markFlag(" + field.flag() + ");");
+    } else if (valid != null) {
+      src.line("          if (" + valid + ") {");
+      src.line("            " + store);
+      src.line("          } else if (!tolerate(malformed(valueLength), tag, valueStart)) {");
+      src.line("            return false;");
+      src.line("          }");
+    } else {
+      src.line("          " + store);
+    }
+    src.line("        }");
+  }
+
+  // --- decoder ---------------------------------------------------------------
+
+  private String decoder(List<Message> messages, Set<Character> handwritten) {
+    Source src = new Source();
+    src.line("package " + packageName + ";");
+    src.line();
+    src.line("import java.lang.foreign.MemorySegment;");
+    src.line();
+    src.line("// Generated by FixCodegen from " + dictionaryName + "; do not edit.");
+    src.line("// Reads MsgType (35) and hands the message to the matching parser. One");
+    src.line("// flyweight per type is reused, so decoding allocates nothing.");
+    src.line("public final class FixMessageDecoder {");
+    src.line("  public interface Handler {");
+    for (Message message : messages) {
+      src.line("    default void on" + message.name() + "(" + message.flyweight() + " message) {");
+      src.line("    }");
+      src.line();
+    }
+    src.line("    default void onUnsupported(byte msgType, MemorySegment buffer, long offset, int length) {");
+    src.line("    }");
+    src.line();
+    src.line("    default void onInvalid(byte msgType, MemorySegment buffer, long offset, int length) {");
+    src.line("    }");
+    src.line("  }");
+    src.line();
+    for (Message message : messages) {
+      src.line("  private final " + message.parser() + " " + message.parserField() + ";");
+      src.line("  private final " + message.flyweight() + " " + message.messageField()
+          + " = new " + message.flyweight() + "();");
+    }
+    src.line();
+    src.line("  public FixMessageDecoder() {");
+    src.line("    this(false);");
+    src.line("  }");
+    src.line();
+    src.line("  public FixMessageDecoder(boolean validate) {");
+    src.line("    this(validate, null);");
+    src.line("  }");
+    src.line();
+    src.line("  // fields receives every tag the per-type parsers do not decode themselves.");
+    src.line("  public FixMessageDecoder(boolean validate, FixFieldDispatcher fields) {");
+    src.line("    this(validate, fields, null);");
+    src.line("  }");
+    src.line();
+    src.line("  // Every parser reports its rejects to errors, if given.");
+    src.line("  public FixMessageDecoder(boolean validate, FixFieldDispatcher fields, FixParseErrors errors) {");
+    for (Message message : messages) {
+      // Hand-written parsers also take FixStageTimers before the errors.
+      String timers = handwritten.contains(message.msgType()) ? "null, " : "";
+      src.line("    " + message.parserField() + " = new " + message.parser() + "(validate, fields, " + timers + "errors);");
+    }
+    src.line("  }");
+    src.line();
+    src.line("  public boolean decode(MemorySegment buffer, int length, Handler handler) {");
+    src.line("    return decode(buffer, 0, length, handler);");
+    src.line("  }");
+    src.line();
+    src.line("  public boolean decode(MemorySegment buffer, long offset, int length, Handler handler) {");
+    src.line("    byte msgType = FixFraming.peekMsgType(buffer, offset, length);");
+    src.line("    switch (msgType) {");
+    for (Message message : messages) {
+      src.line("      case '" + message.msgType() + "' -> {");
+      src.line("        if (" + message.parserField() + ".parse(buffer, offset, length, " + message.messageField() + ")) {");
+      src.line("          handler.on" + message.name() + "(" + message.messageField() + ");");
+      src.line("          return true;");
+      src.line("        }");
+      src.line("      }");
+    }
+    src.line("      default -> {");
+    src.line("        handler.onUnsupported(msgType, buffer, offset, length);");
+    src.line("        return false;");
+    src.line("      }");
+    src.line("    }");
+    src.line("    handler.onInvalid(msgType, buffer, offset, length);");
+    src.line("    return false;");
+    src.line("  }");
+    src.line("}");
+    return src.toString();
+  }
+
+  private static final class Source {
+    private final StringBuilder out = new StringBuilder(8192);
+
+    void line() {
+      out.append('\n');
+    }
+
+    void line(String text) {
+      out.append(text).append('\n');
+    }
+
+    void raw(String text) {
+      out.append(text);
+    }
+
+    @Override
+    public String toString() {
+      return out.toString();
+    }
+  }
+}
@@ -1,11 +1,18 @@
 package com.example.fix;
 
+import java.io.IOException;
 import java.lang.foreign.Arena;
 import java.lang.foreign.MemorySegment;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 
 public final class App {
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException {
+    if (args.length > 0) {
+      replay(Path.of(args[0]));
+      return;
+    }
+
     String fixMessage =
         "8=FIX.4.4\u0001" +
         "9=176\u0001" +
@@ -40,6 +47,31 @@ public final class App {
       if (order.pricePresent()) {
         System.out.println("price=" + order.priceMantissa() + " scale=" + order.priceScale());
       }
+      System.out.println("transactTime=" + new FixTimestampDecoder().transactTime(order) + "ns");
+    }
+  }
+
+  private static void replay(Path path) throws IOException {
+    FixNewOrderSingleParser parser = new FixNewOrderSingleParser();
+    FixNewOrderSingle order = new FixNewOrderSingle();
+
+    long messages = 0;
+    long orders = 0;
+    long bytes = 0;
+    long start = System.nanoTime();
+    try (MappedWireReader reader = MappedWireReader.open(path)) {
+      while (reader.next()) {
+        messages++;
+        bytes += reader.messageLength();
+        if (parser.parse(reader.segment(), reader.messageOffset(), reader.messageLength(), order)) {
+          orders++;
+        }
+      }
     }
+    long durationNs = System.nanoTime() - start;
+
+    System.out.println("messages=" + messages + " newOrderSingles=" + orders);
+    System.out.printf("Throughput: %,d msgs/sec, %.1f MB/sec%n",
+        (long) (messages * 1_000_000_000.0 / durationNs), bytes * 1_000.0 / durationNs);
   }
 }
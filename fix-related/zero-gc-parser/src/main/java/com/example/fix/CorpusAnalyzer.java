@@ -0,0 +1,721 @@
+package com.example.fix;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+// Recomputes the analysis part of data-gen's meta.json (gen.py
+// _analyze_messages) for a wire capture, so a production capture or a large
+// corpus can be sanity-checked without Python. The counts follow gen.py rule
+// for rule: the same validation reasons, first-occurrence tag values and
+// per-tag valid/invalid splits.
+//
+// The file is mapped once and split in halves at newlines by a fork-join task
+// until the pieces are small; each leaf walks its lines with the SWAR SOH
+// search and counts into primitive arrays, and results are merged left to
+// right. The sequence check is the one piece of state that crosses a split:
+// each leaf remembers its first and last MsgSeqNum (34) and the merge applies
+// the check at the seam. MsgType and Symbol values get ids from shared
+// SymbolDictionary instances, so nothing is allocated per message.
+//
+// Tags are tracked when they are plain decimal numbers below MAX_TAG, and
+// MsgType/Symbol values up to SymbolDictionary.MAX_KEY_LENGTH bytes, for up
+// to MAX_MSG_TYPES distinct MsgTypes and --max-symbols distinct Symbols
+// (DEFAULT_MAX_SYMBOLS); anything else is reported as untracked instead of
+// counted. Values of 9 and 10 are read as decimal with an optional sign.
+//
+//   java -cp ... com.example.fix.CorpusAnalyzer fix_messages_wire.txt [meta.json]
+//       [--expected N] [--no-sequence-check] [--threads N] [--max-symbols N]
+public final class CorpusAnalyzer {
+  static final int MAX_TAG = 10_000;
+
+  private static final byte LF = '\n';
+  private static final byte CR = '\r';
+  private static final byte EQ = '=';
+  private static final ValueLayout.OfLong LONG_LE =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  private static final long MIN_SPLIT_BYTES = 256 * 1024;
+  private static final int MAX_MSG_TYPES = 4096;
+  // Room for a listed-options or multi-venue symbol universe.
+  static final int DEFAULT_MAX_SYMBOLS = 1 << 18;
+
+  private static final int R_PARSE_ERROR = 0;
+  private static final int R_MISSING_9 = 1;
+  private static final int R_MISSING_10 = 2;
+  private static final int R_TAG_ORDER = 3;
+  private static final int R_INVALID_9 = 4;
+  private static final int R_BODY_LENGTH = 5;
+  private static final int R_INVALID_10 = 6;
+  private static final int R_CHECKSUM = 7;
+  private static final int R_SEQUENCE = 8;
+  private static final String[] REASONS = {
+      "parse_error", "missing_tag_9", "missing_tag_10", "tag_order", "invalid_tag_9",
+      "body_length_mismatch", "invalid_tag_10", "checksum_mismatch", "sequence_out_of_order"
+  };
+
+  private static final int[] HEADER_REQUIRED = {8, 35, 49, 56, 34, 52};
+  private static final int[] NONE = {};
+  private static final int[] LOGON_REQUIRED = {98, 108};
+  private static final int[] NEW_ORDER_REQUIRED = {11, 21, 55, 54, 60, 38, 40, 44};
+  private static final int[] EXECUTION_REPORT_REQUIRED = {37, 17, 150, 39, 55, 54, 38, 32, 31, 151, 14, 6};
+  private static final int[] STATUS_REQUEST_REQUIRED = {11, 55, 54};
+
+  private final MemorySegment file;
+  private final boolean sequenceCheck;
+  private final long fileSize;
+  private final long splitBytes;
+  private final SymbolDictionary msgTypes = new SymbolDictionary(MAX_MSG_TYPES);
+  private final SymbolDictionary symbols;
+
+  public CorpusAnalyzer(MemorySegment file, boolean sequenceCheck, int parallelism) {
+    this(file, sequenceCheck, parallelism, DEFAULT_MAX_SYMBOLS);
+  }
+
+  public CorpusAnalyzer(MemorySegment file, boolean sequenceCheck, int parallelism, int maxSymbols) {
+    this.file = file;
+    this.sequenceCheck = sequenceCheck;
+    this.fileSize = file.byteSize();
+    this.splitBytes = Math.max(MIN_SPLIT_BYTES, fileSize / (parallelism * 8L));
+    this.symbols = new SymbolDictionary(maxSymbols);
+  }
+
+  public static void main(String[] args) throws IOException {
+    Path input = null;
+    Path output = null;
+    long expected = -1;
+    boolean sequenceCheck = true;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int maxSymbols = DEFAULT_MAX_SYMBOLS;
+    for (int i = 0; i < args.length; i++) {
+      switch (args[i]) {
+        case "--expected" -> expected = Long.parseLong(args[++i]);
+        case "--no-sequence-check" -> sequenceCheck = false;
+        case "--threads" -> threads = Integer.parseInt(args[++i]);
+        case "--max-symbols" -> maxSymbols = Integer.parseInt(args[++i]);
+        default -> {
+          if (input == null) {
+            input = Path.of(args[i]);
+          } else {
+            output = Path.of(args[i]);
+          }
+        }
+      }
+    }
+    if (input == null) {
+      System.err.println("usage: CorpusAnalyzer <fix_messages_wire.txt> [meta.json]"
+          + " [--expected N] [--no-sequence-check] [--threads N] [--max-symbols N]");
+      System.exit(2);
+    }
+
+    try (Arena arena = Arena.ofShared();
+         FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+      MemorySegment mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+      CorpusAnalyzer analyzer = new CorpusAnalyzer(mapped, sequenceCheck, threads, maxSymbols);
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      long start = System.nanoTime();
+      Counts counts;
+      try {
+        counts = analyzer.analyze(pool);
+      } finally {
+        pool.shutdown();
+      }
+      long durationNs = System.nanoTime() - start;
+
+      String json = analyzer.toJson(counts, expected < 0 ? counts.messages : expected);
+      if (output == null) {
+        System.out.print(json);
+      } else {
+        Files.writeString(output, json, StandardCharsets.US_ASCII);
+      }
+      System.err.printf("messages=%d threads=%d %.1f ms, %,d msgs/sec, %.1f MB/sec%n",
+          counts.messages, threads, durationNs / 1e6,
+          (long) (counts.messages * 1_000_000_000.0 / durationNs), mapped.byteSize() * 1_000.0 / durationNs);
+      if (counts.untracked > 0) {
+        System.err.println("warning: " + counts.untracked + " tags or values were not tracked");
+      }
+      analyzer.msgTypes.close();
+      analyzer.symbols.close();
+    }
+  }
+
+  public Counts analyze(ForkJoinPool pool) {
+    return pool.invoke(new Split(0, fileSize));
+  }
+
+  // Per-thread primitive counters for one contiguous run of lines.
+  static final class Counts {
+    long messages;
+    long valid;
+    long invalid;
+    long buy;
+    long sell;
+    long untracked;
+    final long[] reasons = new long[REASONS.length];
+    final long[] missingRequired = new long[MAX_TAG];
+    final long[] msgTypes = new long[MAX_MSG_TYPES];
+    // Grows with the highest Symbol id seen, so a large --max-symbols costs
+    // nothing per leaf until the symbols turn up.
+    long[] symbols = new long[256];
+    final long[] tagMessages = new long[MAX_TAG];
+    final long[] tagValid = new long[MAX_TAG];
+    final long[] tagInvalid = new long[MAX_TAG];
+    long seqMin = Long.MAX_VALUE;
+    long seqMax = Long.MIN_VALUE;
+    long bodyMin = Long.MAX_VALUE;
+    long bodyMax = Long.MIN_VALUE;
+
+    // The sequence check at a seam needs the last MsgSeqNum on the left and,
+    // on the right, the first one together with enough of its message to
+    // turn it invalid after the fact.
+    long firstSeq = -1;
+    long lastSeq = -1;
+    boolean firstSeqValid;
+    int[] firstSeqTags = NONE;
+
+    void merge(Counts right, boolean sequenceCheck) {
+      if (sequenceCheck && lastSeq >= 0 && right.firstSeq >= 0 && right.firstSeq != lastSeq + 1) {
+        reasons[R_SEQUENCE]++;
+        if (right.firstSeqValid) {
+          right.valid--;
+          right.invalid++;
+          for (int tag : right.firstSeqTags) {
+            right.tagValid[tag]--;
+            right.tagInvalid[tag]++;
+          }
+        }
+      }
+      messages += right.messages;
+      valid += right.valid;
+      invalid += right.invalid;
+      buy += right.buy;
+      sell += right.sell;
+      untracked += right.untracked;
+      add(reasons, right.reasons);
+      add(missingRequired, right.missingRequired);
+      add(msgTypes, right.msgTypes);
+      symbols = grow(symbols, right.symbols.length);
+      add(symbols, right.symbols);
+      add(tagMessages, right.tagMessages);
+      add(tagValid, right.tagValid);
+      add(tagInvalid, right.tagInvalid);
+      seqMin = Math.min(seqMin, right.seqMin);
+      seqMax = Math.max(seqMax, right.seqMax);
+      bodyMin = Math.min(bodyMin, right.bodyMin);
+      bodyMax = Math.max(bodyMax, right.bodyMax);
+      if (firstSeq < 0) {
+        firstSeq = right.firstSeq;
+        firstSeqValid = right.firstSeqValid;
+        firstSeqTags = right.firstSeqTags;
+      }
+      if (right.lastSeq >= 0) {
+        lastSeq = right.lastSeq;
+      }
+    }
+
+    static long[] grow(long[] counts, int length) {
+      return length <= counts.length ? counts : Arrays.copyOf(counts, Math.max(length, counts.length * 2));
+    }
+
+    private static void add(long[] into, long[] from) {
+      for (int i = 0; i < from.length; i++) {
+        into[i] += from[i];
+      }
+    }
+  }
+
+  private final class Split extends RecursiveTask<Counts> {
+    private static final long serialVersionUID = 1L;
+
+    private final long start;
+    private final long end;
+
+    Split(long start, long end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    @Override
+    protected Counts compute() {
+      if (end - start > splitBytes) {
+        long newline = FixFraming.indexOf(file, start + (end - start) / 2, end, LF);
+        if (newline >= 0 && newline + 1 < end) {
+          Split left = new Split(start, newline + 1);
+          left.fork();
+          Counts right = new Split(newline + 1, end).compute();
+          Counts counts = left.join();
+          counts.merge(right, sequenceCheck);
+          return counts;
+        }
+      }
+      return new Scanner().scan(start, end);
+    }
+  }
+
+  // Walks the lines of one leaf. Field positions of the first occurrence of
+  // each tag gen.py looks at are kept in primitive fields; distinct tags of the
+  // current message are tracked with a stamp per tag.
+  private final class Scanner {
+    private final Counts counts = new Counts();
+    private final int[] seen = new int[MAX_TAG];
+    private final int[] tags = new int[MAX_TAG];
+    private int stamp;
+    private int tagCount;
+    private boolean untrackedTag;
+    private long previousSeq = -1;
+
+    private int bodyLengthIndex;
+    private long bodyLengthStart;
+    private long bodyLengthEnd;
+    private int checkSumIndex;
+    private long checkSumFieldStart;
+    private long checkSumStart;
+    private long checkSumEnd;
+    private long msgTypeStart;
+    private long msgTypeEnd;
+    private long seqStart;
+    private long seqEnd;
+    private long sideStart;
+    private long sideEnd;
+    private long symbolStart;
+    private long symbolEnd;
+
+    Counts scan(long from, long to) {
+      long p = from;
+      while (p < to) {
+        long newline = FixFraming.indexOf(file, p, to, LF);
+        long lineEnd = newline < 0 ? to : newline;
+        long messageEnd = lineEnd > p && file.get(ValueLayout.JAVA_BYTE, lineEnd - 1) == CR ? lineEnd - 1 : lineEnd;
+        if (messageEnd > p) {
+          message(p, messageEnd);
+        }
+        p = lineEnd + 1;
+      }
+      return counts;
+    }
+
+    private void message(long start, long end) {
+      counts.messages++;
+      if (!fields(start, end)) {
+        counts.invalid++;
+        counts.reasons[R_PARSE_ERROR]++;
+        return;
+      }
+
+      boolean valid = true;
+      for (int tag : HEADER_REQUIRED) {
+        valid &= required(tag);
+      }
+      if (msgTypeStart >= 0 && msgTypeEnd - msgTypeStart == 1) {
+        for (int tag : requiredTags(file.get(ValueLayout.JAVA_BYTE, msgTypeStart))) {
+          valid &= required(tag);
+        }
+      }
+      if (bodyLengthIndex < 0) {
+        valid = reason(R_MISSING_9);
+      }
+      if (checkSumIndex < 0) {
+        valid = reason(R_MISSING_10);
+      }
+      boolean ordered = bodyLengthIndex >= 0 && checkSumIndex > bodyLengthIndex;
+      if (bodyLengthIndex >= 0 && checkSumIndex >= 0 && !ordered) {
+        valid = reason(R_TAG_ORDER);
+      }
+      if (bodyLengthIndex >= 0) {
+        long expected = parseSigned(bodyLengthStart, bodyLengthEnd);
+        if (expected == Long.MIN_VALUE) {
+          valid = reason(R_INVALID_9);
+        } else if (ordered) {
+          // gen.py joins the fields between 9 and 10 and appends one SOH, so
+          // an empty body still counts one byte.
+          long bodyLength = checkSumIndex == bodyLengthIndex + 1 ? 1 : checkSumFieldStart - bodyLengthEnd - 1;
+          counts.bodyMin = Math.min(counts.bodyMin, bodyLength);
+          counts.bodyMax = Math.max(counts.bodyMax, bodyLength);
+          if (bodyLength != expected) {
+            valid = reason(R_BODY_LENGTH);
+          }
+        }
+      }
+      if (checkSumIndex >= 0) {
+        long expected = parseSigned(checkSumStart, checkSumEnd);
+        if (expected == Long.MIN_VALUE) {
+          valid = reason(R_INVALID_10);
+        } else if (checkSum(start) != expected) {
+          valid = reason(R_CHECKSUM);
+        }
+      }
+
+      long seq = seqStart >= 0 ? parseDigits(seqStart, seqEnd) : -1;
+      if (seq >= 0) {
+        if (sequenceCheck && previousSeq >= 0 && seq != previousSeq + 1) {
+          valid = reason(R_SEQUENCE);
+        }
+        if (counts.firstSeq < 0) {
+          counts.firstSeq = seq;
+          counts.firstSeqValid = valid;
+          counts.firstSeqTags = Arrays.copyOf(tags, tagCount);
+        }
+        previousSeq = seq;
+        counts.lastSeq = seq;
+        counts.seqMin = Math.min(counts.seqMin, seq);
+        counts.seqMax = Math.max(counts.seqMax, seq);
+      }
+
+      if (valid) {
+        counts.valid++;
+      } else {
+        counts.invalid++;
+      }
+      long[] tagSplit = valid ? counts.tagValid : counts.tagInvalid;
+      for (int i = 0; i < tagCount; i++) {
+        int tag = tags[i];
+        counts.tagMessages[tag]++;
+        tagSplit[tag]++;
+      }
+      if (untrackedTag) {
+        counts.untracked++;
+      }
+
+      if (msgTypeStart >= 0 && msgTypeEnd > msgTypeStart) {
+        int id = id(msgTypes, msgTypeStart, msgTypeEnd);
+        if (id >= 0) {
+          counts.msgTypes[id]++;
+        }
+        if (msgTypeEnd - msgTypeStart == 1 && file.get(ValueLayout.JAVA_BYTE, msgTypeStart) == 'D'
+            && sideStart >= 0 && sideEnd - sideStart == 1) {
+          byte side = file.get(ValueLayout.JAVA_BYTE, sideStart);
+          if (side == '1') {
+            counts.buy++;
+          } else if (side == '2') {
+            counts.sell++;
+          }
+        }
+      }
+      if (symbolStart >= 0 && symbolEnd > symbolStart) {
+        int id = id(symbols, symbolStart, symbolEnd);
+        if (id >= 0) {
+          counts.symbols = Counts.grow(counts.symbols, id + 1);
+          counts.symbols[id]++;
+        }
+      }
+    }
+
+    // Splits the message at SOH like gen.py (a trailing empty field is
+    // dropped) and records first occurrences. Returns false on a field
+    // without '='.
+    private boolean fields(long start, long end) {
+      stamp++;
+      tagCount = 0;
+      untrackedTag = false;
+      bodyLengthIndex = -1;
+      checkSumIndex = -1;
+      msgTypeStart = -1;
+      seqStart = -1;
+      sideStart = -1;
+      symbolStart = -1;
+
+      int index = 0;
+      long p = start;
+      while (p < end) {
+        long soh = FixFraming.indexOfSoh(file, p, end);
+        long fieldEnd = soh < 0 ? end : soh;
+        long eq;
+        int tag;
+        // The word may run past the field: a later '=' is always behind the
+        // SOH, which is not a digit, so swarTag rejects it.
+        int swar = p + 8 <= fileSize ? FixDecoding.swarTag(file.get(LONG_LE, p)) : -1;
+        if (swar >= 0) {
+          int digits = swar & 7;
+          eq = p + digits;
+          tag = digits > 4 || (digits > 1 && file.get(ValueLayout.JAVA_BYTE, p) == '0') ? -1 : swar >>> 3;
+        } else {
+          eq = FixFraming.indexOf(file, p, fieldEnd, EQ);
+          if (eq < 0) {
+            return false;
+          }
+          tag = tag(p, eq);
+        }
+        if (tag < 0) {
+          untrackedTag = true;
+        } else if (seen[tag] != stamp) {
+          seen[tag] = stamp;
+          tags[tagCount++] = tag;
+          long value = eq + 1;
+          switch (tag) {
+            case 9 -> {
+              bodyLengthIndex = index;
+              bodyLengthStart = value;
+              bodyLengthEnd = fieldEnd;
+            }
+            case 10 -> {
+              checkSumIndex = index;
+              checkSumFieldStart = p;
+              checkSumStart = value;
+              checkSumEnd = fieldEnd;
+            }
+            case 34 -> {
+              seqStart = value;
+              seqEnd = fieldEnd;
+            }
+            case 35 -> {
+              msgTypeStart = value;
+              msgTypeEnd = fieldEnd;
+            }
+            case 54 -> {
+              sideStart = value;
+              sideEnd = fieldEnd;
+            }
+            case 55 -> {
+              symbolStart = value;
+              symbolEnd = fieldEnd;
+            }
+            default -> {
+            }
+          }
+        }
+        index++;
+        p = fieldEnd + 1;
+      }
+      return true;
+    }
+
+    private boolean required(int tag) {
+      if (seen[tag] == stamp) {
+        return true;
+      }
+      counts.missingRequired[tag]++;
+      return false;
+    }
+
+    private boolean reason(int reason) {
+      counts.reasons[reason]++;
+      return false;
+    }
+
+    // gen.py sums the bytes before the first 10 field; with 10 first that is
+    // an empty join plus one SOH.
+    private long checkSum(long start) {
+      if (checkSumIndex == 0) {
+        return FixFraming.SOH;
+      }
+      int sum = 0;
+      long p = start;
+      for (; p + 8 <= checkSumFieldStart; p += 8) {
+        sum += FixDecoding.byteSum(file.get(ValueLayout.JAVA_LONG_UNALIGNED, p));
+      }
+      for (; p < checkSumFieldStart; p++) {
+        sum += file.get(ValueLayout.JAVA_BYTE, p) & 0xFF;
+      }
+      return sum & 0xFF;
+    }
+
+    // The value's id, or -1 (counted as untracked) when it is too long or
+    // new to a full dictionary.
+    private int id(SymbolDictionary dictionary, long start, long end) {
+      int length = (int) (end - start);
+      int id = length > SymbolDictionary.MAX_KEY_LENGTH
+          ? SymbolDictionary.NOT_FOUND
+          : dictionary.tryIntern(file, start, length);
+      if (id == SymbolDictionary.NOT_FOUND) {
+        counts.untracked++;
+        return -1;
+      }
+      return id;
+    }
+
+    // Decimal tag without leading zeros, below MAX_TAG; -1 otherwise, since
+    // gen.py keys tags by their text and "035" is not "35".
+    private int tag(long start, long end) {
+      int length = (int) (end - start);
+      if (length == 0 || length > 4 || (length > 1 && file.get(ValueLayout.JAVA_BYTE, start) == '0')) {
+        return -1;
+      }
+      int tag = 0;
+      for (long p = start; p < end; p++) {
+        int digit = file.get(ValueLayout.JAVA_BYTE, p) - '0';
+        if (digit < 0 || digit > 9) {
+          return -1;
+        }
+        tag = tag * 10 + digit;
+      }
+      return tag;
+    }
+
+    // str.isdigit(): non-empty, ASCII digits only. -1 otherwise.
+    private long parseDigits(long start, long end) {
+      if (end == start || end - start > 18) {
+        return -1;
+      }
+      long value = 0;
+      for (long p = start; p < end; p++) {
+        int digit = file.get(ValueLayout.JAVA_BYTE, p) - '0';
+        if (digit < 0 || digit > 9) {
+          return -1;
+        }
+        value = value * 10 + digit;
+      }
+      return value;
+    }
+
+    // int(): optional sign and digits; Long.MIN_VALUE when malformed. Values
+    // too long for a long saturate, which still compares unequal.
+    private long parseSigned(long start, long end) {
+      long p = start;
+      boolean negative = false;
+      if (p < end) {
+        byte sign = file.get(ValueLayout.JAVA_BYTE, p);
+        if (sign == '-' || sign == '+') {
+          negative = sign == '-';
+          p++;
+        }
+      }
+      if (p == end) {
+        return Long.MIN_VALUE;
+      }
+      long value = 0;
+      for (; p < end; p++) {
+        int digit = file.get(ValueLayout.JAVA_BYTE, p) - '0';
+        if (digit < 0 || digit > 9) {
+          return Long.MIN_VALUE;
+        }
+        value = value > (Long.MAX_VALUE - 9) / 10 ? Long.MAX_VALUE : value * 10 + digit;
+      }
+      return negative ? -value : value;
+    }
+  }
+
+  private static int[] requiredTags(byte msgType) {
+    return switch (msgType) {
+      case 'A' -> LOGON_REQUIRED;
+      case 'D' -> NEW_ORDER_REQUIRED;
+      case '8' -> EXECUTION_REPORT_REQUIRED;
+      case 'H' -> STATUS_REQUEST_REQUIRED;
+      default -> NONE;
+    };
+  }
+
+  // Same layout as json.dump(meta, indent=2, sort_keys=True).
+  String toJson(Counts counts, long expected) {
+    Map<String, Object> meta = new TreeMap<>();
+    meta.put("expected_message_count", expected);
+    meta.put("actual_message_count", counts.messages);
+    meta.put("message_count_ok", expected == counts.messages);
+    meta.put("valid_messages", counts.valid);
+    meta.put("invalid_messages", counts.invalid);
+    meta.put("sequence_check", sequenceCheck);
+
+    Map<String, Object> reasons = new TreeMap<>();
+    for (int i = 0; i < REASONS.length; i++) {
+      if (counts.reasons[i] > 0) {
+        reasons.put(REASONS[i], counts.reasons[i]);
+      }
+    }
+    for (int tag = 0; tag < MAX_TAG; tag++) {
+      if (counts.missingRequired[tag] > 0) {
+        reasons.put("missing_required_tag_" + tag, counts.missingRequired[tag]);
+      }
+    }
+    meta.put("invalid_reasons", reasons);
+    meta.put("message_types", values(msgTypes, counts.msgTypes));
+    meta.put("symbols", values(symbols, counts.symbols));
+
+    Map<String, Object> sides = new TreeMap<>();
+    sides.put("buy", counts.buy);
+    sides.put("sell", counts.sell);
+    meta.put("new_order_sides", sides);
+
+    Map<String, Object> tags = new TreeMap<>();
+    for (int tag = 0; tag < MAX_TAG; tag++) {
+      if (counts.tagMessages[tag] > 0) {
+        Map<String, Object> split = new TreeMap<>();
+        split.put("messages", counts.tagMessages[tag]);
+        split.put("valid_messages", counts.tagValid[tag]);
+        split.put("invalid_messages", counts.tagInvalid[tag]);
+        tags.put(Integer.toString(tag), split);
+      }
+    }
+    meta.put("tags", tags);
+    meta.put("sequence_numbers", range(counts.seqMin, counts.seqMax));
+    meta.put("body_length_bytes", range(counts.bodyMin, counts.bodyMax));
+
+    StringBuilder out = new StringBuilder();
+    write(out, meta, 0);
+    return out.toString();
+  }
+
+  private static Map<String, Object> values(SymbolDictionary dictionary, long[] counts) {
+    Map<String, Object> values = new TreeMap<>();
+    for (int id = 0; id < dictionary.size(); id++) {
+      if (id < counts.length && counts[id] > 0) {
+        values.put(dictionary.symbol(id), counts[id]);
+      }
+    }
+    return values;
+  }
+
+  private static Map<String, Object> range(long min, long max) {
+    Map<String, Object> range = new TreeMap<>();
+    range.put("min", min > max ? null : min);
+    range.put("max", min > max ? null : max);
+    return range;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void write(StringBuilder out, Object value, int depth) {
+    if (value instanceof Map<?, ?> map) {
+      if (map.isEmpty()) {
+        out.append("{}");
+        return;
+      }
+      out.append("{\n");
+      int i = 0;
+      for (Map.Entry<String, Object> entry : ((Map<String, Object>) map).entrySet()) {
+        out.append("  ".repeat(depth + 1));
+        string(out, entry.getKey());
+        out.append(": ");
+        write(out, entry.getValue(), depth + 1);
+        out.append(++i < map.size() ? ",\n" : "\n");
+      }
+      out.append("  ".repeat(depth)).append('}');
+    } else if (value instanceof String s) {
+      string(out, s);
+    } else {
+      out.append(value == null ? "null" : value.toString());
+    }
+  }
+
+  private static void string(StringBuilder out, String s) {
+    out.append('"');
+    for (int i = 0; i < s.length(); i++) {
+      char c = s.charAt(i);
+      switch (c) {
+        case '"' -> out.append("\\\"");
+        case '\\' -> out.append("\\\\");
+        case '\n' -> out.append("\\n");
+        case '\r' -> out.append("\\r");
+        case '\t' -> out.append("\\t");
+        case '\b' -> out.append("\\b");
+        case '\f' -> out.append("\\f");
+        default -> {
+          if (c < 0x20 || c > 0x7E) {
+            out.append(String.format("\\u%04x", (int) c));
+          } else {
+            out.append(c);
+          }
+        }
+      }
+    }
+    out.append('"');
+  }
+}
@@ -0,0 +1,96 @@
+package com.example.fix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A fixed number of equal-size off-heap buffers carved out of one slab, handed
+// out by index. The free list is a lock-free stack threaded through next[];
+// the head carries a version in its upper 32 bits so a pop racing with a
+// pop/push of the same index cannot succeed (ABA). acquire() and release()
+// never allocate and never block, which keeps them cheap on virtual threads.
+public final class FixBufferPool implements AutoCloseable {
+  public static final int NONE = -1;
+
+  private final Arena arena;
+  private final int bufferSize;
+  private final MemorySegment[] buffers;
+  private final int[] next;
+  private final AtomicLong head;
+  private final AtomicInteger available;
+
+  public FixBufferPool(int count, int bufferSize) {
+    if (count <= 0) {
+      throw new IllegalArgumentException("count must be positive");
+    }
+    if (bufferSize < 64) {
+      throw new IllegalArgumentException("bufferSize must be at least 64 bytes");
+    }
+    this.bufferSize = bufferSize;
+    long stride = (bufferSize + 63L) & ~63L;
+    this.arena = Arena.ofShared();
+    MemorySegment slab = arena.allocate(stride * count, 64);
+    this.buffers = new MemorySegment[count];
+    this.next = new int[count];
+    for (int i = 0; i < count; i++) {
+      buffers[i] = slab.asSlice(i * stride, bufferSize);
+      next[i] = i + 1 < count ? i + 1 : NONE;
+    }
+    this.head = new AtomicLong(0);
+    this.available = new AtomicInteger(count);
+  }
+
+  // Index of a free buffer, or NONE if all are in use.
+  public int acquire() {
+    while (true) {
+      long h = head.get();
+      int index = (int) h;
+      if (index == NONE) {
+        return NONE;
+      }
+      long updated = version(h) + 1 << 32 | (next[index] & 0xFFFF_FFFFL);
+      if (head.compareAndSet(h, updated)) {
+        available.decrementAndGet();
+        return index;
+      }
+    }
+  }
+
+  public void release(int index) {
+    while (true) {
+      long h = head.get();
+      next[index] = (int) h;
+      long updated = version(h) + 1 << 32 | index;
+      if (head.compareAndSet(h, updated)) {
+        available.incrementAndGet();
+        return;
+      }
+    }
+  }
+
+  public MemorySegment buffer(int index) {
+    return buffers[index];
+  }
+
+  public int bufferSize() {
+    return bufferSize;
+  }
+
+  public int capacity() {
+    return buffers.length;
+  }
+
+  public int available() {
+    return available.get();
+  }
+
+  @Override
+  public void close() {
+    arena.close();
+  }
+
+  private static long version(long head) {
+    return head >>> 32;
+  }
+}
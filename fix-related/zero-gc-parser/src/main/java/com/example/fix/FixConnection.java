@@ -0,0 +1,278 @@
+package com.example.fix;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+// One non-blocking TCP session on a FixEventLoop.
+//
+// Receive side: the socket is read straight into the connection's FixFramer
+// buffer through a ByteBuffer view of the same off-heap segment, so bytes go
+// from the kernel into the buffer the parser works on and every complete
+// message is handed to the Handler in place (parse it with
+// FixNewOrderSingleParser.parse(buffer, offset, length, out)). The framer
+// keeps the per-connection state across reads.
+//
+// Send side: messages are appended to an off-heap send buffer, either by
+// copying with send() or by encoding in place between prepareSend() and
+// commitSend(). The loop writes each connection's pending bytes once per
+// select round, so all replies produced while handling one batch of reads go
+// out in a single write. When the socket cannot take everything, the rest
+// stays queued and the loop waits for OP_WRITE.
+//
+// Everything except the counters must be used from the loop thread.
+public final class FixConnection implements AutoCloseable {
+  public interface Handler {
+    // The message is valid until the call returns.
+    void onMessage(FixConnection connection, MemorySegment buffer, long offset, int length);
+
+    default void onConnected(FixConnection connection) {
+    }
+
+    default void onDisconnected(FixConnection connection) {
+    }
+  }
+
+  private final FixEventLoop loop;
+  private final int id;
+  private final SocketChannel channel;
+  private final Handler handler;
+
+  private final FixFramer framer;
+  private final ByteBuffer receiveView;
+
+  private final Arena sendArena;
+  private final MemorySegment sendBuffer;
+  private final ByteBuffer sendView;
+  private final int sendCapacity;
+
+  private SelectionKey key;
+  private int sendPosition;
+  private int flushedPosition;
+  private boolean dirty;
+  private boolean connected;
+  private boolean closed;
+  private Object attachment;
+
+  private long messagesReceived;
+  private long bytesReceived;
+  private long bytesSent;
+  private long writes;
+
+  FixConnection(FixEventLoop loop, int id, SocketChannel channel, int receiveBufferSize,
+      int sendBufferSize, Handler handler) {
+    this.loop = loop;
+    this.id = id;
+    this.channel = channel;
+    this.handler = handler;
+    this.framer = new FixFramer(receiveBufferSize, this::onFramed);
+    this.receiveView = framer.buffer().asByteBuffer();
+    this.sendArena = Arena.ofShared();
+    this.sendBuffer = sendArena.allocate(sendBufferSize, 64);
+    this.sendView = sendBuffer.asByteBuffer();
+    this.sendCapacity = sendBufferSize;
+  }
+
+  // Dense per-loop index, handy for per-connection arrays in handlers.
+  public int id() {
+    return id;
+  }
+
+  public boolean isConnected() {
+    return connected && !closed;
+  }
+
+  public void attach(Object attachment) {
+    this.attachment = attachment;
+  }
+
+  public Object attachment() {
+    return attachment;
+  }
+
+  public MemorySegment sendBuffer() {
+    return sendBuffer;
+  }
+
+  // Makes room for a message of up to length bytes and returns the offset in
+  // sendBuffer() to write it at, or -1 if the connection is closed or the
+  // socket is backed up and the send buffer cannot take it. Follow with
+  // commitSend(actualLength).
+  public long prepareSend(int length) {
+    if (closed) {
+      return -1;
+    }
+    if (sendCapacity - sendPosition >= length) {
+      return sendPosition;
+    }
+    compactSend();
+    if (sendCapacity - sendPosition < length) {
+      flush();
+      compactSend();
+      if (sendCapacity - sendPosition < length) {
+        return -1;
+      }
+    }
+    return sendPosition;
+  }
+
+  public void commitSend(int length) {
+    sendPosition += length;
+    if (!dirty) {
+      dirty = true;
+      loop.markDirty(this);
+    }
+  }
+
+  // Copies a message into the send buffer; false if it does not fit.
+  public boolean send(MemorySegment source, long offset, int length) {
+    long at = prepareSend(length);
+    if (at < 0) {
+      return false;
+    }
+    MemorySegment.copy(source, offset, sendBuffer, at, length);
+    commitSend(length);
+    return true;
+  }
+
+  public long messagesReceived() {
+    return messagesReceived;
+  }
+
+  public long bytesReceived() {
+    return bytesReceived;
+  }
+
+  public long bytesSent() {
+    return bytesSent;
+  }
+
+  // Number of write calls; bytesSent() / writes() shows the batching.
+  public long writes() {
+    return writes;
+  }
+
+  public int pendingSendBytes() {
+    return sendPosition - flushedPosition;
+  }
+
+  public long discardedBytes() {
+    return framer.discardedBytes();
+  }
+
+  // Closes the socket and drops pending sends. The buffers are freed and
+  // onDisconnected runs at the end of the loop's current round, so this is
+  // safe to call from inside onMessage.
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    if (key != null) {
+      key.cancel();
+    }
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+      // Nothing left to release.
+    }
+    loop.onClosed(this, connected);
+  }
+
+  void register(SelectionKey key) {
+    this.key = key;
+  }
+
+  // Runs on the loop thread once the current round is over.
+  void release() {
+    try {
+      handler.onDisconnected(this);
+    } finally {
+      framer.close();
+      sendArena.close();
+    }
+  }
+
+  SocketChannel channel() {
+    return channel;
+  }
+
+  void onConnected() {
+    connected = true;
+    loop.onConnected(this);
+    key.interestOps(pendingSendBytes() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+    handler.onConnected(this);
+  }
+
+  // Reads until the socket has nothing more for now. Returns false at end of
+  // stream.
+  boolean read() throws IOException {
+    while (!closed) {
+      long room = framer.prepareWrite();
+      int start = (int) framer.writePosition();
+      receiveView.limit(start + (int) room).position(start);
+      int n = channel.read(receiveView);
+      if (n < 0) {
+        return false;
+      }
+      if (n == 0) {
+        return true;
+      }
+      bytesReceived += n;
+      framer.commit(n);
+      if (n < room) {
+        return true;
+      }
+    }
+    return true;
+  }
+
+  // Writes what is queued. Leaves OP_WRITE set while bytes remain.
+  void flush() {
+    dirty = false;
+    if (closed || !connected || flushedPosition == sendPosition) {
+      return;
+    }
+    try {
+      sendView.limit(sendPosition).position(flushedPosition);
+      int n = channel.write(sendView);
+      writes++;
+      bytesSent += n;
+      flushedPosition += n;
+    } catch (IOException e) {
+      close();
+      return;
+    }
+    if (flushedPosition == sendPosition) {
+      flushedPosition = 0;
+      sendPosition = 0;
+      if ((key.interestOps() & SelectionKey.OP_WRITE) != 0) {
+        key.interestOps(SelectionKey.OP_READ);
+      }
+    } else if ((key.interestOps() & SelectionKey.OP_WRITE) == 0) {
+      key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+    }
+  }
+
+  private void compactSend() {
+    if (flushedPosition == 0) {
+      return;
+    }
+    int pending = sendPosition - flushedPosition;
+    MemorySegment.copy(sendBuffer, flushedPosition, sendBuffer, 0, pending);
+    flushedPosition = 0;
+    sendPosition = pending;
+  }
+
+  private void onFramed(MemorySegment buffer, long offset, int length) {
+    if (closed) {
+      return;
+    }
+    messagesReceived++;
+    handler.onMessage(this, buffer, offset, length);
+  }
+}
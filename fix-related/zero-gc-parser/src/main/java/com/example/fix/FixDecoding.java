@@ -0,0 +1,219 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+// Value decoders shared by the hand-written and the generated parsers.
+final class FixDecoding {
+  private static final byte DOT = '.';
+
+  private static final ValueLayout.OfLong LONG_LE =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  private static final long ONES = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+  private static final long ZEROS = 0x3030303030303030L;
+  private static final long DOTS = 0x2E2E2E2E2E2E2E2EL;
+  private static final long EQUALS = 0x3D3D3D3D3D3D3D3DL;
+  private static final long SIXES = 0x0606060606060606L;
+  private static final long HIGH_NIBBLES = 0xF0F0F0F0F0F0F0F0L;
+  private static final long THREES = 0x3333333333333333L;
+  // Never produced by loadDigits: its low lane is always a digit or '0'.
+  private static final long NO_WORD = 0;
+
+  private static final long EVEN_BYTES = 0x00FF00FF00FF00FFL;
+  private static final long LANE_SUM = 0x0001000100010001L;
+
+  // parseDecimal packs the scale into the low bits of its result so that
+  // parsers need no per-call state; the mantissa keeps the upper 58 bits.
+  private static final int SCALE_BITS = 5;
+  private static final long SCALE_MASK = (1L << SCALE_BITS) - 1;
+  // 10^17 - 1 is below 2^58, so any 17 significant digits fit the mantissa.
+  private static final int MAX_DECIMAL_DIGITS = 17;
+
+  private FixDecoding() {
+  }
+
+  static byte getByte(MemorySegment buffer, long offset) {
+    return buffer.get(ValueLayout.JAVA_BYTE, offset);
+  }
+
+  // Sums the eight bytes of word: pairs of bytes are added into 16-bit lanes,
+  // then the multiply folds all four lanes into the top 16 bits.
+  static int byteSum(long word) {
+    long lanes = (word & EVEN_BYTES) + ((word >>> 8) & EVEN_BYTES);
+    return (int) ((lanes * LANE_SUM) >>> 48);
+  }
+
+  // Numbers of up to 8 digits are decoded as one little-endian word: load,
+  // validate every lane with nibble arithmetic, then fold the digits with three
+  // multiplies (the simdjson eight-digit technique). Longer numbers fall back to
+  // the scalar loops.
+  static int parseInt(MemorySegment buffer, long start, long end) {
+    long value = parseLong(buffer, start, end);
+    return value > Integer.MAX_VALUE ? -1 : (int) value;
+  }
+
+  static long parseLong(MemorySegment buffer, long start, long end) {
+    int length = (int) (end - start);
+    if (length == 0) {
+      return 0;
+    }
+    if (length <= 8) {
+      long word = loadDigits(buffer, start, length);
+      if (word != NO_WORD) {
+        return isDigits(word) ? eightDigits(word) : -1;
+      }
+    } else if (length <= 16) {
+      long high = loadDigits(buffer, start, length - 8);
+      long low = loadDigits(buffer, end - 8, 8);
+      if (high != NO_WORD && low != NO_WORD) {
+        if (!isDigits(high) || !isDigits(low)) {
+          return -1;
+        }
+        return eightDigits(high) * 100_000_000L + eightDigits(low);
+      }
+    }
+    return parseLongScalar(buffer, start, end);
+  }
+
+  // Returns mantissa << SCALE_BITS | scale, or -1 if the value is malformed.
+  // The '.' is located with a SWAR match on the same word and squeezed out,
+  // which leaves the remaining digits right-aligned for eightDigits.
+  static long parseDecimal(MemorySegment buffer, long start, long end) {
+    int length = (int) (end - start);
+    if (length == 0) {
+      return 0;
+    }
+    if (length <= 8) {
+      long word = loadDigits(buffer, start, length);
+      if (word != NO_WORD) {
+        int scale = 0;
+        long dot = swarMatch(word, DOTS);
+        if (dot != 0) {
+          int lane = Long.numberOfTrailingZeros(dot) >>> 3;
+          long above = (-1L << (lane << 3)) << 8;
+          long below = ~(-1L << (lane << 3));
+          word = (word & above) | ((word & below) << 8) | ZEROS >>> 56;
+          scale = 7 - lane;
+        }
+        return isDigits(word) ? eightDigits(word) << SCALE_BITS | scale : -1;
+      }
+    }
+    return parseDecimalScalar(buffer, start, end);
+  }
+
+  // Decodes the tag at the start of word (the eight bytes at a field start,
+  // loaded little-endian). The first '=' is found with a SWAR match, the 1-7
+  // bytes before it are left-padded with '0' and folded like any other number,
+  // so the tag costs no per-byte branches. Returns tag << 3 | digit count, or -1
+  // when there is no '=' in the word or a tag byte is not a digit; callers then
+  // fall back to a byte loop, which also covers 8+ digit tags.
+  static int swarTag(long word) {
+    long equals = swarMatch(word, EQUALS);
+    if (equals == 0) {
+      return -1;
+    }
+    int digits = Long.numberOfTrailingZeros(equals) >>> 3;
+    if (digits == 0) {
+      return -1;
+    }
+    int pad = (8 - digits) << 3;
+    long padded = word << pad | ZEROS >>> (64 - pad);
+    if (!isDigits(padded)) {
+      return -1;
+    }
+    return (int) eightDigits(padded) << 3 | digits;
+  }
+
+  // Returns the length (1..8) bytes at start in the high lanes of a word with
+  // '0' in the lanes below, i.e. left-padded with zeros. Loads forward when
+  // eight bytes fit before the end of the segment, otherwise backward from the
+  // end of the value; NO_WORD if the segment is shorter than eight bytes.
+  private static long loadDigits(MemorySegment buffer, long start, int length) {
+    int pad = (8 - length) << 3;
+    long word;
+    if (start + 8 <= buffer.byteSize()) {
+      word = buffer.get(LONG_LE, start) << pad;
+    } else if (start + length >= 8) {
+      word = buffer.get(LONG_LE, start + length - 8);
+    } else {
+      return NO_WORD;
+    }
+    long digits = -1L << pad;
+    return (word & digits) | (ZEROS & ~digits);
+  }
+
+  static boolean isDigits(long word) {
+    return ((word & HIGH_NIBBLES) | (((word + SIXES) & HIGH_NIBBLES) >>> 4)) == THREES;
+  }
+
+  // Pairs of digits, then pairs of pairs, then the two halves: 10 * a + b at
+  // each step is a single multiply because the lanes do not overlap.
+  static long eightDigits(long word) {
+    long value = (word & 0x0F0F0F0F0F0F0F0FL) * 2561 >>> 8;
+    value = (value & 0x00FF00FF00FF00FFL) * 6553601 >>> 16;
+    return (value & 0x0000FFFF0000FFFFL) * 42949672960001L >>> 32;
+  }
+
+  private static long swarMatch(long word, long pattern) {
+    long input = word ^ pattern;
+    return (input - ONES) & ~input & HIGH_BITS;
+  }
+
+  private static long parseLongScalar(MemorySegment buffer, long start, long end) {
+    long value = 0;
+    for (long i = start; i < end; i++) {
+      byte b = getByte(buffer, i);
+      int digit = b - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  // Rejects values that do not fit: more than MAX_DECIMAL_DIGITS significant
+  // digits would overflow the mantissa, and a scale above SCALE_MASK would
+  // bleed into it.
+  private static long parseDecimalScalar(MemorySegment buffer, long start, long end) {
+    long value = 0;
+    int scale = 0;
+    int digits = 0;
+    boolean sawDot = false;
+
+    for (long i = start; i < end; i++) {
+      byte b = getByte(buffer, i);
+      if (b == DOT) {
+        if (sawDot) {
+          return -1;
+        }
+        sawDot = true;
+        continue;
+      }
+      int digit = b - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      if ((value != 0 || digit != 0) && ++digits > MAX_DECIMAL_DIGITS) {
+        return -1;
+      }
+      value = value * 10 + digit;
+      if (sawDot && ++scale > SCALE_MASK) {
+        return -1;
+      }
+    }
+
+    return value << SCALE_BITS | scale;
+  }
+
+  static long mantissa(long decimal) {
+    return decimal >>> SCALE_BITS;
+  }
+
+  static int scale(long decimal) {
+    return (int) (decimal & SCALE_MASK);
+  }
+}
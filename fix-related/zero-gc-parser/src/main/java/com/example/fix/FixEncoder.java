@@ -0,0 +1,379 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+// Writes FIX messages into a caller-supplied segment without allocating.
+//
+// The parts of the header that never change for a session, "8=<BeginString>
+// <SOH>9=" and "49=<Sender><SOH>56=<Target><SOH>", are encoded once into byte
+// templates together with their byte sums. A message is formatted into a
+// private frame first: begin() leaves room for the widest BodyLength and
+// writes the body straight after it; end() writes the real BodyLength digits
+// right-aligned against the body, copies the 8=/9= prefix in front of them,
+// appends 10= and copies the finished message to the target segment in one
+// go. Formatting byte by byte into a heap array avoids a bounds and liveness
+// check per byte on the segment.
+//
+// Every byte is added to the CheckSum as it is written (template sums are
+// precomputed), so 10= needs no second pass. Integers, decimals and
+// UTCTimestamps are formatted digit by digit, never through a String.
+//
+// One encoder per thread; it holds the state of the message being written.
+public final class FixEncoder {
+  public static final int MAX_BODY_LENGTH_DIGITS = 6;
+  public static final int DEFAULT_MAX_MESSAGE_LENGTH = 4096;
+
+  private static final byte SOH = 1;
+  private static final byte EQ = '=';
+  // Room past the limit for one fixed-width field (tag, number or
+  // timestamp) and the trailer, so only variable-length values are checked
+  // before they are written.
+  private static final int SLACK = 64;
+  private static final int MAX_SCALE = 18;
+
+  private static final VarHandle LONG_LE =
+      MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+  private static final VarHandle SHORT_LE =
+      MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.LITTLE_ENDIAN);
+
+  // "<tag>=" for every tag below TAG_CACHE as a little-endian word, with its
+  // byte sum and length packed as sum << 8 | length.
+  private static final int TAG_CACHE = 1000;
+  private static final long[] TAG_WORDS = new long[TAG_CACHE];
+  private static final int[] TAG_INFO = new int[TAG_CACHE];
+  // "00" to "99" as little-endian shorts, with their byte sums above bit 16.
+  private static final int[] DIGIT_PAIRS = new int[100];
+
+  static {
+    for (int tag = 0; tag < TAG_CACHE; tag++) {
+      byte[] bytes = ascii(tag + "=");
+      long word = 0;
+      for (int i = 0; i < bytes.length; i++) {
+        word |= (long) bytes[i] << (i << 3);
+      }
+      TAG_WORDS[tag] = word;
+      TAG_INFO[tag] = byteSum(bytes) << 8 | bytes.length;
+    }
+    for (int pair = 0; pair < 100; pair++) {
+      int tens = '0' + pair / 10;
+      int ones = '0' + pair % 10;
+      DIGIT_PAIRS[pair] = (tens + ones) << 16 | ones << 8 | tens;
+    }
+  }
+
+  private static final long NANOS_PER_MILLI = 1_000_000L;
+  private static final long MILLIS_PER_DAY = 86_400_000L;
+
+  private final byte[] beginTemplate;
+  private final int beginSum;
+  private final byte[] compIdTemplate;
+  private final int compIdSum;
+  private final int reserved;
+  private final int maxMessageLength;
+  private final byte[] frame;
+  private final MemorySegment frameSegment;
+
+  private MemorySegment buffer;
+  private long offset;
+  private int position;
+  private int sum;
+
+  // Date part of the last timestamp, as eight little-endian ASCII digits.
+  private long cachedEpochDay = Long.MIN_VALUE;
+  private long cachedDateWord;
+  private int cachedDateSum;
+
+  public FixEncoder(String beginString, String senderCompId, String targetCompId) {
+    this(beginString, senderCompId, targetCompId, DEFAULT_MAX_MESSAGE_LENGTH);
+  }
+
+  public FixEncoder(String beginString, String senderCompId, String targetCompId, int maxMessageLength) {
+    beginTemplate = ascii("8=" + beginString + "\u00019=");
+    beginSum = byteSum(beginTemplate);
+    compIdTemplate = ascii("49=" + senderCompId + "\u000156=" + targetCompId + "\u0001");
+    compIdSum = byteSum(compIdTemplate);
+    reserved = beginTemplate.length + MAX_BODY_LENGTH_DIGITS + 1;
+    if (maxMessageLength < reserved + compIdTemplate.length + SLACK || maxMessageLength > 999_999) {
+      throw new IllegalArgumentException("maxMessageLength too small: " + maxMessageLength);
+    }
+    this.maxMessageLength = maxMessageLength;
+    frame = new byte[maxMessageLength + SLACK];
+    frameSegment = MemorySegment.ofArray(frame);
+  }
+
+  // Starts a message at offset in buffer and writes 35=, the
+  // SenderCompID/TargetCompID template, 34= and 52=.
+  public FixEncoder begin(MemorySegment buffer, long offset, byte msgType, int msgSeqNum, long sendingTimeNanos) {
+    this.buffer = buffer;
+    this.offset = offset;
+    this.position = reserved;
+    this.sum = 0;
+    field(35, msgType);
+    System.arraycopy(compIdTemplate, 0, frame, position, compIdTemplate.length);
+    position += compIdTemplate.length;
+    sum += compIdSum;
+    field(34, msgSeqNum);
+    timestamp(52, sendingTimeNanos);
+    return this;
+  }
+
+  public FixEncoder field(int tag, long value) {
+    tag(tag);
+    number(value);
+    return soh();
+  }
+
+  public FixEncoder field(int tag, byte value) {
+    tag(tag);
+    put(value);
+    return soh();
+  }
+
+  public FixEncoder field(int tag, byte[] value) {
+    tag(tag);
+    require(value.length);
+    System.arraycopy(value, 0, frame, position, value.length);
+    addSum(position, value.length);
+    position += value.length;
+    return soh();
+  }
+
+  public FixEncoder field(int tag, MemorySegment value, long valueOffset, int length) {
+    tag(tag);
+    require(length);
+    MemorySegment.copy(value, valueOffset, frameSegment, position, length);
+    addSum(position, length);
+    position += length;
+    return soh();
+  }
+
+  // mantissa / 10^scale, written with exactly scale decimals (125.50 for
+  // 12550, 2). The scale must be 0 to 18.
+  public FixEncoder decimal(int tag, long mantissa, int scale) {
+    if (scale < 0 || scale > MAX_SCALE) {
+      throw new IllegalArgumentException("scale out of range: " + scale);
+    }
+    tag(tag);
+    if (scale == 0) {
+      number(mantissa);
+      return soh();
+    }
+    if (mantissa < 0) {
+      put((byte) '-');
+      mantissa = negate(mantissa);
+    }
+    int end = position + Math.max(digits(mantissa), scale + 1) + 1;
+    int p = end;
+    for (int i = 0; i < scale; i++) {
+      p = digit(p, mantissa % 10);
+      mantissa /= 10;
+    }
+    frame[--p] = '.';
+    sum += '.';
+    do {
+      p = digit(p, mantissa % 10);
+      mantissa /= 10;
+    } while (mantissa != 0);
+    while (p > position) {
+      p = digit(p, 0);
+    }
+    position = end;
+    return soh();
+  }
+
+  // UTCTimestamp with milliseconds, YYYYMMDD-HH:MM:SS.sss.
+  public FixEncoder timestamp(int tag, long epochNanos) {
+    tag(tag);
+    long epochMillis = Math.floorDiv(epochNanos, NANOS_PER_MILLI);
+    long epochDay = Math.floorDiv(epochMillis, MILLIS_PER_DAY);
+    if (epochDay != cachedEpochDay) {
+      cacheDate(epochDay);
+    }
+    LONG_LE.set(frame, position, cachedDateWord);
+    sum += cachedDateSum;
+    position += 8;
+
+    int millisOfDay = (int) (epochMillis - epochDay * MILLIS_PER_DAY);
+    int millis = millisOfDay % 1000;
+    int seconds = millisOfDay / 1000;
+    put((byte) '-');
+    twoDigits(seconds / 3600);
+    put((byte) ':');
+    twoDigits(seconds / 60 % 60);
+    put((byte) ':');
+    twoDigits(seconds % 60);
+    put((byte) '.');
+    put((byte) ('0' + millis / 100));
+    twoDigits(millis % 100);
+    return soh();
+  }
+
+  // Patches 9=, appends 10=, copies the message to the segment given to
+  // begin() and returns its length.
+  public int end() {
+    if (position > maxMessageLength - 7) {
+      throw new IllegalStateException("Message longer than " + maxMessageLength + " bytes");
+    }
+    int p = reserved - 1;
+    frame[p] = SOH;
+    sum += SOH;
+    int value = position - reserved;
+    do {
+      p = digit(p, value % 10);
+      value /= 10;
+    } while (value != 0);
+    p -= beginTemplate.length;
+    System.arraycopy(beginTemplate, 0, frame, p, beginTemplate.length);
+    sum += beginSum;
+
+    int checkSum = sum & 0xFF;
+    tag(10);
+    put((byte) ('0' + checkSum / 100));
+    twoDigits(checkSum % 100);
+    frame[position++] = SOH;
+
+    int length = position - p;
+    MemorySegment.copy(frameSegment, p, buffer, offset, length);
+    return length;
+  }
+
+  private void tag(int tag) {
+    if (position > maxMessageLength) {
+      throw new IllegalStateException("Message longer than " + maxMessageLength + " bytes");
+    }
+    if (tag >= 0 && tag < TAG_CACHE) {
+      // The frame's slack makes the full-word store safe.
+      LONG_LE.set(frame, position, TAG_WORDS[tag]);
+      int info = TAG_INFO[tag];
+      position += info & 0xFF;
+      sum += info >>> 8;
+      return;
+    }
+    number(tag);
+    put(EQ);
+  }
+
+  private void require(int length) {
+    if (length > maxMessageLength - position) {
+      throw new IllegalStateException("Message longer than " + maxMessageLength + " bytes");
+    }
+  }
+
+  private FixEncoder soh() {
+    frame[position++] = SOH;
+    sum += SOH;
+    return this;
+  }
+
+  private void put(byte value) {
+    frame[position++] = value;
+    sum += value & 0xFF;
+  }
+
+  private void addSum(int from, int length) {
+    int p = from;
+    int end = from + length;
+    for (; p + 8 <= end; p += 8) {
+      sum += FixDecoding.byteSum((long) LONG_LE.get(frame, p));
+    }
+    for (; p < end; p++) {
+      sum += frame[p] & 0xFF;
+    }
+  }
+
+  private void number(long value) {
+    if (value < 0) {
+      put((byte) '-');
+      value = negate(value);
+    }
+    int end = position + digits(value);
+    int p = end;
+    while (value >= 100) {
+      p = pair(p, (int) (value % 100));
+      value /= 100;
+    }
+    p = value >= 10 ? pair(p, (int) value) : digit(p, value);
+    position = end;
+  }
+
+  private static long negate(long value) {
+    if (value == Long.MIN_VALUE) {
+      throw new IllegalArgumentException("Long.MIN_VALUE cannot be encoded");
+    }
+    return -value;
+  }
+
+  private void twoDigits(int value) {
+    position = pair(position + 2, value);
+    position += 2;
+  }
+
+  // Writes two digits just before p and returns the index of the first.
+  private int pair(int p, int value) {
+    int pair = DIGIT_PAIRS[value];
+    p -= 2;
+    SHORT_LE.set(frame, p, (short) pair);
+    sum += pair >>> 16;
+    return p;
+  }
+
+  // Writes one digit just before p and returns its index.
+  private int digit(int p, long value) {
+    int b = '0' + (int) value;
+    frame[--p] = (byte) b;
+    sum += b;
+    return p;
+  }
+
+  private void cacheDate(long epochDay) {
+    // Days to civil date (Howard Hinnant's algorithm).
+    long z = epochDay + 719_468;
+    long era = Math.floorDiv(z, 146_097);
+    long dayOfEra = z - era * 146_097;
+    long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+    long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    long mp = (5 * dayOfYear + 2) / 153;
+    int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+    int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+    int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+    if (year < 0 || year > 9999) {
+      throw new IllegalArgumentException("Timestamp out of range");
+    }
+
+    long word = dateDigit(year / 1000, 0) | dateDigit(year / 100 % 10, 1)
+        | dateDigit(year / 10 % 10, 2) | dateDigit(year % 10, 3)
+        | dateDigit(month / 10, 4) | dateDigit(month % 10, 5)
+        | dateDigit(day / 10, 6) | dateDigit(day % 10, 7);
+    cachedEpochDay = epochDay;
+    cachedDateWord = word;
+    cachedDateSum = FixDecoding.byteSum(word);
+  }
+
+  private static long dateDigit(int digit, int lane) {
+    return (long) ('0' + digit) << (lane << 3);
+  }
+
+  private static int digits(long value) {
+    int digits = 1;
+    for (long bound = 10; digits < 19 && value >= bound; bound *= 10) {
+      digits++;
+    }
+    return digits;
+  }
+
+  private static byte[] ascii(String value) {
+    return value.getBytes(StandardCharsets.US_ASCII);
+  }
+
+  private static int byteSum(byte[] bytes) {
+    int total = 0;
+    for (byte b : bytes) {
+      total += b & 0xFF;
+    }
+    return total;
+  }
+}
@@ -0,0 +1,345 @@
+package com.example.fix;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+// A single-threaded NIO selector loop for FIX sessions, usable as acceptor
+// (listen) and initiator (connect) at the same time. Each round:
+//
+//   1. select (or selectNow when busy-spinning) and handle ready keys: accept,
+//      finish connects, read every readable socket into its FixConnection's
+//      framer and dispatch the framed messages to the Handler in place
+//   2. flush every connection that queued sends during the round, one write
+//      per connection
+//   3. release connections closed during the round
+//
+// Ready keys are visited through select(Consumer), so a round allocates
+// nothing. listen(), connect() and execute() may be called from any thread;
+// they hand work to the loop through a queue and wake it up.
+//
+// A failure on one connection, an IOException or a RuntimeException from the
+// Handler, closes that connection only. A failed accept (e.g. EMFILE when out
+// of file descriptors) is counted and the listener pauses for
+// ACCEPT_BACKOFF_NANOS, so the loop keeps serving the open connections
+// instead of spinning on the ready listener.
+public final class FixEventLoop implements AutoCloseable {
+  private static final long SELECT_TIMEOUT_MILLIS = 100;
+  // Room for a burst of connects; with the default (50) the kernel drops
+  // handshakes and the peers only get in after SYN/ACK retransmits.
+  private static final int BACKLOG = 4096;
+  private static final long ACCEPT_BACKOFF_NANOS = 10_000_000;
+
+  private final String name;
+  private final int receiveBufferSize;
+  private final int sendBufferSize;
+  private final boolean busySpin;
+  private final FixConnection.Handler handler;
+  private final Selector selector;
+  private final Consumer<SelectionKey> onReady = this::onReady;
+  private final ConcurrentLinkedQueue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+  // Loop-thread state.
+  private FixConnection[] dirty = new FixConnection[16];
+  private int dirtyCount;
+  private FixConnection[] closed = new FixConnection[16];
+  private int closedCount;
+  private int nextId;
+  private volatile int openConnections;
+  private SelectionKey[] pausedListeners = new SelectionKey[4];
+  private int pausedCount;
+  private long resumeAcceptAt;
+  private volatile long acceptErrors;
+
+  private Thread thread;
+  private volatile boolean running;
+  private volatile Throwable failure;
+
+  public FixEventLoop(String name, int receiveBufferSize, int sendBufferSize, boolean busySpin,
+      FixConnection.Handler handler) {
+    this.name = name;
+    this.receiveBufferSize = receiveBufferSize;
+    this.sendBufferSize = sendBufferSize;
+    this.busySpin = busySpin;
+    this.handler = handler;
+    try {
+      this.selector = Selector.open();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public void start() {
+    if (thread != null) {
+      throw new IllegalStateException("Event loop already started");
+    }
+    running = true;
+    thread = new Thread(this::run, name);
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  // Accepts sessions on address (port 0 picks a free port) and returns the
+  // bound address.
+  public InetSocketAddress listen(InetSocketAddress address) throws IOException {
+    ServerSocketChannel server = ServerSocketChannel.open();
+    server.configureBlocking(false);
+    server.bind(address, BACKLOG);
+    execute(() -> {
+      try {
+        server.register(selector, SelectionKey.OP_ACCEPT);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    return (InetSocketAddress) server.getLocalAddress();
+  }
+
+  // Starts connecting to address. The handler's onConnected runs on the loop
+  // once the connection is established.
+  public void connect(InetSocketAddress address) throws IOException {
+    SocketChannel channel = SocketChannel.open();
+    channel.configureBlocking(false);
+    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    boolean connected = channel.connect(address);
+    execute(() -> {
+      FixConnection connection = newConnection(channel);
+      try {
+        if (connected) {
+          register(connection, SelectionKey.OP_READ);
+          connection.onConnected();
+        } else {
+          register(connection, SelectionKey.OP_CONNECT);
+        }
+      } catch (RuntimeException e) {
+        connection.close();
+      }
+    });
+  }
+
+  // Runs task on the loop thread.
+  public void execute(Runnable task) {
+    tasks.add(task);
+    selector.wakeup();
+  }
+
+  // Connections accepted or established and not yet closed; updated on the
+  // loop thread.
+  public int connections() {
+    return openConnections;
+  }
+
+  // Failed accepts since start; each pauses the listener briefly.
+  public long acceptErrors() {
+    return acceptErrors;
+  }
+
+  // Stops the loop and closes every connection and listener.
+  @Override
+  public void close() {
+    running = false;
+    selector.wakeup();
+    if (thread != null) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    for (SelectionKey key : selector.keys()) {
+      if (key.attachment() instanceof FixConnection connection) {
+        connection.close();
+      } else {
+        closeQuietly(key);
+      }
+    }
+    releaseClosed();
+    try {
+      selector.close();
+    } catch (IOException ignored) {
+      // Already shutting down.
+    }
+    if (failure != null) {
+      throw new IllegalStateException("Event loop " + name + " failed", failure);
+    }
+  }
+
+  void markDirty(FixConnection connection) {
+    if (dirtyCount == dirty.length) {
+      dirty = Arrays.copyOf(dirty, dirtyCount * 2);
+    }
+    dirty[dirtyCount++] = connection;
+  }
+
+  void onConnected(FixConnection connection) {
+    openConnections++;
+  }
+
+  void onClosed(FixConnection connection, boolean wasConnected) {
+    if (closedCount == closed.length) {
+      closed = Arrays.copyOf(closed, closedCount * 2);
+    }
+    closed[closedCount++] = connection;
+    if (wasConnected) {
+      openConnections--;
+    }
+  }
+
+  private void run() {
+    try {
+      while (running) {
+        runTasks();
+        if (busySpin) {
+          selector.selectNow(onReady);
+        } else {
+          selector.select(onReady, SELECT_TIMEOUT_MILLIS);
+        }
+        flushDirty();
+        releaseClosed();
+        resumeListeners();
+      }
+    } catch (Throwable t) {
+      failure = t;
+    }
+  }
+
+  private void onReady(SelectionKey key) {
+    if (!key.isValid()) {
+      return;
+    }
+    if (key.isAcceptable()) {
+      accept(key);
+      return;
+    }
+    FixConnection connection = (FixConnection) key.attachment();
+    try {
+      if (key.isConnectable()) {
+        connection.channel().finishConnect();
+        connection.onConnected();
+        return;
+      }
+      if (key.isReadable() && !connection.read()) {
+        connection.close();
+        return;
+      }
+      if (key.isValid() && key.isWritable()) {
+        connection.flush();
+      }
+    } catch (IOException | RuntimeException e) {
+      connection.close();
+    }
+  }
+
+  private void accept(SelectionKey key) {
+    ServerSocketChannel server = (ServerSocketChannel) key.channel();
+    while (true) {
+      SocketChannel channel;
+      try {
+        channel = server.accept();
+      } catch (IOException e) {
+        acceptErrors++;
+        pauseListener(key);
+        return;
+      }
+      if (channel == null) {
+        return;
+      }
+      FixConnection connection = null;
+      try {
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        connection = newConnection(channel);
+        register(connection, SelectionKey.OP_READ);
+        connection.onConnected();
+      } catch (IOException | RuntimeException e) {
+        if (connection != null) {
+          connection.close();
+        } else {
+          closeQuietly(channel);
+        }
+      }
+    }
+  }
+
+  private void pauseListener(SelectionKey key) {
+    key.interestOps(0);
+    if (pausedCount == pausedListeners.length) {
+      pausedListeners = Arrays.copyOf(pausedListeners, pausedCount * 2);
+    }
+    pausedListeners[pausedCount++] = key;
+    resumeAcceptAt = System.nanoTime() + ACCEPT_BACKOFF_NANOS;
+  }
+
+  private void resumeListeners() {
+    if (pausedCount == 0 || System.nanoTime() - resumeAcceptAt < 0) {
+      return;
+    }
+    for (int i = 0; i < pausedCount; i++) {
+      if (pausedListeners[i].isValid()) {
+        pausedListeners[i].interestOps(SelectionKey.OP_ACCEPT);
+      }
+      pausedListeners[i] = null;
+    }
+    pausedCount = 0;
+  }
+
+  private FixConnection newConnection(SocketChannel channel) {
+    return new FixConnection(this, nextId++, channel, receiveBufferSize, sendBufferSize, handler);
+  }
+
+  private void register(FixConnection connection, int ops) {
+    try {
+      connection.register(connection.channel().register(selector, ops, connection));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void runTasks() {
+    Runnable task;
+    while ((task = tasks.poll()) != null) {
+      task.run();
+    }
+  }
+
+  private void flushDirty() {
+    for (int i = 0; i < dirtyCount; i++) {
+      dirty[i].flush();
+      dirty[i] = null;
+    }
+    dirtyCount = 0;
+  }
+
+  private void releaseClosed() {
+    for (int i = 0; i < closedCount; i++) {
+      try {
+        closed[i].release();
+      } catch (RuntimeException ignored) {
+        // A failing onDisconnected must not stop the loop.
+      }
+      closed[i] = null;
+    }
+    closedCount = 0;
+  }
+
+  private static void closeQuietly(SelectionKey key) {
+    closeQuietly(key.channel());
+  }
+
+  private static void closeQuietly(Channel channel) {
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+      // Already shutting down.
+    }
+  }
+}
@@ -0,0 +1,119 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+
+// Writes a 35=8 through a FixEncoder; the counterpart of the generated
+// FixExecutionReport. Fields are emitted in call order between begin() and
+// end(). Quantities are integers and prices mantissa/scale pairs, as the
+// decoders report them.
+public final class FixExecutionReportEncoder {
+  private final FixEncoder encoder;
+
+  public FixExecutionReportEncoder(FixEncoder encoder) {
+    this.encoder = encoder;
+  }
+
+  public FixExecutionReportEncoder begin(MemorySegment buffer, long offset, int msgSeqNum, long sendingTimeNanos) {
+    encoder.begin(buffer, offset, (byte) '8', msgSeqNum, sendingTimeNanos);
+    return this;
+  }
+
+  public FixExecutionReportEncoder orderId(byte[] value) {
+    encoder.field(37, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder orderId(MemorySegment buffer, long offset, int length) {
+    encoder.field(37, buffer, offset, length);
+    return this;
+  }
+
+  public FixExecutionReportEncoder clOrdId(byte[] value) {
+    encoder.field(11, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder clOrdId(MemorySegment buffer, long offset, int length) {
+    encoder.field(11, buffer, offset, length);
+    return this;
+  }
+
+  public FixExecutionReportEncoder execId(byte[] value) {
+    encoder.field(17, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder execId(MemorySegment buffer, long offset, int length) {
+    encoder.field(17, buffer, offset, length);
+    return this;
+  }
+
+  public FixExecutionReportEncoder execType(byte value) {
+    encoder.field(150, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder ordStatus(byte value) {
+    encoder.field(39, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder symbol(byte[] value) {
+    encoder.field(55, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder symbol(MemorySegment buffer, long offset, int length) {
+    encoder.field(55, buffer, offset, length);
+    return this;
+  }
+
+  public FixExecutionReportEncoder side(byte value) {
+    encoder.field(54, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder orderQty(long value) {
+    encoder.field(38, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder price(long mantissa, int scale) {
+    encoder.decimal(44, mantissa, scale);
+    return this;
+  }
+
+  public FixExecutionReportEncoder lastShares(long value) {
+    encoder.field(32, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder lastPx(long mantissa, int scale) {
+    encoder.decimal(31, mantissa, scale);
+    return this;
+  }
+
+  public FixExecutionReportEncoder leavesQty(long value) {
+    encoder.field(151, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder cumQty(long value) {
+    encoder.field(14, value);
+    return this;
+  }
+
+  public FixExecutionReportEncoder avgPx(long mantissa, int scale) {
+    encoder.decimal(6, mantissa, scale);
+    return this;
+  }
+
+  public FixExecutionReportEncoder transactTime(long epochNanos) {
+    encoder.timestamp(60, epochNanos);
+    return this;
+  }
+
+  public int end() {
+    return encoder.end();
+  }
+}
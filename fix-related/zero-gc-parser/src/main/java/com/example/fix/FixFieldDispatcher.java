@@ -0,0 +1,81 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+import java.util.ArrayList;
+import java.util.List;
+
+// Routes fields that a parser does not decode itself (custom 5000-9999 tags,
+// repeating-group members, anything outside its switch) to handlers registered
+// at startup. Lookup goes through a FixTagTable, so the cost is the same for
+// tag 58 and tag 9876. Unregistered tags reach the unknown handler, which
+// ignores them by default.
+public final class FixFieldDispatcher {
+  public interface FieldHandler {
+    void onField(int tag, MemorySegment buffer, long valueOffset, int valueLength);
+  }
+
+  private static final FieldHandler IGNORE = (tag, buffer, valueOffset, valueLength) -> {
+  };
+
+  private final FixTagTable table;
+  private final FieldHandler[] handlers;
+
+  private FixFieldDispatcher(FixTagTable table, FieldHandler[] handlers) {
+    this.table = table;
+    this.handlers = handlers;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  // valueOffset is absolute within buffer.
+  public void dispatch(int tag, MemorySegment buffer, long valueOffset, int valueLength) {
+    handlers[table.slot(tag)].onField(tag, buffer, valueOffset, valueLength);
+  }
+
+  public boolean registered(int tag) {
+    return table.slot(tag) != 0;
+  }
+
+  public FixTagTable table() {
+    return table;
+  }
+
+  public static final class Builder {
+    private final List<Integer> tags = new ArrayList<>();
+    private final List<FieldHandler> handlers = new ArrayList<>();
+    private FieldHandler unknown = IGNORE;
+
+    private Builder() {
+    }
+
+    public Builder on(int tag, FieldHandler handler) {
+      if (handler == null) {
+        throw new IllegalArgumentException("handler");
+      }
+      tags.add(tag);
+      handlers.add(handler);
+      return this;
+    }
+
+    public Builder onUnknown(FieldHandler handler) {
+      if (handler == null) {
+        throw new IllegalArgumentException("handler");
+      }
+      unknown = handler;
+      return this;
+    }
+
+    public FixFieldDispatcher build() {
+      int[] tagArray = new int[tags.size()];
+      FieldHandler[] handlerArray = new FieldHandler[tags.size() + 1];
+      handlerArray[0] = unknown;
+      for (int i = 0; i < tagArray.length; i++) {
+        tagArray[i] = tags.get(i);
+        handlerArray[i + 1] = handlers.get(i);
+      }
+      return new FixFieldDispatcher(new FixTagTable(tagArray), handlerArray);
+    }
+  }
+}
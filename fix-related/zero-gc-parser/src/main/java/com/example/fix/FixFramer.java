@@ -0,0 +1,342 @@
+package com.example.fix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// Turns an arbitrary sequence of reads (e.g. TCP segments) into complete FIX
+// messages. Bytes are appended to a reusable off-heap buffer; each message is
+// sized from its BodyLength (9=) so the framer jumps straight to the 10=
+// trailer instead of scanning the body. All resume state is primitive, so a
+// message split across any number of reads is never rescanned from its start.
+//
+// The buffer behaves as a ring that wraps by compaction: once the tail runs
+// low on space the unconsumed bytes (at most one partial message) are moved
+// back to the front. Emitted messages are therefore always contiguous and can
+// be parsed in place with FixNewOrderSingleParser.parse(buffer, offset,
+// length, out). The range is only valid until the handler returns.
+//
+// If the trailer is not where 9= says it is (bad BodyLength), the framer falls
+// back to scanning for <SOH>10= and still emits the message so validation can
+// reject it. Bytes that cannot start a message are skipped and counted.
+public final class FixFramer implements AutoCloseable {
+  @FunctionalInterface
+  public interface MessageHandler {
+    void onMessage(MemorySegment buffer, long offset, int length);
+  }
+
+  private static final byte SOH = 1;
+  private static final int TRAILER_LENGTH = 7; // 10=NNN<SOH>
+  private static final int MAX_BODY_LENGTH_DIGITS = 9;
+
+  private static final int S_START = 0;
+  private static final int S_BEGIN_STRING = 1;
+  private static final int S_BODY_LENGTH_TAG = 2;
+  private static final int S_BODY_LENGTH = 3;
+  private static final int S_BODY = 4;
+  private static final int S_TRAILER_SCAN = 5;
+
+  private final Arena arena;
+  private final MemorySegment buffer;
+  private final long capacity;
+  private final long compactThreshold;
+  private final MessageHandler handler;
+  private final FixStageTimers timers;
+
+  private long readPosition;
+  private long writePosition;
+
+  private int state = S_START;
+  private long scanPosition;
+  private long bodyStart;
+  private long messageEnd;
+  private int bodyLength;
+  private int bodyLengthDigits;
+
+  private long messages;
+  private long discardedBytes;
+
+  // Framing time of the message in progress, across reads; see frame().
+  private long framingNanos;
+  private long framingMark;
+
+  public FixFramer(int capacity, MessageHandler handler) {
+    this(capacity, handler, null);
+  }
+
+  // With timers (and FixStageTimers.ENABLED), the time spent finding each
+  // message is recorded as Stage.FRAMING; the handler's time is not included.
+  public FixFramer(int capacity, MessageHandler handler, FixStageTimers timers) {
+    if (capacity < 64) {
+      throw new IllegalArgumentException("capacity must be at least 64 bytes");
+    }
+    this.arena = Arena.ofShared();
+    this.buffer = arena.allocate(capacity, 64);
+    this.capacity = capacity;
+    this.compactThreshold = capacity >>> 3;
+    this.handler = handler;
+    this.timers = timers;
+  }
+
+  // Frames into a caller-owned buffer, e.g. one from a FixBufferPool.
+  // close() leaves the buffer alone.
+  public FixFramer(MemorySegment buffer, MessageHandler handler) {
+    this(buffer, handler, null);
+  }
+
+  public FixFramer(MemorySegment buffer, MessageHandler handler, FixStageTimers timers) {
+    if (buffer.byteSize() < 64) {
+      throw new IllegalArgumentException("capacity must be at least 64 bytes");
+    }
+    this.arena = null;
+    this.buffer = buffer;
+    this.capacity = buffer.byteSize();
+    this.compactThreshold = capacity >>> 3;
+    this.handler = handler;
+    this.timers = timers;
+  }
+
+  // Copies a chunk into the buffer and emits every message it completes.
+  public void onData(MemorySegment source, long offset, long length) {
+    while (length > 0) {
+      long n = Math.min(prepareWrite(), length);
+      MemorySegment.copy(source, offset, buffer, writePosition, n);
+      offset += n;
+      length -= n;
+      commit(n);
+    }
+  }
+
+  // Zero-copy path: make room, let the caller write up to the returned number
+  // of bytes at buffer().asSlice(writePosition()), then commit them.
+  public long prepareWrite() {
+    if (readPosition == writePosition) {
+      readPosition = 0;
+      writePosition = 0;
+    } else if (capacity - writePosition < compactThreshold) {
+      compact();
+    }
+    if (writePosition == capacity) {
+      // A single incomplete message fills the whole buffer: drop it and resync.
+      discardedBytes += writePosition - readPosition;
+      readPosition = 0;
+      writePosition = 0;
+      state = S_START;
+    }
+    return capacity - writePosition;
+  }
+
+  public void commit(long length) {
+    writePosition += length;
+    if (FixStageTimers.ENABLED && timers != null) {
+      framingMark = System.nanoTime();
+      frame();
+      framingNanos += System.nanoTime() - framingMark;
+    } else {
+      frame();
+    }
+  }
+
+  public MemorySegment buffer() {
+    return buffer;
+  }
+
+  public long writePosition() {
+    return writePosition;
+  }
+
+  public long bufferedBytes() {
+    return writePosition - readPosition;
+  }
+
+  public long messages() {
+    return messages;
+  }
+
+  public long discardedBytes() {
+    return discardedBytes;
+  }
+
+  public void reset() {
+    readPosition = 0;
+    writePosition = 0;
+    state = S_START;
+    framingNanos = 0;
+  }
+
+  @Override
+  public void close() {
+    if (arena != null) {
+      arena.close();
+    }
+  }
+
+  private void frame() {
+    while (true) {
+      switch (state) {
+        case S_START -> {
+          long p = readPosition;
+          while (p < writePosition && byteAt(p) != '8') {
+            p++;
+          }
+          discardedBytes += p - readPosition;
+          readPosition = p;
+          if (p + 2 > writePosition) {
+            return;
+          }
+          if (byteAt(p + 1) != '=') {
+            skipByte();
+            continue;
+          }
+          scanPosition = p + 2;
+          state = S_BEGIN_STRING;
+        }
+        case S_BEGIN_STRING -> {
+          long soh = FixFraming.indexOfSoh(buffer, scanPosition, writePosition);
+          if (soh < 0) {
+            scanPosition = writePosition;
+            return;
+          }
+          scanPosition = soh + 1;
+          state = S_BODY_LENGTH_TAG;
+        }
+        case S_BODY_LENGTH_TAG -> {
+          if (scanPosition + 2 > writePosition) {
+            return;
+          }
+          if (byteAt(scanPosition) != '9' || byteAt(scanPosition + 1) != '=') {
+            skipByte();
+            continue;
+          }
+          scanPosition += 2;
+          bodyLength = 0;
+          bodyLengthDigits = 0;
+          state = S_BODY_LENGTH;
+        }
+        case S_BODY_LENGTH -> {
+          if (!scanBodyLength()) {
+            return;
+          }
+        }
+        case S_BODY -> {
+          if (writePosition < messageEnd) {
+            return;
+          }
+          if (isTrailerAt(messageEnd - TRAILER_LENGTH)) {
+            emit(messageEnd);
+          } else {
+            scanPosition = bodyStart - 1;
+            state = S_TRAILER_SCAN;
+          }
+        }
+        case S_TRAILER_SCAN -> {
+          if (!scanTrailer()) {
+            return;
+          }
+        }
+        default -> throw new IllegalStateException("Unknown framer state " + state);
+      }
+    }
+  }
+
+  // Returns false when more bytes are needed.
+  private boolean scanBodyLength() {
+    while (scanPosition < writePosition) {
+      byte b = byteAt(scanPosition++);
+      if (b == SOH) {
+        if (bodyLengthDigits == 0) {
+          skipByte();
+          return true;
+        }
+        bodyStart = scanPosition;
+        messageEnd = bodyStart + bodyLength + TRAILER_LENGTH;
+        if (messageEnd - readPosition > capacity) {
+          scanPosition = bodyStart - 1;
+          state = S_TRAILER_SCAN;
+        } else {
+          state = S_BODY;
+        }
+        return true;
+      }
+      int digit = b - '0';
+      if (digit < 0 || digit > 9 || ++bodyLengthDigits > MAX_BODY_LENGTH_DIGITS) {
+        skipByte();
+        return true;
+      }
+      bodyLength = bodyLength * 10 + digit;
+    }
+    return false;
+  }
+
+  // Looks for <SOH>10=...<SOH> from scanPosition. Returns false when more
+  // bytes are needed; scanPosition is left on the last candidate SOH.
+  private boolean scanTrailer() {
+    while (true) {
+      long soh = FixFraming.indexOfSoh(buffer, scanPosition, writePosition);
+      if (soh < 0) {
+        scanPosition = writePosition;
+        return false;
+      }
+      scanPosition = soh;
+      if (soh + 4 > writePosition) {
+        return false;
+      }
+      if (buffer.get(FixFraming.INT_LE, soh) == FixFraming.SOH_CHECKSUM_TAG) {
+        long end = FixFraming.indexOfSoh(buffer, soh + 4, writePosition);
+        if (end < 0) {
+          return false;
+        }
+        emit(end + 1);
+        return true;
+      }
+      scanPosition = soh + 1;
+    }
+  }
+
+  private boolean isTrailerAt(long trailerStart) {
+    return buffer.get(FixFraming.INT_LE, trailerStart - 1) == FixFraming.SOH_CHECKSUM_TAG
+        && byteAt(messageEnd - 1) == SOH;
+  }
+
+  private void emit(long end) {
+    long start = readPosition;
+    readPosition = end;
+    state = S_START;
+    messages++;
+    if (FixStageTimers.ENABLED && timers != null) {
+      timers.record(FixStageTimers.Stage.FRAMING, framingNanos + System.nanoTime() - framingMark);
+      framingNanos = 0;
+      handler.onMessage(buffer, start, (int) (end - start));
+      framingMark = System.nanoTime();
+    } else {
+      handler.onMessage(buffer, start, (int) (end - start));
+    }
+  }
+
+  private void skipByte() {
+    readPosition++;
+    discardedBytes++;
+    state = S_START;
+  }
+
+  private void compact() {
+    long shift = readPosition;
+    if (shift == 0) {
+      return;
+    }
+    MemorySegment.copy(buffer, shift, buffer, 0, writePosition - shift);
+    readPosition = 0;
+    writePosition -= shift;
+    rebase(shift);
+  }
+
+  private void rebase(long shift) {
+    scanPosition -= shift;
+    bodyStart -= shift;
+    messageEnd -= shift;
+  }
+
+  private byte byteAt(long offset) {
+    return buffer.get(ValueLayout.JAVA_BYTE, offset);
+  }
+}
@@ -0,0 +1,137 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+final class FixFraming {
+  static final byte SOH = 1;
+
+  private static final ValueLayout.OfLong LONG_LE =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  static final ValueLayout.OfInt INT_LE =
+      ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  private static final long SOH_PATTERN = 0x0101010101010101L;
+  private static final long HIGH_BITS = 0x8080808080808080L;
+
+  // "<SOH>10=" read as a little-endian int.
+  static final int SOH_CHECKSUM_TAG = SOH | '1' << 8 | '0' << 16 | '=' << 24;
+
+  private FixFraming() {
+  }
+
+  static long findMessageStart(MemorySegment buffer, long from, long limit) {
+    for (long p = from; p + 1 < limit; p++) {
+      if (buffer.get(ValueLayout.JAVA_BYTE, p) == '8'
+          && buffer.get(ValueLayout.JAVA_BYTE, p + 1) == '=') {
+        return p;
+      }
+    }
+    return -1;
+  }
+
+  // Returns the offset just past the SOH that ends the 10= trailer, or -1 when
+  // the trailer is not complete before limit.
+  static long findMessageEnd(MemorySegment buffer, long from, long limit) {
+    long p = from;
+    while (true) {
+      long soh = indexOfSoh(buffer, p, limit);
+      if (soh < 0 || soh + 4 > limit) {
+        return -1;
+      }
+      if (buffer.get(INT_LE, soh) == SOH_CHECKSUM_TAG) {
+        long end = indexOfSoh(buffer, soh + 4, limit);
+        return end < 0 ? -1 : end + 1;
+      }
+      p = soh + 1;
+    }
+  }
+
+  // MsgType (35) is always the third field, right after 8= and 9=. Returns its
+  // single-byte value, or 0 when the header is malformed or the type is longer.
+  static byte peekMsgType(MemorySegment buffer, long offset, int length) {
+    long limit = offset + length;
+    long soh = indexOfSoh(buffer, offset, limit);
+    if (soh < 0) {
+      return 0;
+    }
+    soh = indexOfSoh(buffer, soh + 1, limit);
+    if (soh < 0 || soh + 5 >= limit) {
+      return 0;
+    }
+    if (buffer.get(ValueLayout.JAVA_BYTE, soh + 1) != '3'
+        || buffer.get(ValueLayout.JAVA_BYTE, soh + 2) != '5'
+        || buffer.get(ValueLayout.JAVA_BYTE, soh + 3) != '='
+        || buffer.get(ValueLayout.JAVA_BYTE, soh + 5) != SOH) {
+      return 0;
+    }
+    return buffer.get(ValueLayout.JAVA_BYTE, soh + 4);
+  }
+
+  // MsgSeqNum (34) of any message type, or -1 when the field is missing or
+  // malformed. It is a header field but its position varies, so the fields
+  // are walked from the start until 34= turns up.
+  static int peekMsgSeqNum(MemorySegment buffer, long offset, int length) {
+    long limit = offset + length;
+    long p = offset;
+    while (p + 3 < limit) {
+      if (buffer.get(ValueLayout.JAVA_BYTE, p) == '3'
+          && buffer.get(ValueLayout.JAVA_BYTE, p + 1) == '4'
+          && buffer.get(ValueLayout.JAVA_BYTE, p + 2) == '=') {
+        long end = indexOfSoh(buffer, p + 3, limit);
+        return end < 0 ? -1 : FixDecoding.parseInt(buffer, p + 3, end);
+      }
+      long soh = indexOfSoh(buffer, p, limit);
+      if (soh < 0) {
+        return -1;
+      }
+      p = soh + 1;
+    }
+    return -1;
+  }
+
+  static long indexOfSoh(MemorySegment buffer, long from, long limit) {
+    long p = from;
+    while (p + 8 <= limit) {
+      long match = swarMatchSoh(buffer.get(LONG_LE, p));
+      if (match != 0) {
+        return p + (Long.numberOfTrailingZeros(match) >>> 3);
+      }
+      p += 8;
+    }
+    while (p < limit) {
+      if (buffer.get(ValueLayout.JAVA_BYTE, p) == SOH) {
+        return p;
+      }
+      p++;
+    }
+    return -1;
+  }
+
+  // Same search for any byte, e.g. the newlines between messages of a capture.
+  static long indexOf(MemorySegment buffer, long from, long limit, byte value) {
+    long pattern = (value & 0xFFL) * SOH_PATTERN;
+    long p = from;
+    while (p + 8 <= limit) {
+      long input = buffer.get(LONG_LE, p) ^ pattern;
+      long match = (input - SOH_PATTERN) & ~input & HIGH_BITS;
+      if (match != 0) {
+        return p + (Long.numberOfTrailingZeros(match) >>> 3);
+      }
+      p += 8;
+    }
+    while (p < limit) {
+      if (buffer.get(ValueLayout.JAVA_BYTE, p) == value) {
+        return p;
+      }
+      p++;
+    }
+    return -1;
+  }
+
+  static long swarMatchSoh(long word) {
+    long input = word ^ SOH_PATTERN;
+    return (input - SOH_PATTERN) & ~input & HIGH_BITS;
+  }
+}
@@ -0,0 +1,311 @@
+package com.example.fix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// Repeating groups of one parsed message, recorded as offsets instead of
+// objects. Attach an index to a FixNewOrderSingle and the parser routes the
+// NumInGroup tag and the member tags of every registered Group here:
+//
+//   NoPartyIDs (453)  PartyID (448), PartyIDSource (447), PartyRole (452)
+//   NoAllocs (78)     AllocAccount (79), AllocShares (80)
+//
+// Each member's (offset, length) goes into a fixed off-heap slot for its
+// entry, so recording a field is a table lookup and two int stores, and parse
+// time grows linearly with the number of entries. The first member tag
+// (448, 79) starts a new entry, as in FIX. Read entries back through the
+// group's Cursor, which is preallocated and reused for every message.
+//
+// At most maxEntries entries per group are kept. More entries than that,
+// more than NumInGroup declared, a member before the first delimiter or
+// twice in one entry, a second NumInGroup for the same group, or fewer
+// entries than declared make the parser reject the message. Nested groups
+// (e.g. PartySubIDs) are not decoded; their tags go to the parser's
+// FixFieldDispatcher like any other unhandled tag.
+//
+// Single-threaded, like the FixNewOrderSingle it is attached to.
+public final class FixGroupIndex implements AutoCloseable {
+  // A NumInGroup tag and the tags of one entry; the first member is the
+  // delimiter that starts each entry.
+  public record Group(int countTag, int... memberTags) {
+    public Group {
+      if (memberTags.length == 0) {
+        throw new IllegalArgumentException("A group needs at least one member tag");
+      }
+      memberTags = memberTags.clone();
+    }
+  }
+
+  public static final Group PARTIES = new Group(453, 448, 447, 452);
+  public static final Group ALLOCS = new Group(78, 79, 80);
+
+  // Returned by onField.
+  static final int NOT_GROUP = 0;
+  static final int ACCEPTED = 1;
+  static final int REJECTED = -1;
+
+  private static final int SLOT_BYTES = 8;
+  private static final long LENGTH_OFFSET = 4;
+  private static final int COUNT_TAG = -1;
+
+  private final Group[] groups;
+  private final int maxEntries;
+  private final FixTagTable tags;
+  // Per FixTagTable slot: the group and member index (COUNT_TAG for NumInGroup).
+  private final int[] slotGroup;
+  private final int[] slotMember;
+  private final long[] groupBase;
+  private final int[] entryBytes;
+  private final int[] declared;
+  private final int[] entries;
+  private final Cursor[] cursors;
+
+  private final Arena arena;
+  private final MemorySegment slots;
+
+  private MemorySegment buffer;
+  private long baseOffset;
+  private int rejectReason;
+
+  public FixGroupIndex(int maxEntries) {
+    this(maxEntries, PARTIES, ALLOCS);
+  }
+
+  public FixGroupIndex(int maxEntries, Group... groups) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.groups = groups.clone();
+    this.maxEntries = maxEntries;
+
+    int tagCount = 0;
+    for (Group group : groups) {
+      tagCount += 1 + group.memberTags().length;
+    }
+    int[] tagArray = new int[tagCount];
+    this.slotGroup = new int[tagCount + 1];
+    this.slotMember = new int[tagCount + 1];
+    this.groupBase = new long[groups.length];
+    this.entryBytes = new int[groups.length];
+    long size = 0;
+    int t = 0;
+    for (int g = 0; g < groups.length; g++) {
+      int[] members = groups[g].memberTags();
+      tagArray[t] = groups[g].countTag();
+      slotGroup[t + 1] = g;
+      slotMember[t + 1] = COUNT_TAG;
+      t++;
+      for (int m = 0; m < members.length; m++) {
+        tagArray[t] = members[m];
+        slotGroup[t + 1] = g;
+        slotMember[t + 1] = m;
+        t++;
+      }
+      groupBase[g] = size;
+      entryBytes[g] = members.length * SLOT_BYTES;
+      size += (long) maxEntries * entryBytes[g];
+    }
+    // Throws on a tag registered twice, also across groups.
+    this.tags = new FixTagTable(tagArray);
+
+    this.declared = new int[groups.length];
+    this.entries = new int[groups.length];
+    this.cursors = new Cursor[groups.length];
+    for (int g = 0; g < groups.length; g++) {
+      cursors[g] = new Cursor(g);
+    }
+    this.arena = Arena.ofShared();
+    this.slots = arena.allocate(size, 64);
+    clear(null, 0);
+  }
+
+  // The reusable cursor over the given group's entries in the last parsed
+  // message. Throws IllegalArgumentException for a group this index was not
+  // built with.
+  public Cursor cursor(Group group) {
+    for (int g = 0; g < groups.length; g++) {
+      if (groups[g] == group) {
+        return cursors[g].rewind();
+      }
+    }
+    throw new IllegalArgumentException("Group " + group.countTag() + " is not indexed");
+  }
+
+  public int maxEntries() {
+    return maxEntries;
+  }
+
+  @Override
+  public void close() {
+    arena.close();
+  }
+
+  // Called from FixNewOrderSingle.reset for every message.
+  void clear(MemorySegment buffer, long baseOffset) {
+    this.buffer = buffer;
+    this.baseOffset = baseOffset;
+    for (int g = 0; g < groups.length; g++) {
+      declared[g] = -1;
+      entries[g] = 0;
+    }
+  }
+
+  // valueStart and valueEnd are relative to the message base.
+  int onField(int tag, int valueStart, int valueEnd) {
+    int slot = tags.slot(tag);
+    if (slot == 0) {
+      return NOT_GROUP;
+    }
+    int g = slotGroup[slot];
+    int member = slotMember[slot];
+    if (member == COUNT_TAG) {
+      if (declared[g] >= 0) {
+        return reject(FixRejectReason.TAG_APPEARS_MORE_THAN_ONCE);
+      }
+      int count = FixDecoding.parseInt(buffer, baseOffset + valueStart, baseOffset + valueEnd);
+      if (count < 0) {
+        return reject(FixRejectReason.INCORRECT_DATA_FORMAT);
+      }
+      if (count > maxEntries) {
+        return reject(FixRejectReason.INCORRECT_NUM_IN_GROUP_COUNT);
+      }
+      declared[g] = count;
+      return ACCEPTED;
+    }
+
+    int entry = entries[g];
+    if (member == 0) {
+      if (declared[g] < 0 || entry == declared[g]) {
+        return reject(FixRejectReason.INCORRECT_NUM_IN_GROUP_COUNT);
+      }
+      entries[g] = ++entry;
+      long at = entryAt(g, entry - 1);
+      for (long p = at; p < at + entryBytes[g]; p += SLOT_BYTES) {
+        slots.set(ValueLayout.JAVA_INT, p, -1);
+      }
+    } else if (entry == 0) {
+      return reject(FixRejectReason.REPEATING_GROUP_FIELDS_OUT_OF_ORDER);
+    }
+    long at = entryAt(g, entry - 1) + (long) member * SLOT_BYTES;
+    if (slots.get(ValueLayout.JAVA_INT, at) >= 0) {
+      return reject(FixRejectReason.REPEATING_GROUP_FIELDS_OUT_OF_ORDER);
+    }
+    slots.set(ValueLayout.JAVA_INT, at, valueStart);
+    slots.set(ValueLayout.JAVA_INT, at + LENGTH_OFFSET, valueEnd - valueStart);
+    return ACCEPTED;
+  }
+
+  // The FixRejectReason code behind the last REJECTED from onField.
+  int rejectReason() {
+    return rejectReason;
+  }
+
+  // 0 when every group that declared a NumInGroup got that many entries,
+  // otherwise the NumInGroup tag of the first group that did not.
+  int incomplete() {
+    for (int g = 0; g < groups.length; g++) {
+      if (declared[g] > 0 && entries[g] != declared[g]) {
+        return groups[g].countTag();
+      }
+    }
+    return 0;
+  }
+
+  private int reject(int reason) {
+    rejectReason = reason;
+    return REJECTED;
+  }
+
+  private long entryAt(int g, int entry) {
+    return groupBase[g] + (long) entry * entryBytes[g];
+  }
+
+  // Iterates one group's entries of the last parsed message:
+  //
+  //   FixGroupIndex.Cursor parties = groups.cursor(FixGroupIndex.PARTIES);
+  //   while (parties.next()) {
+  //     long id = parties.valueOffset(448);
+  //     int role = parties.intValue(452);
+  //   }
+  //
+  // Offsets are absolute within buffer(). Values are only valid until the
+  // next message is parsed.
+  public final class Cursor {
+    private final int group;
+    private int entry = -1;
+
+    private Cursor(int group) {
+      this.group = group;
+    }
+
+    public Cursor rewind() {
+      entry = -1;
+      return this;
+    }
+
+    public boolean next() {
+      if (entry + 1 >= entries[group]) {
+        return false;
+      }
+      entry++;
+      return true;
+    }
+
+    // Entries recorded for the message; NumInGroup once parse succeeded.
+    public int count() {
+      return entries[group];
+    }
+
+    public MemorySegment buffer() {
+      return buffer;
+    }
+
+    public boolean present(int tag) {
+      return relativeOffset(tag) >= 0;
+    }
+
+    // -1 when the current entry does not carry the tag.
+    public long valueOffset(int tag) {
+      int offset = relativeOffset(tag);
+      return offset < 0 ? -1 : baseOffset + offset;
+    }
+
+    public int valueLength(int tag) {
+      return relativeOffset(tag) < 0 ? 0 : slots.get(ValueLayout.JAVA_INT, slotAt(tag) + LENGTH_OFFSET);
+    }
+
+    // First byte of a single-character value such as PartyIDSource (447);
+    // 0 when absent.
+    public byte byteValue(int tag) {
+      long offset = valueOffset(tag);
+      return offset < 0 ? 0 : FixDecoding.getByte(buffer, offset);
+    }
+
+    // -1 when absent or not a non-negative integer.
+    public int intValue(int tag) {
+      long offset = valueOffset(tag);
+      return offset < 0 ? -1 : FixDecoding.parseInt(buffer, offset, offset + valueLength(tag));
+    }
+
+    public long longValue(int tag) {
+      long offset = valueOffset(tag);
+      return offset < 0 ? -1 : FixDecoding.parseLong(buffer, offset, offset + valueLength(tag));
+    }
+
+    private int relativeOffset(int tag) {
+      if (entry < 0 || entry >= entries[group]) {
+        throw new IllegalStateException("Cursor is not on an entry");
+      }
+      return slots.get(ValueLayout.JAVA_INT, slotAt(tag));
+    }
+
+    private long slotAt(int tag) {
+      int slot = tags.slot(tag);
+      if (slot == 0 || slotGroup[slot] != group || slotMember[slot] == COUNT_TAG) {
+        throw new IllegalArgumentException("Tag " + tag + " is not a member of group " + groups[group].countTag());
+      }
+      return entryAt(group, entry) + (long) slotMember[slot] * SLOT_BYTES;
+    }
+  }
+}
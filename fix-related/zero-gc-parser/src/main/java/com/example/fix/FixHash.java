@@ -0,0 +1,62 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+// 64-bit hash over a byte range of a segment, for keying off-heap tables
+// directly on field bytes (ClOrdID, Symbol, ...) without building a String.
+// Consumes 8 bytes per step; the tail is read as one masked word whenever the
+// segment has room behind the value, which it always does for a field that is
+// followed by its SOH.
+public final class FixHash {
+  private static final ValueLayout.OfLong LONG_LE =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  private static final long PRIME_1 = 0x9E3779B185EBCA87L;
+  private static final long PRIME_2 = 0xC2B2AE3D27D4EB4FL;
+  private static final long PRIME_3 = 0x165667B19E3779F9L;
+
+  private FixHash() {
+  }
+
+  public static long hash(MemorySegment buffer, long offset, int length) {
+    long h = PRIME_3 + length * PRIME_1;
+    long p = offset;
+    long end = offset + length;
+    while (p + 8 <= end) {
+      h = mix(h, buffer.get(LONG_LE, p));
+      p += 8;
+    }
+    int tail = (int) (end - p);
+    if (tail > 0) {
+      h = mix(h, tailWord(buffer, p, tail));
+    }
+    return avalanche(h);
+  }
+
+  static long tailWord(MemorySegment buffer, long offset, int tail) {
+    if (offset + 8 <= buffer.byteSize()) {
+      return buffer.get(LONG_LE, offset) & (-1L >>> ((8 - tail) << 3));
+    }
+    long word = 0;
+    for (int i = 0; i < tail; i++) {
+      word |= (buffer.get(ValueLayout.JAVA_BYTE, offset + i) & 0xFFL) << (i << 3);
+    }
+    return word;
+  }
+
+  private static long mix(long h, long word) {
+    h ^= Long.rotateLeft(word * PRIME_2, 31) * PRIME_1;
+    return Long.rotateLeft(h, 27) * PRIME_1 + PRIME_3;
+  }
+
+  private static long avalanche(long h) {
+    h ^= h >>> 33;
+    h *= 0xFF51AFD7ED558CCDL;
+    h ^= h >>> 33;
+    h *= 0xC4CEB9FE1A85EC53L;
+    h ^= h >>> 33;
+    return h;
+  }
+}
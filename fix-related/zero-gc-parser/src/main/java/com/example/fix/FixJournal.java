@@ -0,0 +1,379 @@
+package com.example.fix;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+// Append-only journal of raw FIX messages for ResendRequest (35=2) handling
+// and audit, one per session and direction. Messages are copied into
+// pre-sized segment files mapped with FileChannel.map; a message that does not
+// fit in the rest of a segment starts the next one. Each record is
+//
+//   int length | int MsgSeqNum | message bytes | padding to 8 bytes
+//
+// and a zero length marks the end of a segment's data (new files read as
+// zeros).
+//
+// A sidecar index file maps MsgSeqNum (34) to the record's journal position
+// (segment * segmentSize + offset) as one long per sequence number, so finding
+// any message, and so the start of a resend range, is a single load. Sequence
+// numbers must lie in 1..maxSeqNum; a number appended twice (e.g. after a
+// SequenceReset) points at its latest record.
+//
+// append never forces the mappings to disk. With a flush interval a daemon
+// thread msyncs what was appended since its last pass; with 0 writeback is
+// left to the OS and only close() forces. A crash can therefore lose the
+// last interval's messages. Reopening scans the last segment, re-indexes
+// every complete record, drops index entries past the last one and zeroes
+// the rest of the segment; records before it are kept. The OS may write
+// pages back in any order, so what survives is only as good as the last
+// flush. A lookup also checks the MsgSeqNum in the record header, so a lost
+// message reads as missing rather than as whatever was appended over it.
+//
+// One thread appends. replay can run on other threads for sequence numbers
+// whose append has returned: the index entry is published with a release
+// store after the record bytes.
+public final class FixJournal implements AutoCloseable {
+  private static final String INDEX_FILE = "journal.idx";
+  private static final String SEGMENT_PREFIX = "journal-";
+  private static final String SEGMENT_SUFFIX = ".seg";
+  private static final int HEADER_BYTES = 8;
+  private static final long MIN_SEGMENT_SIZE = 64 * 1024;
+
+  // Stored in the index; a fresh index file reads as NO_ENTRY everywhere.
+  private static final long NO_ENTRY = 0;
+
+  private static final VarHandle LONG_HANDLE = ValueLayout.JAVA_LONG.varHandle();
+
+  private final Path directory;
+  private final long segmentSize;
+  private final int maxSeqNum;
+  private final Arena arena;
+  private final MemorySegment index;
+  private final Thread flusher;
+
+  // Replaced, never modified, when a segment is added, so replay and the
+  // flusher can read it without locking.
+  private volatile MemorySegment[] segments;
+  private volatile boolean running = true;
+  private volatile Throwable failure;
+
+  // Journal position just past the last record, published after the record
+  // and its index entry.
+  private volatile long position;
+  private long flushedPosition;
+  private long appended;
+
+  private FixJournal(Path directory, long segmentSize, int maxSeqNum, long flushIntervalMillis)
+      throws IOException {
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.maxSeqNum = maxSeqNum;
+    this.arena = Arena.ofShared();
+    try {
+      this.index = map(directory.resolve(INDEX_FILE), (maxSeqNum + 1L) * Long.BYTES);
+      this.segments = new MemorySegment[0];
+      recover();
+    } catch (IOException | RuntimeException e) {
+      arena.close();
+      throw e;
+    }
+    this.flushedPosition = position;
+    if (flushIntervalMillis > 0) {
+      long intervalNanos = flushIntervalMillis * 1_000_000L;
+      flusher = new Thread(() -> flushLoop(intervalNanos), "fix-journal-flush");
+      flusher.setDaemon(true);
+      flusher.start();
+    } else {
+      flusher = null;
+    }
+  }
+
+  // Opens the journal in directory, creating it if needed, and resumes after
+  // the last complete record. segmentSize is rounded up to a multiple of 8
+  // and must be at least 64 KiB; it has to match the size the journal was
+  // created with.
+  public static FixJournal open(Path directory, long segmentSize, int maxSeqNum, long flushIntervalMillis)
+      throws IOException {
+    if (segmentSize < MIN_SEGMENT_SIZE) {
+      throw new IllegalArgumentException("segmentSize must be at least " + MIN_SEGMENT_SIZE + " bytes");
+    }
+    if (maxSeqNum <= 0) {
+      throw new IllegalArgumentException("maxSeqNum must be positive");
+    }
+    if (flushIntervalMillis < 0) {
+      throw new IllegalArgumentException("flushIntervalMillis must not be negative");
+    }
+    Files.createDirectories(directory);
+    return new FixJournal(directory, (segmentSize + 7) & ~7L, maxSeqNum, flushIntervalMillis);
+  }
+
+  // Reopens an existing journal with the sizes it was created with and no
+  // flush thread, e.g. to replay it offline.
+  public static FixJournal open(Path directory) throws IOException {
+    Path first = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, 0, SEGMENT_SUFFIX));
+    Path index = directory.resolve(INDEX_FILE);
+    if (!Files.exists(first) || !Files.exists(index)) {
+      throw new IOException(directory + " does not contain a journal");
+    }
+    int maxSeqNum = (int) Math.min(Integer.MAX_VALUE, Files.size(index) / Long.BYTES - 1);
+    return open(directory, Files.size(first), maxSeqNum, 0);
+  }
+
+  // Appends a message under its own MsgSeqNum (34). Throws
+  // IllegalArgumentException when the message has none.
+  public long append(MemorySegment buffer, long offset, int length) {
+    int seqNum = FixFraming.peekMsgSeqNum(buffer, offset, length);
+    if (seqNum < 0) {
+      throw new IllegalArgumentException("Message has no MsgSeqNum (34)");
+    }
+    return append(seqNum, buffer, offset, length);
+  }
+
+  // Copies the message into the journal, indexes it under seqNum and returns
+  // its journal position. Throws IllegalArgumentException for a sequence
+  // number outside 1..maxSeqNum or a message larger than a segment.
+  public long append(int seqNum, MemorySegment buffer, long offset, int length) {
+    if (seqNum < 1 || seqNum > maxSeqNum) {
+      throw new IllegalArgumentException("MsgSeqNum " + seqNum + " outside 1.." + maxSeqNum);
+    }
+    long recordBytes = (HEADER_BYTES + length + 7L) & ~7L;
+    if (length <= 0 || recordBytes > segmentSize) {
+      throw new IllegalArgumentException("Message length " + length + " does not fit a segment");
+    }
+    if (failure != null) {
+      throw new IllegalStateException("Journal flush failed", failure);
+    }
+    long at = position;
+    long inSegment = at % segmentSize;
+    if (segmentSize - inSegment < recordBytes) {
+      // The rest of the segment stays zero, which reads as its end.
+      at += segmentSize - inSegment;
+      inSegment = 0;
+    }
+    int segmentIndex = (int) (at / segmentSize);
+    MemorySegment segment = segment(segmentIndex);
+
+    MemorySegment.copy(buffer, offset, segment, inSegment + HEADER_BYTES, length);
+    segment.set(ValueLayout.JAVA_INT, inSegment + 4, seqNum);
+    segment.set(ValueLayout.JAVA_INT, inSegment, length);
+    LONG_HANDLE.setRelease(index, (long) seqNum * Long.BYTES, at + 1);
+    position = at + recordBytes;
+    appended++;
+    return at;
+  }
+
+  // Journal position of the message with this MsgSeqNum, or -1. An entry
+  // whose record header names another MsgSeqNum reads as -1.
+  public long position(int seqNum) {
+    if (seqNum < 1 || seqNum > maxSeqNum) {
+      return -1;
+    }
+    long entry = (long) LONG_HANDLE.getAcquire(index, (long) seqNum * Long.BYTES);
+    if (entry == NO_ENTRY) {
+      return -1;
+    }
+    long at = entry - 1;
+    MemorySegment segment = segments[(int) (at / segmentSize)];
+    return segment.get(ValueLayout.JAVA_INT, at % segmentSize + 4) == seqNum ? at : -1;
+  }
+
+  public boolean contains(int seqNum) {
+    return position(seqNum) >= 0;
+  }
+
+  // Hands every journaled message with a MsgSeqNum in fromSeqNum..toSeqNum
+  // (inclusive; toSeqNum 0 means "to the end", as in ResendRequest's
+  // EndSeqNo) to handler in sequence order, in place in the mapping. Numbers
+  // never journaled are skipped; the caller fills those gaps with a
+  // SequenceReset-GapFill. Returns the number of messages delivered.
+  public int replay(int fromSeqNum, int toSeqNum, FixFramer.MessageHandler handler) {
+    int from = Math.max(1, fromSeqNum);
+    int to = toSeqNum == 0 ? maxSeqNum : Math.min(toSeqNum, maxSeqNum);
+    int delivered = 0;
+    for (int seqNum = from; seqNum <= to; seqNum++) {
+      long at = position(seqNum);
+      if (at < 0) {
+        continue;
+      }
+      MemorySegment segment = segments[(int) (at / segmentSize)];
+      long inSegment = at % segmentSize;
+      int length = segment.get(ValueLayout.JAVA_INT, inSegment);
+      handler.onMessage(segment, inSegment + HEADER_BYTES, length);
+      delivered++;
+    }
+    return delivered;
+  }
+
+  // Forces everything appended so far to disk. Called by the flush thread,
+  // and safe from any thread.
+  public synchronized void flush() {
+    long end = position;
+    MemorySegment[] mapped = segments;
+    long from = flushedPosition;
+    while (from < end) {
+      int segmentIndex = (int) (from / segmentSize);
+      long segmentEnd = Math.min(end, (segmentIndex + 1L) * segmentSize);
+      long inSegment = from % segmentSize;
+      mapped[segmentIndex].asSlice(inSegment, segmentEnd - from).force();
+      from = segmentEnd;
+    }
+    index.force();
+    flushedPosition = end;
+  }
+
+  public long appended() {
+    return appended;
+  }
+
+  public long position() {
+    return position;
+  }
+
+  public long segmentSize() {
+    return segmentSize;
+  }
+
+  public int segmentCount() {
+    return segments.length;
+  }
+
+  public int maxSeqNum() {
+    return maxSeqNum;
+  }
+
+  // Stops the flush thread, forces the rest to disk and unmaps the files.
+  @Override
+  public void close() {
+    running = false;
+    if (flusher != null) {
+      LockSupport.unpark(flusher);
+      try {
+        flusher.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    try {
+      flush();
+    } finally {
+      arena.close();
+    }
+  }
+
+  private void flushLoop(long intervalNanos) {
+    try {
+      while (running) {
+        LockSupport.parkNanos(intervalNanos);
+        if (running) {
+          flush();
+        }
+      }
+    } catch (Throwable t) {
+      failure = t;
+    }
+  }
+
+  private MemorySegment segment(int segmentIndex) {
+    MemorySegment[] mapped = segments;
+    if (segmentIndex < mapped.length) {
+      return mapped[segmentIndex];
+    }
+    try {
+      MemorySegment segment = map(segmentPath(segmentIndex), segmentSize);
+      MemorySegment[] grown = Arrays.copyOf(mapped, segmentIndex + 1);
+      grown[segmentIndex] = segment;
+      segments = grown;
+      return segment;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // Maps every existing segment and finds the end of the last one. Records of
+  // the last segment are indexed again, since the writer may have died
+  // between a record and its index entry. Index entries at or past the end
+  // point at records that were lost, so they are dropped. The bytes past the
+  // end are zeroed and forced, so a later, shorter append over them is never
+  // followed by stale bytes that the next recovery would read as records.
+  private void recover() throws IOException {
+    int count = 0;
+    while (Files.exists(segmentPath(count))) {
+      if (Files.size(segmentPath(count)) != segmentSize) {
+        throw new IOException(segmentPath(count) + " is not " + segmentSize + " bytes");
+      }
+      segment(count++);
+    }
+    if (count == 0) {
+      position = 0;
+      dropIndexEntries();
+      return;
+    }
+    int last = count - 1;
+    MemorySegment segment = segments[last];
+    long base = (long) last * segmentSize;
+    long p = 0;
+    while (p + HEADER_BYTES <= segmentSize) {
+      int length = segment.get(ValueLayout.JAVA_INT, p);
+      long recordBytes = (HEADER_BYTES + length + 7L) & ~7L;
+      if (length <= 0 || p + recordBytes > segmentSize) {
+        break;
+      }
+      int seqNum = segment.get(ValueLayout.JAVA_INT, p + 4);
+      if (seqNum >= 1 && seqNum <= maxSeqNum) {
+        index.set(ValueLayout.JAVA_LONG, (long) seqNum * Long.BYTES, base + p + 1);
+      }
+      p += recordBytes;
+    }
+    position = base + p;
+    dropIndexEntries();
+
+    long dirtyEnd = p;
+    for (long q = p; q < segmentSize; q += Long.BYTES) {
+      if (segment.get(ValueLayout.JAVA_LONG, q) != 0) {
+        dirtyEnd = q + Long.BYTES;
+      }
+    }
+    if (dirtyEnd > p) {
+      MemorySegment tail = segment.asSlice(p, dirtyEnd - p);
+      tail.fill((byte) 0);
+      tail.force();
+    }
+  }
+
+  // Clears the index entries at or past position and forces the index.
+  private void dropIndexEntries() {
+    for (long entry = Long.BYTES; entry < index.byteSize(); entry += Long.BYTES) {
+      long stored = index.get(ValueLayout.JAVA_LONG, entry);
+      if (stored != NO_ENTRY && stored - 1 >= position) {
+        index.set(ValueLayout.JAVA_LONG, entry, NO_ENTRY);
+      }
+    }
+    index.force();
+  }
+
+  private Path segmentPath(int segmentIndex) {
+    return directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, segmentIndex, SEGMENT_SUFFIX));
+  }
+
+  private MemorySegment map(Path path, long size) throws IOException {
+    try (FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      if (channel.size() < size) {
+        // Extending with a single byte at the end leaves a sparse file.
+        channel.write(ByteBuffer.wrap(new byte[1]), size - 1);
+      }
+      return channel.map(FileChannel.MapMode.READ_WRITE, 0, size, arena);
+    }
+  }
+}
@@ -6,6 +6,7 @@ public final class FixNewOrderSingle {
   static final byte SOH = 1;
 
   private MemorySegment buffer;
+  private long baseOffset;
 
   private byte msgType;
   private int msgSeqNum;
@@ -19,6 +20,7 @@ public final class FixNewOrderSingle {
   private int clOrdIdLength;
   private int symbolOffset = -1;
   private int symbolLength;
+  private int symbolId = -1;
 
   private byte side;
   private long orderQty = -1;
@@ -39,8 +41,21 @@ public final class FixNewOrderSingle {
 
   private int flags;
 
-  void reset(MemorySegment segment) {
+  private final FixGroupIndex groups;
+
+  public FixNewOrderSingle() {
+    this(null);
+  }
+
+  // With an index attached, the parser records the message's repeating
+  // groups into it; read them through groups().
+  public FixNewOrderSingle(FixGroupIndex groups) {
+    this.groups = groups;
+  }
+
+  void reset(MemorySegment segment, long offset) {
     buffer = segment;
+    baseOffset = offset;
     msgType = 0;
     msgSeqNum = -1;
 
@@ -53,6 +68,7 @@ public final class FixNewOrderSingle {
     clOrdIdLength = 0;
     symbolOffset = -1;
     symbolLength = 0;
+    symbolId = -1;
 
     side = 0;
     orderQty = -1;
@@ -72,6 +88,10 @@ public final class FixNewOrderSingle {
     checksum = -1;
 
     flags = 0;
+
+    if (groups != null) {
+      groups.clear(segment, offset);
+    }
   }
 
   void markFlag(int flag) {
@@ -110,6 +130,10 @@ public final class FixNewOrderSingle {
     symbolLength = length;
   }
 
+  void symbolId(int value) {
+    symbolId = value;
+  }
+
   void side(byte value) {
     side = value;
   }
@@ -150,6 +174,10 @@ public final class FixNewOrderSingle {
     return buffer;
   }
 
+  public long baseOffset() {
+    return baseOffset;
+  }
+
   public byte msgType() {
     return msgType;
   }
@@ -190,6 +218,11 @@ public final class FixNewOrderSingle {
     return symbolLength;
   }
 
+  // Set by SymbolDictionary.resolve; -1 until resolved or when unknown.
+  public int symbolId() {
+    return symbolId;
+  }
+
   public byte side() {
     return side;
   }
@@ -237,4 +270,9 @@ public final class FixNewOrderSingle {
   public int checksum() {
     return checksum;
   }
+
+  // null unless one was attached at construction.
+  public FixGroupIndex groups() {
+    return groups;
+  }
 }
@@ -0,0 +1,320 @@
+package com.example.fix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+// Struct-of-arrays batch of NewOrderSingles for analytics. decode() walks a
+// buffer of back-to-back messages (a capture, a mapped file) and appends one
+// row per 35=D to off-heap columns; no FixNewOrderSingle and no per-field
+// callback is involved. Each column is a separate 64-byte-aligned segment of
+// native-order primitives, ready for LongVector.fromMemorySegment (see
+// FixOrderAnalytics).
+//
+// The projection passed at construction decides which columns exist. Only
+// those fields are decoded, and a message's field walk stops as soon as all of
+// them have been seen; the message end comes from BodyLength (9), so the rest
+// of the message is never scanned.
+//
+// Prices are stored as mantissas at one fixed scale for the whole batch
+// (priceScale()), so columns can be summed without per-row rescaling. A price
+// with more decimals than that, like any absent or malformed value, is stored
+// as its column's sentinel.
+public final class FixNewOrderSingleColumns implements AutoCloseable {
+  public static final int SIDE = 1 << 0;
+  public static final int ORD_TYPE = 1 << 1;
+  public static final int ORDER_QTY = 1 << 2;
+  public static final int PRICE = 1 << 3;
+  public static final int SYMBOL_ID = 1 << 4;
+  public static final int TRANSACT_TIME = 1 << 5;
+  public static final int ALL = SIDE | ORD_TYPE | ORDER_QTY | PRICE | SYMBOL_ID | TRANSACT_TIME;
+
+  // Sentinels for absent or malformed values. Side and OrdType store 0.
+  public static final long NO_QTY = -1;
+  public static final long NO_PRICE = Long.MIN_VALUE;
+  public static final int NO_SYMBOL = SymbolDictionary.NOT_FOUND;
+  public static final long NO_TIME = FixTimestampDecoder.INVALID;
+
+  public static final int DEFAULT_PRICE_SCALE = 8;
+
+  static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG.withOrder(ByteOrder.nativeOrder());
+
+  private static final ValueLayout.OfLong LONG_LE =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+  private static final int TRAILER_LENGTH = 7; // 10=NNN<SOH>
+  private static final long[] POWERS_OF_TEN = {
+      1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L,
+      1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L
+  };
+
+  private final int projection;
+  private final int capacity;
+  private final int priceScale;
+  private final SymbolDictionary symbols;
+  private final FixTimestampDecoder timestamps = new FixTimestampDecoder();
+
+  private final Arena arena;
+  private final MemorySegment sides;
+  private final MemorySegment ordTypes;
+  private final MemorySegment orderQtys;
+  private final MemorySegment prices;
+  private final MemorySegment symbolIds;
+  private final MemorySegment transactTimes;
+
+  private int size;
+
+  public FixNewOrderSingleColumns(int capacity, int projection) {
+    this(capacity, projection, DEFAULT_PRICE_SCALE, null);
+  }
+
+  // symbols is required when SYMBOL_ID is projected; new symbols are interned.
+  public FixNewOrderSingleColumns(int capacity, int projection, int priceScale, SymbolDictionary symbols) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    if (projection == 0 || (projection & ~ALL) != 0) {
+      throw new IllegalArgumentException("Invalid projection " + projection);
+    }
+    if (priceScale < 0 || priceScale >= POWERS_OF_TEN.length) {
+      throw new IllegalArgumentException("priceScale must be in [0, " + (POWERS_OF_TEN.length - 1) + "]");
+    }
+    if ((projection & SYMBOL_ID) != 0 && symbols == null) {
+      throw new IllegalArgumentException("SYMBOL_ID needs a SymbolDictionary");
+    }
+    this.projection = projection;
+    this.capacity = capacity;
+    this.priceScale = priceScale;
+    this.symbols = symbols;
+    this.arena = Arena.ofShared();
+    this.sides = allocate(SIDE, Byte.BYTES);
+    this.ordTypes = allocate(ORD_TYPE, Byte.BYTES);
+    this.orderQtys = allocate(ORDER_QTY, Long.BYTES);
+    this.prices = allocate(PRICE, Long.BYTES);
+    this.symbolIds = allocate(SYMBOL_ID, Integer.BYTES);
+    this.transactTimes = allocate(TRANSACT_TIME, Long.BYTES);
+  }
+
+  // Appends a row for every NewOrderSingle in buffer[offset, limit) until the
+  // batch is full. Returns where decoding stopped: limit once everything was
+  // consumed, otherwise the start of the first message not yet decoded (also
+  // when the buffer ends in a partial message), so the caller can resume there
+  // after clear() or with more data.
+  public long decode(MemorySegment buffer, long offset, long limit) {
+    long p = offset;
+    while (size < capacity) {
+      long start = FixFraming.findMessageStart(buffer, p, limit);
+      if (start < 0) {
+        return limit;
+      }
+      long end = messageEnd(buffer, start, limit);
+      if (end < 0) {
+        return start;
+      }
+      if (FixFraming.peekMsgType(buffer, start, (int) (end - start)) == 'D') {
+        decodeRow(buffer, start, end);
+      }
+      p = end;
+    }
+    return p;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public int projection() {
+    return projection;
+  }
+
+  public int priceScale() {
+    return priceScale;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  // The backing segment of one projected column; rows [0, size()) are valid.
+  public MemorySegment column(int column) {
+    MemorySegment segment = switch (column) {
+      case SIDE -> sides;
+      case ORD_TYPE -> ordTypes;
+      case ORDER_QTY -> orderQtys;
+      case PRICE -> prices;
+      case SYMBOL_ID -> symbolIds;
+      case TRANSACT_TIME -> transactTimes;
+      default -> throw new IllegalArgumentException("Unknown column " + column);
+    };
+    if (segment == null) {
+      throw new IllegalStateException("Column " + column + " is not projected");
+    }
+    return segment;
+  }
+
+  public byte side(int row) {
+    return column(SIDE).get(ValueLayout.JAVA_BYTE, row);
+  }
+
+  public byte ordType(int row) {
+    return column(ORD_TYPE).get(ValueLayout.JAVA_BYTE, row);
+  }
+
+  public long orderQty(int row) {
+    return column(ORDER_QTY).getAtIndex(LONG, row);
+  }
+
+  // Mantissa at priceScale().
+  public long price(int row) {
+    return column(PRICE).getAtIndex(LONG, row);
+  }
+
+  public int symbolId(int row) {
+    return column(SYMBOL_ID).getAtIndex(ValueLayout.JAVA_INT, row);
+  }
+
+  public long transactTime(int row) {
+    return column(TRANSACT_TIME).getAtIndex(LONG, row);
+  }
+
+  @Override
+  public void close() {
+    arena.close();
+  }
+
+  private MemorySegment allocate(int column, int width) {
+    return (projection & column) == 0 ? null : arena.allocate((long) capacity * width, 64);
+  }
+
+  private void decodeRow(MemorySegment buffer, long start, long end) {
+    int row = size++;
+    if (sides != null) {
+      sides.set(ValueLayout.JAVA_BYTE, row, (byte) 0);
+    }
+    if (ordTypes != null) {
+      ordTypes.set(ValueLayout.JAVA_BYTE, row, (byte) 0);
+    }
+    if (orderQtys != null) {
+      orderQtys.setAtIndex(LONG, row, NO_QTY);
+    }
+    if (prices != null) {
+      prices.setAtIndex(LONG, row, NO_PRICE);
+    }
+    if (symbolIds != null) {
+      symbolIds.setAtIndex(ValueLayout.JAVA_INT, row, NO_SYMBOL);
+    }
+    if (transactTimes != null) {
+      transactTimes.setAtIndex(LONG, row, NO_TIME);
+    }
+
+    int wanted = projection;
+    long bufferSize = buffer.byteSize();
+    long p = start;
+    while (wanted != 0 && p < end) {
+      int tag;
+      long value;
+      // The word may run past the field; a '=' beyond the SOH is rejected
+      // because the SOH is not a digit.
+      int swar = p + 8 <= bufferSize ? FixDecoding.swarTag(buffer.get(LONG_LE, p)) : -1;
+      if (swar >= 0) {
+        tag = swar >>> 3;
+        value = p + (swar & 7) + 1;
+      } else {
+        tag = 0;
+        value = p;
+        byte b;
+        while (value < end && (b = buffer.get(ValueLayout.JAVA_BYTE, value)) != '=') {
+          tag = b >= '0' && b <= '9' ? tag * 10 + (b - '0') : -1;
+          value++;
+        }
+        value++;
+      }
+      long soh = FixFraming.indexOfSoh(buffer, value, end);
+      if (soh < 0) {
+        return;
+      }
+      int length = (int) (soh - value);
+      switch (tag) {
+        case 54 -> {
+          if ((wanted & SIDE) != 0 && length == 1) {
+            sides.set(ValueLayout.JAVA_BYTE, row, buffer.get(ValueLayout.JAVA_BYTE, value));
+          }
+          wanted &= ~SIDE;
+        }
+        case 40 -> {
+          if ((wanted & ORD_TYPE) != 0 && length == 1) {
+            ordTypes.set(ValueLayout.JAVA_BYTE, row, buffer.get(ValueLayout.JAVA_BYTE, value));
+          }
+          wanted &= ~ORD_TYPE;
+        }
+        case 38 -> {
+          if ((wanted & ORDER_QTY) != 0 && length > 0) {
+            orderQtys.setAtIndex(LONG, row, FixDecoding.parseLong(buffer, value, soh));
+          }
+          wanted &= ~ORDER_QTY;
+        }
+        case 44 -> {
+          if ((wanted & PRICE) != 0 && length > 0) {
+            prices.setAtIndex(LONG, row, price(buffer, value, soh));
+          }
+          wanted &= ~PRICE;
+        }
+        case 55 -> {
+          if ((wanted & SYMBOL_ID) != 0 && length > 0 && length <= SymbolDictionary.MAX_KEY_LENGTH) {
+            symbolIds.setAtIndex(ValueLayout.JAVA_INT, row, symbols.intern(buffer, value, length));
+          }
+          wanted &= ~SYMBOL_ID;
+        }
+        case 60 -> {
+          if ((wanted & TRANSACT_TIME) != 0) {
+            transactTimes.setAtIndex(LONG, row, timestamps.decode(buffer, value, length));
+          }
+          wanted &= ~TRANSACT_TIME;
+        }
+        default -> {
+        }
+      }
+      p = soh + 1;
+    }
+  }
+
+  private long price(MemorySegment buffer, long start, long end) {
+    long decimal = FixDecoding.parseDecimal(buffer, start, end);
+    if (decimal < 0) {
+      return NO_PRICE;
+    }
+    int scale = FixDecoding.scale(decimal);
+    if (scale > priceScale) {
+      return NO_PRICE;
+    }
+    long mantissa = FixDecoding.mantissa(decimal);
+    long factor = POWERS_OF_TEN[priceScale - scale];
+    return mantissa > Long.MAX_VALUE / factor ? NO_PRICE : mantissa * factor;
+  }
+
+  // Jumps to the trailer using BodyLength (9), as FixFramer does; falls back
+  // to scanning for <SOH>10= when 9= is missing or wrong. -1 when the message
+  // is not complete before limit.
+  private static long messageEnd(MemorySegment buffer, long start, long limit) {
+    long soh = FixFraming.indexOfSoh(buffer, start, limit);
+    if (soh >= 0 && soh + 3 < limit
+        && buffer.get(ValueLayout.JAVA_BYTE, soh + 1) == '9'
+        && buffer.get(ValueLayout.JAVA_BYTE, soh + 2) == '=') {
+      long bodyLengthEnd = FixFraming.indexOfSoh(buffer, soh + 3, limit);
+      if (bodyLengthEnd >= 0) {
+        long bodyLength = FixDecoding.parseLong(buffer, soh + 3, bodyLengthEnd);
+        long end = bodyLengthEnd + 1 + bodyLength + TRAILER_LENGTH;
+        if (bodyLength > 0 && end <= limit
+            && buffer.get(FixFraming.INT_LE, end - TRAILER_LENGTH - 1) == FixFraming.SOH_CHECKSUM_TAG
+            && buffer.get(ValueLayout.JAVA_BYTE, end - 1) == FixFraming.SOH) {
+          return end;
+        }
+      }
+    }
+    return FixFraming.findMessageEnd(buffer, start, limit);
+  }
+}
@@ -0,0 +1,84 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+
+// Encoder counterpart of FixNewOrderSingle: writes a 35=D through a
+// FixEncoder. Fields are emitted in call order between begin() and end(), so
+// the usual order is ClOrdID, HandlInst, Symbol, Side, TransactTime,
+// OrderQty, OrdType, Price, as gen.py writes them.
+//
+//   int length = orders.begin(buffer, offset, seqNum, nowNanos)
+//       .clOrdId(id).symbol(symbol).side((byte) '1').orderQty(100)
+//       .ordType((byte) '2').price(12550, 2).end();
+//   // message bytes: [offset, offset + length)
+public final class FixNewOrderSingleEncoder {
+  private final FixEncoder encoder;
+
+  public FixNewOrderSingleEncoder(FixEncoder encoder) {
+    this.encoder = encoder;
+  }
+
+  public FixNewOrderSingleEncoder begin(MemorySegment buffer, long offset, int msgSeqNum, long sendingTimeNanos) {
+    encoder.begin(buffer, offset, (byte) 'D', msgSeqNum, sendingTimeNanos);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder clOrdId(byte[] value) {
+    encoder.field(11, value);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder clOrdId(MemorySegment buffer, long offset, int length) {
+    encoder.field(11, buffer, offset, length);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder handlInst(byte value) {
+    encoder.field(21, value);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder symbol(byte[] value) {
+    encoder.field(55, value);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder symbol(MemorySegment buffer, long offset, int length) {
+    encoder.field(55, buffer, offset, length);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder side(byte value) {
+    encoder.field(54, value);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder transactTime(long epochNanos) {
+    encoder.timestamp(60, epochNanos);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder orderQty(long value) {
+    encoder.field(38, value);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder ordType(byte value) {
+    encoder.field(40, value);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder price(long mantissa, int scale) {
+    encoder.decimal(44, mantissa, scale);
+    return this;
+  }
+
+  public FixNewOrderSingleEncoder timeInForce(byte value) {
+    encoder.field(59, value);
+    return this;
+  }
+
+  public int end() {
+    return encoder.end();
+  }
+}
@@ -2,11 +2,14 @@ package com.example.fix;
 
 import java.lang.foreign.MemorySegment;
 import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
 
 public final class FixNewOrderSingleParser {
   private static final byte SOH = 1;
   private static final byte EQ = '=';
-  private static final byte DOT = '.';
+
+  private static final ValueLayout.OfLong LONG_LE =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
 
   private static final int F_MSG_TYPE = 1 << 0;
   private static final int F_CL_ORD_ID = 1 << 1;
@@ -18,81 +21,273 @@ public final class FixNewOrderSingleParser {
 
   private static final int REQUIRED_FLAGS =
       F_MSG_TYPE | F_CL_ORD_ID | F_SYMBOL | F_SIDE | F_ORDER_QTY | F_ORD_TYPE;
+  // The tag behind each flag bit, for reporting a missing one.
+  private static final int[] FLAG_TAGS = {35, 11, 55, 54, 38, 40, 60};
+
+  // OrdType (40) values that require a Price (44): limit, stop limit, limit
+  // or better, limit with or without, limit on close, forex limit,
+  // previously quoted, previously indicated.
+  private static final String PRICED_ORD_TYPES = "2478BFDE";
+
+  private final boolean validate;
+  private final FixFieldDispatcher fields;
+  private final FixStageTimers timers;
+  private final FixParseErrors errors;
+  private final boolean lenient;
+  private final FixScanner.Backend scanner;
+
+  public FixNewOrderSingleParser() {
+    this(false);
+  }
+
+  // With validate set, the parser also checks BodyLength (9) and CheckSum
+  // (10). The checksum is summed from the same words the value scan loads, so
+  // there is no second pass over the message.
+  public FixNewOrderSingleParser(boolean validate) {
+    this(validate, null);
+  }
+
+  // Tags the switch below does not handle go to fields, if given. Handlers run
+  // as the fields are scanned, before the message as a whole is validated.
+  public FixNewOrderSingleParser(boolean validate, FixFieldDispatcher fields) {
+    this(validate, fields, null);
+  }
+
+  // With timers (and FixStageTimers.ENABLED), sampled parses record their
+  // TOKENIZING, DECODING and TOTAL time. Parses rejected inside the field
+  // loop are not recorded.
+  public FixNewOrderSingleParser(boolean validate, FixFieldDispatcher fields, FixStageTimers timers) {
+    this(validate, fields, timers, null);
+  }
 
-  private long decimalMantissa;
-  private int decimalScale;
+  // Every rejected message is reported to errors, if given, and its mode
+  // decides what is tolerated (see FixParseErrors). Without errors the parser
+  // is strict.
+  public FixNewOrderSingleParser(boolean validate, FixFieldDispatcher fields, FixStageTimers timers,
+      FixParseErrors errors) {
+    this(validate, fields, timers, errors, FixScanner.selected());
+  }
+
+  // Values that do not end in the word holding their tag are scanned for SOH
+  // by scanner; the other constructors take FixScanner.selected(). With
+  // validate set the parser keeps its own SWAR loop, which sums the checksum
+  // from the words it loads.
+  public FixNewOrderSingleParser(boolean validate, FixFieldDispatcher fields, FixStageTimers timers,
+      FixParseErrors errors, FixScanner.Backend scanner) {
+    this.validate = validate;
+    this.fields = fields;
+    this.timers = timers;
+    this.errors = errors;
+    this.lenient = errors != null && errors.lenient();
+    this.scanner = scanner;
+  }
+
+  public boolean validating() {
+    return validate;
+  }
+
+  public FixParseErrors errors() {
+    return errors;
+  }
+
+  public FixScanner.Backend scanner() {
+    return scanner;
+  }
 
   public boolean parse(MemorySegment buffer, int length, FixNewOrderSingle out) {
-    out.reset(buffer);
+    return parse(buffer, 0, length, out);
+  }
+
+  // Field offsets recorded in out are relative to offset, so a message can be
+  // parsed in place inside a larger segment (e.g. a mapped file) without slicing.
+  public boolean parse(MemorySegment buffer, long offset, int length, FixNewOrderSingle out) {
+    out.reset(buffer, offset);
+    FixGroupIndex groups = out.groups();
+    // Where a malformed Price was dropped in LENIENT mode.
+    int droppedPrice = -1;
 
+    // Constant false unless timing is enabled for the process.
+    boolean timed = FixStageTimers.ENABLED && timers != null && timers.sample();
+    long start = timed ? System.nanoTime() : 0;
+    long mark = start;
+    long tokenizing = 0;
+    long decoding = 0;
+
+    // FixCodegen copies the codegen sections of this class (scan, validation
+    // and helpers) into every generated parser, so they may only use what
+    // those have too: the parse arguments, the fields up to scanner, the
+    // SOH/EQ/LONG_LE constants and the helpers themselves.
+    // codegen: begin scan
+    int sum = 0;
+    int bodyLength = -1;
+    int bodyStart = -1;
+    int trailerStart = -1;
+    int trailerEnd = -1;
+    int computedChecksum = -1;
+
+    long segmentSize = buffer.byteSize();
     int index = 0;
     while (index < length) {
-      int tag = 0;
-      while (index < length) {
-        byte b = getByte(buffer, index++);
-        if (b == EQ) {
-          break;
+      int fieldStart = index;
+      int fieldSum = sum;
+
+      int tag;
+      int valueStart;
+      int valueEnd = -1;
+
+      // One load covers the tag, the '=' and, for short fields like 35=D or
+      // 54=1, the value and its SOH as well. The word may run past the message
+      // (not past the segment); matches beyond length are rejected below.
+      long word = offset + index + 8 <= segmentSize ? buffer.get(LONG_LE, offset + index) : 0;
+      int packedTag = FixDecoding.swarTag(word);
+      if (packedTag >= 0 && (packedTag & 7) < length - index) {
+        int digits = packedTag & 7;
+        tag = packedTag >>> 3;
+        valueStart = index + digits + 1;
+        long match = FixFraming.swarMatchSoh(word) & ((-1L << (digits << 3)) << 8);
+        if (match != 0) {
+          int sohIndex = Long.numberOfTrailingZeros(match) >>> 3;
+          if (validate) {
+            sum += FixDecoding.byteSum(word & (-1L >>> ((7 - sohIndex) << 3)));
+          }
+          valueEnd = index + sohIndex;
+          if (valueEnd >= length) {
+            return reject(FixRejectReason.OTHER, tag, fieldStart);
+          }
+        } else {
+          if (validate) {
+            sum += FixDecoding.byteSum(word);
+          }
+          index += 8;
+        }
+      } else {
+        tag = 0;
+        while (index < length) {
+          byte b = FixDecoding.getByte(buffer, offset + index++);
+          if (validate) {
+            sum += b & 0xFF;
+          }
+          if (b == EQ) {
+            break;
+          }
+          int digit = b - '0';
+          if (digit < 0 || digit > 9) {
+            return reject(FixRejectReason.INVALID_TAG_NUMBER, 0, index - 1);
+          }
+          tag = tag * 10 + digit;
         }
-        int digit = b - '0';
-        if (digit < 0 || digit > 9) {
-          return false;
+
+        if (index >= length) {
+          return reject(FixRejectReason.OTHER, 0, fieldStart);
         }
-        tag = tag * 10 + digit;
+        valueStart = index;
       }
 
-      if (index >= length) {
-        return false;
+      if (valueEnd < 0 && !validate) {
+        long soh = scanner.indexOfSoh(buffer, offset + index, offset + length);
+        if (soh < 0) {
+          return reject(FixRejectReason.OTHER, tag, fieldStart);
+        }
+        valueEnd = (int) (soh - offset);
       }
 
-      int valueStart = index;
-      while (index < length && getByte(buffer, index) != SOH) {
-        index++;
+      while (valueEnd < 0 && index + 8 <= length) {
+        word = buffer.get(LONG_LE, offset + index);
+        long match = FixFraming.swarMatchSoh(word);
+        if (match != 0) {
+          int sohIndex = Long.numberOfTrailingZeros(match) >>> 3;
+          if (validate) {
+            sum += FixDecoding.byteSum(word & (-1L >>> ((7 - sohIndex) << 3)));
+          }
+          valueEnd = index + sohIndex;
+          break;
+        }
+        if (validate) {
+          sum += FixDecoding.byteSum(word);
+        }
+        index += 8;
       }
 
-      if (index >= length) {
-        return false;
+      if (valueEnd < 0) {
+        while (index < length) {
+          byte b = FixDecoding.getByte(buffer, offset + index);
+          if (validate) {
+            sum += b & 0xFF;
+          }
+          if (b == SOH) {
+            valueEnd = index;
+            break;
+          }
+          index++;
+        }
+        if (valueEnd < 0) {
+          return reject(FixRejectReason.OTHER, tag, fieldStart);
+        }
       }
 
-      int valueEnd = index;
+      index = valueEnd;
       int valueLength = valueEnd - valueStart;
+      // codegen: end scan
+      if (timed) {
+        long now = System.nanoTime();
+        tokenizing += now - mark;
+        mark = now;
+      }
 
       switch (tag) {
         case 35 -> {
           if (valueLength != 1) {
+            return reject(valueLength == 0 ? FixRejectReason.TAG_SPECIFIED_WITHOUT_A_VALUE
+                : FixRejectReason.INVALID_MSG_TYPE, tag, valueStart);
+          }
+          if (!first(out, F_MSG_TYPE, tag, fieldStart)) {
             return false;
           }
-          byte msgType = getByte(buffer, valueStart);
+          byte msgType = FixDecoding.getByte(buffer, offset + valueStart);
           out.msgType(msgType);
           out.markFlag(F_MSG_TYPE);
         }
         case 49 -> out.senderCompId(valueStart, valueLength);
         case 56 -> out.targetCompId(valueStart, valueLength);
         case 34 -> {
-          int seqNum = parseInt(buffer, valueStart, valueEnd);
-          if (seqNum < 0) {
+          int seqNum = FixDecoding.parseInt(buffer, offset + valueStart, offset + valueEnd);
+          if (seqNum >= 0) {
+            out.msgSeqNum(seqNum);
+          } else if (!tolerate(malformed(valueLength), tag, valueStart)) {
             return false;
           }
-          out.msgSeqNum(seqNum);
         }
         case 52 -> out.sendingTime(valueStart, valueLength);
         case 11 -> {
+          if (!first(out, F_CL_ORD_ID, tag, fieldStart)) {
+            return false;
+          }
           out.clOrdId(valueStart, valueLength);
           out.markFlag(F_CL_ORD_ID);
         }
         case 55 -> {
+          if (!first(out, F_SYMBOL, tag, fieldStart)) {
+            return false;
+          }
           out.symbol(valueStart, valueLength);
           out.markFlag(F_SYMBOL);
         }
         case 54 -> {
           if (valueLength != 1) {
+            return reject(malformed(valueLength), tag, valueStart);
+          }
+          if (!first(out, F_SIDE, tag, fieldStart)) {
             return false;
           }
-          out.side(getByte(buffer, valueStart));
+          out.side(FixDecoding.getByte(buffer, offset + valueStart));
           out.markFlag(F_SIDE);
         }
         case 38 -> {
-          long qty = parseLong(buffer, valueStart, valueEnd);
+          long qty = FixDecoding.parseLong(buffer, offset + valueStart, offset + valueEnd);
           if (qty < 0) {
+            return reject(malformed(valueLength), tag, valueStart);
+          }
+          if (!first(out, F_ORDER_QTY, tag, fieldStart)) {
             return false;
           }
           out.orderQty(qty);
@@ -100,110 +295,153 @@ public final class FixNewOrderSingleParser {
         }
         case 40 -> {
           if (valueLength != 1) {
+            return reject(malformed(valueLength), tag, valueStart);
+          }
+          if (!first(out, F_ORD_TYPE, tag, fieldStart)) {
             return false;
           }
-          out.ordType(getByte(buffer, valueStart));
+          out.ordType(FixDecoding.getByte(buffer, offset + valueStart));
           out.markFlag(F_ORD_TYPE);
         }
         case 44 -> {
-          if (!parseDecimal(buffer, valueStart, valueEnd)) {
+          long price = FixDecoding.parseDecimal(buffer, offset + valueStart, offset + valueEnd);
+          if (price >= 0) {
+            out.price(FixDecoding.mantissa(price), FixDecoding.scale(price));
+          } else if (tolerate(malformed(valueLength), tag, valueStart)) {
+            droppedPrice = valueStart;
+          } else {
             return false;
           }
-          out.price(decimalMantissa, decimalScale);
         }
         case 59 -> {
-          if (valueLength != 1) {
+          if (valueLength == 1) {
+            out.timeInForce(FixDecoding.getByte(buffer, offset + valueStart));
+          } else if (!tolerate(malformed(valueLength), tag, valueStart)) {
             return false;
           }
-          out.timeInForce(getByte(buffer, valueStart));
         }
         case 60 -> {
+          if (!first(out, F_TRANSACT_TIME, tag, fieldStart)) {
+            return false;
+          }
           out.transactTime(valueStart, valueLength);
           out.markFlag(F_TRANSACT_TIME);
         }
+        case 9 -> {
+          bodyLength = FixDecoding.parseInt(buffer, offset + valueStart, offset + valueEnd);
+          if (bodyLength < 0) {
+            return reject(malformed(valueLength), tag, valueStart);
+          }
+          bodyStart = valueEnd + 1;
+        }
         case 10 -> {
-          int checksum = parseInt(buffer, valueStart, valueEnd);
+          int checksum = FixDecoding.parseInt(buffer, offset + valueStart, offset + valueEnd);
           if (checksum < 0) {
-            return false;
+            return reject(malformed(valueLength), tag, valueStart);
           }
           out.checksum(checksum);
+          trailerStart = fieldStart;
+          trailerEnd = valueEnd + 1;
+          computedChecksum = fieldSum & 0xFF;
         }
         default -> {
-          // Ignore other tags to keep the hot path simple.
+          int group = groups == null ? FixGroupIndex.NOT_GROUP : groups.onField(tag, valueStart, valueEnd);
+          if (group == FixGroupIndex.REJECTED) {
+            return reject(groups.rejectReason(), tag, fieldStart);
+          }
+          if (group == FixGroupIndex.NOT_GROUP && fields != null) {
+            fields.dispatch(tag, buffer, offset + valueStart, valueLength);
+          }
         }
       }
+      if (timed) {
+        long now = System.nanoTime();
+        decoding += now - mark;
+        mark = now;
+      }
 
       index++;
     }
 
-    if (out.msgType() != 'D') {
-      return false;
+    if (timed) {
+      timers.record(FixStageTimers.Stage.TOKENIZING, tokenizing);
+      timers.record(FixStageTimers.Stage.DECODING, decoding);
+      timers.record(FixStageTimers.Stage.TOTAL, mark - start);
+    }
+
+    // codegen: begin validation
+    if (validate) {
+      if (bodyStart < 0) {
+        return reject(FixRejectReason.REQUIRED_TAG_MISSING, 9, -1);
+      }
+      if (trailerStart < 0) {
+        return reject(FixRejectReason.REQUIRED_TAG_MISSING, 10, -1);
+      }
+      if (trailerEnd != length) {
+        return reject(FixRejectReason.TAG_SPECIFIED_OUT_OF_REQUIRED_ORDER, 10, trailerStart);
+      }
+      if (trailerStart - bodyStart != bodyLength) {
+        return reject(FixRejectReason.VALUE_INCORRECT, 9, trailerStart);
+      }
+      if (computedChecksum != out.checksum()) {
+        return reject(FixRejectReason.VALUE_INCORRECT, 10, trailerStart);
+      }
     }
+    // codegen: end validation
 
     int flags = out.flags();
-    if ((flags & REQUIRED_FLAGS) != REQUIRED_FLAGS) {
-      return false;
+    if ((flags & F_MSG_TYPE) != 0 && out.msgType() != 'D') {
+      return reject(FixRejectReason.INVALID_MSG_TYPE, 35, -1);
     }
 
-    return true;
-  }
+    int missing = REQUIRED_FLAGS & ~flags;
+    if (missing != 0) {
+      return reject(FixRejectReason.REQUIRED_TAG_MISSING, FLAG_TAGS[Integer.numberOfTrailingZeros(missing)], -1);
+    }
 
-  private static byte getByte(MemorySegment buffer, long offset) {
-    return buffer.get(ValueLayout.JAVA_BYTE, offset);
-  }
+    // Price is optional only for order types without a limit; in LENIENT mode
+    // too, a malformed one cannot leave a limit order priceless.
+    if (!out.pricePresent() && PRICED_ORD_TYPES.indexOf(out.ordType()) >= 0) {
+      return droppedPrice >= 0
+          ? reject(FixRejectReason.INCORRECT_DATA_FORMAT, 44, droppedPrice)
+          : reject(FixRejectReason.REQUIRED_TAG_MISSING, 44, -1);
+    }
 
-  private static int parseInt(MemorySegment buffer, int start, int end) {
-    int value = 0;
-    for (int i = start; i < end; i++) {
-      byte b = getByte(buffer, i);
-      int digit = b - '0';
-      if (digit < 0 || digit > 9) {
-        return -1;
-      }
-      value = value * 10 + digit;
+    int incomplete = groups == null ? 0 : groups.incomplete();
+    if (incomplete != 0) {
+      return reject(FixRejectReason.INCORRECT_NUM_IN_GROUP_COUNT, incomplete, -1);
     }
-    return value;
+
+    return true;
   }
 
-  private static long parseLong(MemorySegment buffer, int start, int end) {
-    long value = 0;
-    for (int i = start; i < end; i++) {
-      byte b = getByte(buffer, i);
-      int digit = b - '0';
-      if (digit < 0 || digit > 9) {
-        return -1;
-      }
-      value = value * 10 + digit;
+  // codegen: begin helpers
+  // Reports a problem that rejects the message; always false. at is relative
+  // to the message start, -1 for the message as a whole.
+  private boolean reject(int reason, int tag, int at) {
+    if (errors != null) {
+      errors.reject(reason, tag, at);
     }
-    return value;
+    return false;
   }
 
-  private boolean parseDecimal(MemorySegment buffer, int start, int end) {
-    long value = 0;
-    int scale = 0;
-    boolean sawDot = false;
-
-    for (int i = start; i < end; i++) {
-      byte b = getByte(buffer, i);
-      if (b == DOT) {
-        if (sawDot) {
-          return false;
-        }
-        sawDot = true;
-        continue;
-      }
-      int digit = b - '0';
-      if (digit < 0 || digit > 9) {
-        return false;
-      }
-      value = value * 10 + digit;
-      if (sawDot) {
-        scale++;
-      }
+  // Reports a problem LENIENT mode lets through. True when parsing goes on.
+  private boolean tolerate(int reason, int tag, int at) {
+    if (!lenient) {
+      return reject(reason, tag, at);
     }
-
-    decimalMantissa = value;
-    decimalScale = scale;
+    errors.tolerate(reason, tag, at);
     return true;
   }
+
+  // False when the field's flag is already set and the repeat rejects the
+  // message; in LENIENT mode the last value wins.
+  private boolean first(FixNewOrderSingle out, int flag, int tag, int at) {
+    return (out.flags() & flag) == 0 || tolerate(FixRejectReason.TAG_APPEARS_MORE_THAN_ONCE, tag, at);
+  }
+
+  private static int malformed(int valueLength) {
+    return valueLength == 0 ? FixRejectReason.TAG_SPECIFIED_WITHOUT_A_VALUE : FixRejectReason.INCORRECT_DATA_FORMAT;
+  }
+  // codegen: end helpers
 }
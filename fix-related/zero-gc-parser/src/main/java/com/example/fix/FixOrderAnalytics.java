@@ -0,0 +1,116 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// Vector API aggregations over a FixNewOrderSingleColumns batch. The price and
+// quantity columns are loaded straight from their segments, multiplied in
+// double lanes and summed under a mask that drops rows with a missing price or
+// quantity, so there is no branch per row. Side is a byte column; eight sides
+// are loaded at once and widened to long lanes with castShape, which works
+// for every vector width from 128 to 512 bits.
+//
+// Results are in price units (the batch's mantissas divided by 10^priceScale).
+// Sums are accumulated in doubles: a day of notional does not fit a long at
+// eight decimals.
+public final class FixOrderAnalytics {
+  private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+  private static final VectorSpecies<Byte> SIDE_BYTES = ByteVector.SPECIES_64;
+  private static final int LANES = LONGS.length();
+  private static final int SIDE_BLOCK = SIDE_BYTES.length();
+  private static final ByteOrder ORDER = ByteOrder.nativeOrder();
+
+  private FixOrderAnalytics() {
+  }
+
+  public static String species() {
+    return LONGS.toString();
+  }
+
+  // Volume-weighted average price over all rows with a price and a positive
+  // quantity; NaN when there are none.
+  public static double vwap(FixNewOrderSingleColumns batch) {
+    MemorySegment qtys = batch.column(FixNewOrderSingleColumns.ORDER_QTY);
+    MemorySegment prices = batch.column(FixNewOrderSingleColumns.PRICE);
+    int rows = batch.size();
+
+    DoubleVector notional = DoubleVector.zero(DOUBLES);
+    LongVector volume = LongVector.zero(LONGS);
+    int row = 0;
+    for (int bound = LONGS.loopBound(rows); row < bound; row += LANES) {
+      LongVector qty = LongVector.fromMemorySegment(LONGS, qtys, (long) row * Long.BYTES, ORDER);
+      LongVector price = LongVector.fromMemorySegment(LONGS, prices, (long) row * Long.BYTES, ORDER);
+      VectorMask<Long> valid = valid(qty, price);
+      notional = notional.add(product(qty, price), valid.cast(DOUBLES));
+      volume = volume.add(qty, valid);
+    }
+    double notionalSum = notional.reduceLanes(VectorOperators.ADD);
+    long volumeSum = volume.reduceLanes(VectorOperators.ADD);
+    for (; row < rows; row++) {
+      long qty = qtys.getAtIndex(FixNewOrderSingleColumns.LONG, row);
+      long price = prices.getAtIndex(FixNewOrderSingleColumns.LONG, row);
+      if (qty > 0 && price != FixNewOrderSingleColumns.NO_PRICE) {
+        notionalSum += (double) price * qty;
+        volumeSum += qty;
+      }
+    }
+    return volumeSum == 0 ? Double.NaN : notionalSum / volumeSum / scaleOf(batch);
+  }
+
+  // Sum of price * quantity over the rows with the given Side (54), e.g. '1'
+  // for buy and '2' for sell.
+  public static double notional(FixNewOrderSingleColumns batch, byte side) {
+    MemorySegment qtys = batch.column(FixNewOrderSingleColumns.ORDER_QTY);
+    MemorySegment prices = batch.column(FixNewOrderSingleColumns.PRICE);
+    MemorySegment sides = batch.column(FixNewOrderSingleColumns.SIDE);
+    int rows = batch.size();
+
+    DoubleVector notional = DoubleVector.zero(DOUBLES);
+    int row = 0;
+    for (int bound = rows - rows % SIDE_BLOCK; row < bound; row += SIDE_BLOCK) {
+      ByteVector block = ByteVector.fromMemorySegment(SIDE_BYTES, sides, row, ORDER);
+      for (int part = 0; part < SIDE_BLOCK / LANES; part++) {
+        long offset = (long) (row + part * LANES) * Long.BYTES;
+        LongVector rowSides = (LongVector) block.castShape(LONGS, part);
+        LongVector qty = LongVector.fromMemorySegment(LONGS, qtys, offset, ORDER);
+        LongVector price = LongVector.fromMemorySegment(LONGS, prices, offset, ORDER);
+        VectorMask<Long> selected = valid(qty, price).and(rowSides.eq(side));
+        notional = notional.add(product(qty, price), selected.cast(DOUBLES));
+      }
+    }
+    double sum = notional.reduceLanes(VectorOperators.ADD);
+    for (; row < rows; row++) {
+      long qty = qtys.getAtIndex(FixNewOrderSingleColumns.LONG, row);
+      long price = prices.getAtIndex(FixNewOrderSingleColumns.LONG, row);
+      if (qty > 0 && price != FixNewOrderSingleColumns.NO_PRICE
+          && sides.get(ValueLayout.JAVA_BYTE, row) == side) {
+        sum += (double) price * qty;
+      }
+    }
+    return sum / scaleOf(batch);
+  }
+
+  private static VectorMask<Long> valid(LongVector qty, LongVector price) {
+    return qty.compare(VectorOperators.GT, 0)
+        .and(price.compare(VectorOperators.NE, FixNewOrderSingleColumns.NO_PRICE));
+  }
+
+  private static DoubleVector product(LongVector qty, LongVector price) {
+    DoubleVector q = (DoubleVector) qty.convert(VectorOperators.L2D, 0);
+    DoubleVector p = (DoubleVector) price.convert(VectorOperators.L2D, 0);
+    return p.mul(q);
+  }
+
+  private static double scaleOf(FixNewOrderSingleColumns batch) {
+    return Math.pow(10, batch.priceScale());
+  }
+}
@@ -0,0 +1,118 @@
+package com.example.fix;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// Error channel for FixNewOrderSingleParser and the parsers FixCodegen
+// generates (FixMessageDecoder passes one to all of them). When parse
+// returns false the parsing thread reads why from lastReason (a FixRejectReason code), lastTag
+// (0 when no single tag is at fault) and lastOffset (relative to the message
+// start, -1 for problems with the message as a whole, such as a missing
+// required tag). Reporting an error is a few int stores and one counter
+// increment: no Strings, no exceptions and no I/O, so a counterparty sending
+// garbage costs its session a rejected message and nothing more.
+//
+// In STRICT mode every problem rejects the message. LENIENT mode lets
+// through problems that leave the order itself intact: a malformed MsgSeqNum
+// (34), TimeInForce (59) or Price (44) is dropped, and a repeated required
+// field keeps its last value. Price is conditionally required, so dropping it
+// still rejects an order whose OrdType needs one (limit, stop limit, ...).
+// Generated parsers drop any malformed field their dictionary marks as
+// optional, and keep the last value of a repeated required one.
+// Framing, BodyLength, CheckSum, MsgType, required-field and repeating-group
+// problems reject in both modes. A tolerated problem updates the last* fields
+// and its counters too, but parse still returns true.
+//
+// The per-reason counters have a single writer, the parsing thread, and can
+// be read from any thread, e.g. by a metrics scraper. Give every session or
+// parser thread its own instance.
+public final class FixParseErrors {
+  public enum Mode {
+    STRICT,
+    LENIENT
+  }
+
+  private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  // Totals live after the per-reason slots, so all counters are one array.
+  private static final int REJECTED = FixRejectReason.SLOTS;
+  private static final int TOLERATED = FixRejectReason.SLOTS + 1;
+
+  private final Mode mode;
+  private final long[] counts = new long[FixRejectReason.SLOTS + 2];
+
+  private int lastReason = -1;
+  private int lastTag;
+  private int lastOffset = -1;
+  private boolean lastRejected;
+
+  public FixParseErrors() {
+    this(Mode.STRICT);
+  }
+
+  public FixParseErrors(Mode mode) {
+    this.mode = mode;
+  }
+
+  public Mode mode() {
+    return mode;
+  }
+
+  // The last problem reported, -1 before the first. Parsing thread only.
+  public int lastReason() {
+    return lastReason;
+  }
+
+  public int lastTag() {
+    return lastTag;
+  }
+
+  public int lastOffset() {
+    return lastOffset;
+  }
+
+  // False when the last problem was tolerated in LENIENT mode.
+  public boolean lastRejected() {
+    return lastRejected;
+  }
+
+  // Problems with the given FixRejectReason code, rejected or tolerated.
+  // Any thread.
+  public long count(int reason) {
+    return (long) COUNTS.getAcquire(counts, FixRejectReason.slot(reason));
+  }
+
+  public long rejected() {
+    return (long) COUNTS.getAcquire(counts, REJECTED);
+  }
+
+  public long tolerated() {
+    return (long) COUNTS.getAcquire(counts, TOLERATED);
+  }
+
+  boolean lenient() {
+    return mode == Mode.LENIENT;
+  }
+
+  void reject(int reason, int tag, int offset) {
+    report(reason, tag, offset, true);
+    increment(REJECTED);
+  }
+
+  void tolerate(int reason, int tag, int offset) {
+    report(reason, tag, offset, false);
+    increment(TOLERATED);
+  }
+
+  private void report(int reason, int tag, int offset, boolean rejected) {
+    lastReason = reason;
+    lastTag = tag;
+    lastOffset = offset;
+    lastRejected = rejected;
+    increment(FixRejectReason.slot(reason));
+  }
+
+  private void increment(int slot) {
+    COUNTS.setRelease(counts, slot, counts[slot] + 1);
+  }
+}
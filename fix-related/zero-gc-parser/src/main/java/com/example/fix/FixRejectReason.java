@@ -0,0 +1,47 @@
+package com.example.fix;
+
+// SessionRejectReason (373) codes, as reported through FixParseErrors. Only
+// the codes the parser can produce are listed. OTHER covers framing problems
+// 373 has no code for, such as a message that ends inside a field.
+public final class FixRejectReason {
+  public static final int INVALID_TAG_NUMBER = 0;
+  public static final int REQUIRED_TAG_MISSING = 1;
+  public static final int TAG_SPECIFIED_WITHOUT_A_VALUE = 4;
+  public static final int VALUE_INCORRECT = 5;
+  public static final int INCORRECT_DATA_FORMAT = 6;
+  public static final int INVALID_MSG_TYPE = 11;
+  public static final int TAG_APPEARS_MORE_THAN_ONCE = 13;
+  public static final int TAG_SPECIFIED_OUT_OF_REQUIRED_ORDER = 14;
+  public static final int REPEATING_GROUP_FIELDS_OUT_OF_ORDER = 15;
+  public static final int INCORRECT_NUM_IN_GROUP_COUNT = 16;
+  public static final int OTHER = 99;
+
+  // Codes 0-18 map to themselves and OTHER to the slot after them, so
+  // per-reason counters fit in a small array.
+  static final int SLOTS = 20;
+
+  private FixRejectReason() {
+  }
+
+  static int slot(int reason) {
+    return reason >= 0 && reason < SLOTS - 1 ? reason : SLOTS - 1;
+  }
+
+  // For logging, off the hot path.
+  public static String name(int reason) {
+    return switch (reason) {
+      case INVALID_TAG_NUMBER -> "InvalidTagNumber";
+      case REQUIRED_TAG_MISSING -> "RequiredTagMissing";
+      case TAG_SPECIFIED_WITHOUT_A_VALUE -> "TagSpecifiedWithoutAValue";
+      case VALUE_INCORRECT -> "ValueIsIncorrect";
+      case INCORRECT_DATA_FORMAT -> "IncorrectDataFormatForValue";
+      case INVALID_MSG_TYPE -> "InvalidMsgType";
+      case TAG_APPEARS_MORE_THAN_ONCE -> "TagAppearsMoreThanOnce";
+      case TAG_SPECIFIED_OUT_OF_REQUIRED_ORDER -> "TagSpecifiedOutOfRequiredOrder";
+      case REPEATING_GROUP_FIELDS_OUT_OF_ORDER -> "RepeatingGroupFieldsOutOfOrder";
+      case INCORRECT_NUM_IN_GROUP_COUNT -> "IncorrectNumInGroupCount";
+      case OTHER -> "Other";
+      default -> "Reason" + reason;
+    };
+  }
+}
@@ -0,0 +1,301 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+// The SOH scan behind every parser here, as interchangeable backends:
+//
+//   scalar        one byte at a time (FixNewOrderSingleParser's tail loop)
+//   swar          two unaligned 8-byte words per step (roray/MSFixParser)
+//   swar-aligned  bytes up to an 8-byte boundary, then aligned words
+//                 (roray/MSFixParserV2's equals scan)
+//   vector        ByteVector.SPECIES_PREFERRED compares, then SWAR for the
+//                 rest (parser-v2/Main); FixVectorScanner, only offered when
+//                 the JVM runs with --add-modules jdk.incubator.vector
+//
+// Which one is fastest depends on the CPU and on the traffic: a 512-bit
+// vector only pays off when values are long enough to fill it, and NEON
+// machines (Graviton, Ampere) often do better with SWAR. Instead of guessing
+// from the vector width, call calibrate() once at startup with a sample of
+// real messages. It times every backend on that sample, selects the fastest
+// and returns a Calibration to log. -Dfix.scanner=<name> overrides the
+// choice; an unknown name makes selected() and calibrate() throw
+// IllegalArgumentException. Until calibrate() runs, selected() is the
+// override or swar.
+//
+// Parsers take selected() when they are constructed, so calibrate first.
+public final class FixScanner {
+  public interface Backend {
+    String name();
+
+    // Absolute position of the first SOH in buffer[from, to), or -1.
+    long indexOfSoh(MemorySegment buffer, long from, long to);
+  }
+
+  public record Result(Backend backend, double nanosPerByte) {
+  }
+
+  // platform is os.arch plus the preferred vector width and the instruction
+  // set that width usually means (the JDK does not report the ISA itself).
+  public record Calibration(String platform, Backend selected, boolean overridden, List<Result> results) {
+    @Override
+    public String toString() {
+      StringBuilder text = new StringBuilder("scanner ").append(selected.name())
+          .append(overridden ? " (-Dfix.scanner)" : "").append(" on ").append(platform);
+      for (Result result : results) {
+        text.append(String.format(Locale.ROOT, ", %s %.3f ns/B", result.backend().name(), result.nanosPerByte()));
+      }
+      return text.toString();
+    }
+  }
+
+  public static final Backend SCALAR = new Scalar();
+  public static final Backend SWAR = new Swar();
+  public static final Backend SWAR_ALIGNED = new SwarAligned();
+
+  private static final boolean VECTOR_API = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+  private static final List<Backend> BACKENDS = VECTOR_API
+      ? List.of(SCALAR, SWAR, SWAR_ALIGNED, new FixVectorScanner())
+      : List.of(SCALAR, SWAR, SWAR_ALIGNED);
+  private static final String OVERRIDE = System.getProperty("fix.scanner");
+  private static final int ROUNDS = 5;
+  // indexOfSoh calls per backend before timing starts, well past the C2
+  // compile thresholds, however slow the backend is before it is compiled.
+  private static final long WARMUP_CALLS = 200_000;
+
+  private static final ValueLayout.OfLong LONG_LE =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  // Null until calibrate() runs.
+  private static volatile Calibration calibration;
+
+  private FixScanner() {
+  }
+
+  public static List<Backend> backends() {
+    return BACKENDS;
+  }
+
+  // Throws IllegalArgumentException for an unknown name, and for vector
+  // when jdk.incubator.vector is not in the boot layer.
+  public static Backend backend(String name) {
+    for (Backend backend : BACKENDS) {
+      if (backend.name().equals(name)) {
+        return backend;
+      }
+    }
+    if (name.equals("vector")) {
+      throw new IllegalArgumentException("Scanner vector needs --add-modules jdk.incubator.vector");
+    }
+    throw new IllegalArgumentException("Unknown scanner " + name + ", expected one of scalar, swar, swar-aligned, vector");
+  }
+
+  public static Backend selected() {
+    Calibration current = calibration;
+    return current != null ? current.selected() : override(SWAR);
+  }
+
+  // Before calibrate() runs: the default choice, with no results.
+  public static Calibration calibration() {
+    Calibration current = calibration;
+    return current != null ? current : new Calibration(platform(), override(SWAR), OVERRIDE != null, List.of());
+  }
+
+  public static Calibration calibrate(MemorySegment sample, long offset, long length) {
+    return calibrate(sample, offset, length, 400);
+  }
+
+  // Scans sample[offset, offset + length) field by field with every backend:
+  // a warm-up so each is compiled, then ROUNDS interleaved timed rounds,
+  // keeping each backend's best. budgetMillis is split evenly. Every backend
+  // is called through the same interface call site, so the figures include
+  // the same call overhead; they rank the backends rather than predict the
+  // parse time. Throws IllegalStateException if the backends disagree.
+  public static Calibration calibrate(MemorySegment sample, long offset, long length, long budgetMillis) {
+    if (length <= 0 || offset + length > sample.byteSize()) {
+      throw new IllegalArgumentException("Sample range is outside the segment");
+    }
+    if (budgetMillis <= 0) {
+      throw new IllegalArgumentException("budgetMillis must be positive");
+    }
+    // Fails on a bad -Dfix.scanner before spending the budget.
+    override(SWAR);
+    long end = offset + length;
+    long slice = budgetMillis * 1_000_000L / (2L * BACKENDS.size());
+    long expected = pass(SCALAR, sample, offset, end);
+    long fields = Math.max(1, fields(sample, offset, end));
+
+    // A fixed number of calls first, so no backend is timed before it is
+    // compiled, then the rest of the slice, if any.
+    for (Backend backend : BACKENDS) {
+      for (long calls = 0; calls < WARMUP_CALLS; calls += fields) {
+        check(backend, pass(backend, sample, offset, end), expected);
+      }
+      long deadline = System.nanoTime() + slice;
+      while (System.nanoTime() < deadline) {
+        check(backend, pass(backend, sample, offset, end), expected);
+      }
+    }
+
+    double[] best = new double[BACKENDS.size()];
+    Arrays.fill(best, Double.MAX_VALUE);
+    for (int round = 0; round < ROUNDS; round++) {
+      for (int b = 0; b < best.length; b++) {
+        Backend backend = BACKENDS.get(b);
+        long bytes = 0;
+        long start = System.nanoTime();
+        long deadline = start + slice / ROUNDS;
+        long now;
+        do {
+          pass(backend, sample, offset, end);
+          bytes += length;
+        } while ((now = System.nanoTime()) < deadline);
+        best[b] = Math.min(best[b], (double) (now - start) / bytes);
+      }
+    }
+
+    List<Result> results = new ArrayList<>(best.length);
+    Backend fastest = SWAR;
+    double fastestNanos = Double.MAX_VALUE;
+    for (int b = 0; b < best.length; b++) {
+      results.add(new Result(BACKENDS.get(b), best[b]));
+      if (best[b] < fastestNanos) {
+        fastestNanos = best[b];
+        fastest = BACKENDS.get(b);
+      }
+    }
+    Backend selected = override(fastest);
+    Calibration result = new Calibration(platform(), selected, OVERRIDE != null, List.copyOf(results));
+    calibration = result;
+    return result;
+  }
+
+  private static Backend override(Backend otherwise) {
+    return OVERRIDE == null ? otherwise : backend(OVERRIDE);
+  }
+
+  private static void check(Backend backend, long found, long expected) {
+    if (found != expected) {
+      throw new IllegalStateException("Scanner " + backend.name() + " disagrees with scalar");
+    }
+  }
+
+  // indexOfSoh calls per pass over the sample.
+  private static long fields(MemorySegment sample, long from, long end) {
+    long calls = 0;
+    while (from < end) {
+      calls++;
+      long soh = scalar(sample, from, end);
+      if (soh < 0) {
+        break;
+      }
+      from = soh + 1;
+    }
+    return calls;
+  }
+
+  private static long pass(Backend backend, MemorySegment sample, long from, long end) {
+    long found = 0;
+    while (from < end) {
+      long soh = backend.indexOfSoh(sample, from, end);
+      if (soh < 0) {
+        break;
+      }
+      found += soh;
+      from = soh + 1;
+    }
+    return found;
+  }
+
+  private static String platform() {
+    String arch = System.getProperty("os.arch");
+    if (!VECTOR_API) {
+      return arch + ", no Vector API (--add-modules jdk.incubator.vector)";
+    }
+    int bits = FixVectorScanner.bits();
+    String isa = switch (arch) {
+      case "amd64", "x86_64" -> bits >= 512 ? "AVX-512" : bits >= 256 ? "AVX2" : "SSE";
+      case "aarch64" -> bits > 128 ? "SVE" : "NEON";
+      default -> "unknown ISA";
+    };
+    return arch + ", " + bits + "-bit vectors (" + isa + ")";
+  }
+
+  static long swarTail(MemorySegment buffer, long p, long to) {
+    for (; p + 8 <= to; p += 8) {
+      long match = FixFraming.swarMatchSoh(buffer.get(LONG_LE, p));
+      if (match != 0) {
+        return p + (Long.numberOfTrailingZeros(match) >>> 3);
+      }
+    }
+    return scalar(buffer, p, to);
+  }
+
+  private static long scalar(MemorySegment buffer, long p, long to) {
+    for (; p < to; p++) {
+      if (buffer.get(ValueLayout.JAVA_BYTE, p) == FixFraming.SOH) {
+        return p;
+      }
+    }
+    return -1;
+  }
+
+  private static final class Scalar implements Backend {
+    @Override
+    public String name() {
+      return "scalar";
+    }
+
+    @Override
+    public long indexOfSoh(MemorySegment buffer, long from, long to) {
+      return scalar(buffer, from, to);
+    }
+  }
+
+  private static final class Swar implements Backend {
+    @Override
+    public String name() {
+      return "swar";
+    }
+
+    @Override
+    public long indexOfSoh(MemorySegment buffer, long from, long to) {
+      long p = from;
+      for (; p + 16 <= to; p += 16) {
+        long match = FixFraming.swarMatchSoh(buffer.get(LONG_LE, p));
+        if (match != 0) {
+          return p + (Long.numberOfTrailingZeros(match) >>> 3);
+        }
+        match = FixFraming.swarMatchSoh(buffer.get(LONG_LE, p + 8));
+        if (match != 0) {
+          return p + 8 + (Long.numberOfTrailingZeros(match) >>> 3);
+        }
+      }
+      return swarTail(buffer, p, to);
+    }
+  }
+
+  private static final class SwarAligned implements Backend {
+    @Override
+    public String name() {
+      return "swar-aligned";
+    }
+
+    @Override
+    public long indexOfSoh(MemorySegment buffer, long from, long to) {
+      long p = from;
+      long aligned = Math.min(to, p + (-(buffer.address() + p) & 7));
+      for (; p < aligned; p++) {
+        if (buffer.get(ValueLayout.JAVA_BYTE, p) == FixFraming.SOH) {
+          return p;
+        }
+      }
+      return swarTail(buffer, p, to);
+    }
+  }
+}
@@ -0,0 +1,184 @@
+package com.example.fix;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+// One blocking FIX session served by its own thread (normally virtual) on a
+// FixSessionServer. The thread reads into a pooled off-heap receive buffer
+// through a ByteBuffer view, a FixFramer frames in place and the Handler gets
+// each message where it landed, so session logic is plain sequential code:
+// read, parse, reply.
+//
+// Replies are appended to the pooled send buffer (send() or prepareSend()/
+// commitSend()) and written after the handler has seen every message of the
+// current read, one blocking write per read. prepareSend() writes out early
+// when the buffer is full. Everything except close() and the counters belongs
+// to the session's own thread.
+public final class FixSession implements AutoCloseable {
+  public interface Handler {
+    // The message is valid until the call returns.
+    void onMessage(FixSession session, MemorySegment buffer, long offset, int length);
+
+    default void onConnected(FixSession session) {
+    }
+
+    default void onDisconnected(FixSession session) {
+    }
+  }
+
+  private final int id;
+  private final SocketChannel channel;
+  private final Handler handler;
+  private final FixFramer framer;
+  private final ByteBuffer receiveView;
+  private final MemorySegment sendBuffer;
+  private final ByteBuffer sendView;
+  private final int sendCapacity;
+
+  private int sendPosition;
+  private volatile boolean closed;
+  private Object attachment;
+
+  private long messagesReceived;
+  private long bytesReceived;
+  private long bytesSent;
+  private long writes;
+
+  FixSession(int id, SocketChannel channel, MemorySegment receiveBuffer, MemorySegment sendBuffer,
+      Handler handler) {
+    this.id = id;
+    this.channel = channel;
+    this.handler = handler;
+    this.framer = new FixFramer(receiveBuffer, this::onFramed);
+    this.receiveView = receiveBuffer.asByteBuffer();
+    this.sendBuffer = sendBuffer;
+    this.sendView = sendBuffer.asByteBuffer();
+    this.sendCapacity = (int) sendBuffer.byteSize();
+  }
+
+  // Index of the session's pooled buffers; unique among live sessions.
+  public int id() {
+    return id;
+  }
+
+  public boolean isOpen() {
+    return !closed;
+  }
+
+  public void attach(Object attachment) {
+    this.attachment = attachment;
+  }
+
+  public Object attachment() {
+    return attachment;
+  }
+
+  public MemorySegment sendBuffer() {
+    return sendBuffer;
+  }
+
+  // Offset in sendBuffer() to write a message of up to length bytes at,
+  // writing out what is queued first if needed. -1 if the session is closed
+  // or the message is larger than the send buffer.
+  public long prepareSend(int length) {
+    if (closed || length > sendCapacity) {
+      return -1;
+    }
+    if (sendCapacity - sendPosition < length) {
+      flush();
+    }
+    return sendPosition;
+  }
+
+  public void commitSend(int length) {
+    sendPosition += length;
+  }
+
+  public boolean send(MemorySegment source, long offset, int length) {
+    long at = prepareSend(length);
+    if (at < 0) {
+      return false;
+    }
+    MemorySegment.copy(source, offset, sendBuffer, at, length);
+    commitSend(length);
+    return true;
+  }
+
+  // Blocks until everything queued has been written. A failed write ends
+  // the session (UncheckedIOException out of the handler).
+  public void flush() {
+    if (sendPosition == 0) {
+      return;
+    }
+    sendView.limit(sendPosition).position(0);
+    try {
+      while (sendView.hasRemaining()) {
+        bytesSent += channel.write(sendView);
+        writes++;
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    sendPosition = 0;
+  }
+
+  public long messagesReceived() {
+    return messagesReceived;
+  }
+
+  public long bytesReceived() {
+    return bytesReceived;
+  }
+
+  public long bytesSent() {
+    return bytesSent;
+  }
+
+  public long writes() {
+    return writes;
+  }
+
+  public long discardedBytes() {
+    return framer.discardedBytes();
+  }
+
+  // Closes the socket; a read blocked on it fails and the session thread
+  // ends. Safe from any thread.
+  @Override
+  public void close() {
+    closed = true;
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+      // Nothing left to release.
+    }
+  }
+
+  SocketChannel channel() {
+    return channel;
+  }
+
+  // The session thread's loop: returns at end of stream or once closed.
+  void run() throws IOException {
+    while (!closed) {
+      long room = framer.prepareWrite();
+      int start = (int) framer.writePosition();
+      receiveView.limit(start + (int) room).position(start);
+      int n = channel.read(receiveView);
+      if (n < 0) {
+        return;
+      }
+      bytesReceived += n;
+      framer.commit(n);
+      flush();
+    }
+  }
+
+  private void onFramed(MemorySegment buffer, long offset, int length) {
+    messagesReceived++;
+    handler.onMessage(this, buffer, offset, length);
+  }
+}
@@ -0,0 +1,186 @@
+package com.example.fix;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.MemorySegment;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Thread-per-session FIX server: the blocking alternative to FixEventLoop.
+// An acceptor thread takes connections off a blocking ServerSocketChannel and
+// starts one thread per session, virtual by default, which runs the session's
+// read/parse/reply loop (see FixSession). Blocking reads park a virtual
+// thread instead of an OS thread, so tens of thousands of sessions need no
+// selector.
+//
+// Receive and send buffers come from one FixBufferPool sized for maxSessions
+// up front, so off-heap memory per session is fixed and nothing is allocated
+// per message. A connection arriving while every buffer is in use is closed
+// and counted in rejected(). A failed accept (e.g. EMFILE when out of file
+// descriptors) is counted in acceptErrors() and retried after
+// ACCEPT_BACKOFF_MILLIS; the acceptor only stops when the server is closed.
+public final class FixSessionServer implements AutoCloseable {
+  public enum Threading {
+    VIRTUAL,
+    PLATFORM
+  }
+
+  private static final int BACKLOG = 4096;
+  private static final long CLOSE_TIMEOUT_NANOS = 5_000_000_000L;
+  private static final long ACCEPT_BACKOFF_MILLIS = 10;
+
+  private final int receiveBufferSize;
+  private final FixSession.Handler handler;
+  private final FixBufferPool pool;
+  private final ThreadFactory sessionThreads;
+  private final AtomicReferenceArray<FixSession> sessions;
+  private final AtomicInteger active = new AtomicInteger();
+
+  private ServerSocketChannel server;
+  private Thread acceptor;
+  private volatile boolean running;
+  private volatile long rejected;
+  private volatile long acceptErrors;
+
+  public FixSessionServer(int maxSessions, int receiveBufferSize, int sendBufferSize, Threading threading,
+      FixSession.Handler handler) {
+    this.receiveBufferSize = receiveBufferSize;
+    this.handler = handler;
+    this.pool = new FixBufferPool(maxSessions, receiveBufferSize + sendBufferSize);
+    this.sessionThreads = threading == Threading.VIRTUAL
+        ? Thread.ofVirtual().name("fix-session-", 0).factory()
+        : Thread.ofPlatform().name("fix-session-", 0).daemon().factory();
+    this.sessions = new AtomicReferenceArray<>(maxSessions);
+  }
+
+  // Binds (port 0 picks a free port), starts accepting and returns the bound
+  // address.
+  public InetSocketAddress listen(InetSocketAddress address) throws IOException {
+    if (server != null) {
+      throw new IllegalStateException("Server already listening");
+    }
+    server = ServerSocketChannel.open();
+    server.bind(address, BACKLOG);
+    running = true;
+    acceptor = Thread.ofPlatform().name("fix-acceptor").daemon().start(this::accept);
+    return (InetSocketAddress) server.getLocalAddress();
+  }
+
+  public int sessions() {
+    return active.get();
+  }
+
+  public long rejected() {
+    return rejected;
+  }
+
+  public long acceptErrors() {
+    return acceptErrors;
+  }
+
+  // Stops accepting, closes every session and waits for their threads to
+  // finish before freeing the buffers.
+  @Override
+  public void close() {
+    running = false;
+    if (server != null) {
+      try {
+        server.close();
+        acceptor.join();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    for (int i = 0; i < sessions.length(); i++) {
+      FixSession session = sessions.get(i);
+      if (session != null) {
+        session.close();
+      }
+    }
+    long deadline = System.nanoTime() + CLOSE_TIMEOUT_NANOS;
+    while (active.get() > 0) {
+      if (System.nanoTime() > deadline) {
+        throw new IllegalStateException(active.get() + " sessions did not stop");
+      }
+      Thread.onSpinWait();
+      Thread.yield();
+    }
+    pool.close();
+  }
+
+  private void accept() {
+    while (running) {
+      SocketChannel channel;
+      try {
+        channel = server.accept();
+      } catch (IOException e) {
+        if (!running || !server.isOpen()) {
+          return;
+        }
+        acceptErrors++;
+        try {
+          Thread.sleep(ACCEPT_BACKOFF_MILLIS);
+        } catch (InterruptedException interrupted) {
+          return;
+        }
+        continue;
+      }
+      int index = pool.acquire();
+      if (index == FixBufferPool.NONE) {
+        rejected++;
+        closeQuietly(channel);
+        continue;
+      }
+      MemorySegment buffers = pool.buffer(index);
+      FixSession session = new FixSession(index, channel,
+          buffers.asSlice(0, receiveBufferSize),
+          buffers.asSlice(receiveBufferSize), handler);
+      sessions.set(index, session);
+      active.incrementAndGet();
+      try {
+        sessionThreads.newThread(() -> serve(session, index)).start();
+      } catch (RuntimeException | OutOfMemoryError e) {
+        // No thread for the session (e.g. the OS thread limit with PLATFORM).
+        acceptErrors++;
+        session.close();
+        sessions.set(index, null);
+        pool.release(index);
+        active.decrementAndGet();
+      }
+    }
+  }
+
+  private void serve(FixSession session, int index) {
+    try {
+      session.channel().setOption(StandardSocketOptions.TCP_NODELAY, true);
+      handler.onConnected(session);
+      session.run();
+    } catch (IOException | UncheckedIOException e) {
+      // The peer went away or the server is closing; either ends the session.
+    } finally {
+      session.close();
+      try {
+        handler.onDisconnected(session);
+      } finally {
+        sessions.set(index, null);
+        pool.release(index);
+        active.decrementAndGet();
+      }
+    }
+  }
+
+  private static void closeQuietly(SocketChannel channel) {
+    try {
+      channel.close();
+    } catch (IOException ignored) {
+      // Rejected anyway.
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.example.fix;
+
+// Per-stage timing for the framing and parsing path, one LatencyRecorder per
+// Stage. Timing is switched on for the whole process with -Dfix.timing=true.
+// ENABLED is a static final, so with the property unset the JIT folds every
+// "if (FixStageTimers.ENABLED && ...)" in FixFramer and
+// FixNewOrderSingleParser away and the hot path is the same as without
+// timers.
+//
+// When on, the framer times every message it emits, and the parser times one
+// message in sampleEvery (-Dfix.timing.sample, default 64). A timed parse
+// reads the clock at every field boundary, splitting the field loop into
+// TOKENIZING (finding the tag, '=' and SOH) and DECODING (the switch that
+// converts the value), and records its TOTAL; the clock reads themselves
+// (some 20 ns each) are part of the figures, so compare stages with each
+// other and TOTAL with an untimed run.
+//
+// One recording thread per instance: give the framer and parser of a
+// session or worker the same instance, and read it from anywhere with
+// snapshot().
+public final class FixStageTimers {
+  public static final boolean ENABLED = Boolean.getBoolean("fix.timing");
+
+  public enum Stage {
+    FRAMING,
+    TOKENIZING,
+    DECODING,
+    TOTAL
+  }
+
+  private static final Stage[] STAGES = Stage.values();
+
+  private final LatencyRecorder[] recorders = new LatencyRecorder[STAGES.length];
+  private final int sampleMask;
+  private int sampleCounter;
+
+  public FixStageTimers() {
+    this(Integer.getInteger("fix.timing.sample", 64));
+  }
+
+  // sampleEvery must be a power of two; 1 times every parse.
+  public FixStageTimers(int sampleEvery) {
+    if (sampleEvery <= 0 || Integer.bitCount(sampleEvery) != 1) {
+      throw new IllegalArgumentException("sampleEvery must be a power of two");
+    }
+    this.sampleMask = sampleEvery - 1;
+    for (int i = 0; i < recorders.length; i++) {
+      recorders[i] = new LatencyRecorder();
+    }
+  }
+
+  // See LatencyRecorder.snapshot.
+  public LatencyHistogram snapshot(Stage stage, LatencyHistogram recycle) {
+    return recorders[stage.ordinal()].snapshot(recycle);
+  }
+
+  boolean sample() {
+    return (sampleCounter++ & sampleMask) == 0;
+  }
+
+  void record(Stage stage, long nanos) {
+    recorders[stage.ordinal()].record(nanos);
+  }
+}
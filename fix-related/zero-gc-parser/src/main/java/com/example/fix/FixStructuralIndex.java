@@ -0,0 +1,159 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// Two-stage tokenizer in the style of simdjson's structural index.
+//
+// Stage one makes a single Vector API pass over the whole message and records
+// every '=' and SOH position as a bit in two reusable long[] bitmaps (bit i of
+// word i >>> 6 is byte i). Stage two walks the bitmaps with
+// numberOfTrailingZeros and emits (tag, valueOffset, valueLength) triples, so
+// short fields like 35=D and 54=1 cost a couple of bit operations instead of a
+// byte loop. Works with any vector width; 128-bit machines fill a bitmap word
+// from four vectors.
+//
+// Capacity is fixed at construction; index() rejects longer messages rather
+// than growing, so the hot path never allocates.
+public final class FixStructuralIndex {
+  private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+  private static final int LANES = SPECIES.length();
+
+  private final long[] equalsBits;
+  private final long[] sohBits;
+  private final int[] tags;
+  private final int[] valueOffsets;
+  private final int[] valueLengths;
+  private final int capacity;
+
+  private int fieldCount;
+
+  public FixStructuralIndex(int maxMessageLength) {
+    if (maxMessageLength <= 0) {
+      throw new IllegalArgumentException("maxMessageLength must be positive");
+    }
+    capacity = maxMessageLength;
+    int words = (maxMessageLength + 63) >>> 6;
+    equalsBits = new long[words];
+    sohBits = new long[words];
+    // The shortest possible field is "1=<SOH>".
+    int maxFields = maxMessageLength / 3 + 1;
+    tags = new int[maxFields];
+    valueOffsets = new int[maxFields];
+    valueLengths = new int[maxFields];
+  }
+
+  public static String species() {
+    return SPECIES.toString();
+  }
+
+  // Tokenizes buffer[offset, offset + length). Returns false for a message
+  // longer than the capacity, a non-digit or empty tag, or a field without a
+  // terminating SOH. Value offsets are relative to offset.
+  public boolean index(MemorySegment buffer, long offset, int length) {
+    fieldCount = 0;
+    if (length > capacity) {
+      return false;
+    }
+    markStructurals(buffer, offset, length);
+    return walk(buffer, offset, length);
+  }
+
+  public int fieldCount() {
+    return fieldCount;
+  }
+
+  public int tag(int field) {
+    return tags[field];
+  }
+
+  public int valueOffset(int field) {
+    return valueOffsets[field];
+  }
+
+  public int valueLength(int field) {
+    return valueLengths[field];
+  }
+
+  // Stage one. Lane masks from consecutive vectors are packed into the same
+  // 64-bit word; LANES divides 64 for every supported shape.
+  private void markStructurals(MemorySegment buffer, long offset, int length) {
+    int words = (length + 63) >>> 6;
+    for (int w = 0; w < words; w++) {
+      equalsBits[w] = 0;
+      sohBits[w] = 0;
+    }
+
+    int i = 0;
+    int vectorLimit = length - LANES;
+    for (; i <= vectorLimit; i += LANES) {
+      ByteVector vector = ByteVector.fromMemorySegment(SPECIES, buffer, offset + i, ByteOrder.LITTLE_ENDIAN);
+      int word = i >>> 6;
+      int shift = i & 63;
+      equalsBits[word] |= vector.eq((byte) '=').toLong() << shift;
+      sohBits[word] |= vector.eq(FixFraming.SOH).toLong() << shift;
+    }
+    for (; i < length; i++) {
+      byte b = buffer.get(ValueLayout.JAVA_BYTE, offset + i);
+      if (b == '=') {
+        equalsBits[i >>> 6] |= 1L << i;
+      } else if (b == FixFraming.SOH) {
+        sohBits[i >>> 6] |= 1L << i;
+      }
+    }
+  }
+
+  // Stage two. Each field is the first '=' at or after the field start, then
+  // the first SOH after that '='; '=' inside a value is skipped naturally.
+  private boolean walk(MemorySegment buffer, long offset, int length) {
+    int words = (length + 63) >>> 6;
+    int count = 0;
+    int fieldStart = 0;
+    while (fieldStart < length) {
+      int equals = nextSetBit(equalsBits, fieldStart, words);
+      if (equals < 0 || equals == fieldStart) {
+        return false;
+      }
+      int soh = nextSetBit(sohBits, equals + 1, words);
+      if (soh < 0) {
+        return false;
+      }
+
+      int tag = 0;
+      for (long p = offset + fieldStart, end = offset + equals; p < end; p++) {
+        int digit = buffer.get(ValueLayout.JAVA_BYTE, p) - '0';
+        if (digit < 0 || digit > 9) {
+          return false;
+        }
+        tag = tag * 10 + digit;
+      }
+
+      tags[count] = tag;
+      valueOffsets[count] = equals + 1;
+      valueLengths[count] = soh - equals - 1;
+      count++;
+      fieldStart = soh + 1;
+    }
+    fieldCount = count;
+    return true;
+  }
+
+  private static int nextSetBit(long[] bits, int from, int words) {
+    int word = from >>> 6;
+    if (word >= words) {
+      return -1;
+    }
+    long current = bits[word] & (-1L << from);
+    while (current == 0) {
+      if (++word == words) {
+        return -1;
+      }
+      current = bits[word];
+    }
+    return (word << 6) + Long.numberOfTrailingZeros(current);
+  }
+}
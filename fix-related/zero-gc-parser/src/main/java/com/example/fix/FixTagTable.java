@@ -0,0 +1,96 @@
+package com.example.fix;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Immutable tag -> slot map built once at startup. Slots are 1..size() in
+// registration order; 0 means the tag is not registered.
+//
+// Tags below DENSE_LIMIT (every standard FIX 4.x tag, including group tags such
+// as 453/448) index a flat array. Larger tags (user-defined 5000-9999 and
+// beyond) go through a multiplicative hash whose multiplier is searched at
+// build time until no two registered tags collide, so a lookup is always one
+// multiply, one shift and one compare.
+public final class FixTagTable {
+  static final int DENSE_LIMIT = 1024;
+
+  private static final int MAX_ATTEMPTS = 4096;
+
+  private final int[] dense = new int[DENSE_LIMIT];
+  private final int[] sparseKeys;
+  private final int[] sparseSlots;
+  private final int multiplier;
+  private final int shift;
+  private final int size;
+
+  public FixTagTable(int... tags) {
+    int sparseCount = 0;
+    for (int i = 0; i < tags.length; i++) {
+      int tag = tags[i];
+      if (tag <= 0) {
+        throw new IllegalArgumentException("Tag must be positive: " + tag);
+      }
+      for (int j = 0; j < i; j++) {
+        if (tags[j] == tag) {
+          throw new IllegalArgumentException("Duplicate tag: " + tag);
+        }
+      }
+      if (tag < DENSE_LIMIT) {
+        dense[tag] = i + 1;
+      } else {
+        sparseCount++;
+      }
+    }
+    size = tags.length;
+
+    int bits = 1;
+    while ((1 << bits) < sparseCount * 2) {
+      bits++;
+    }
+    SplittableRandom random = new SplittableRandom(0x9E3779B9L);
+    while (true) {
+      int[] keys = new int[1 << bits];
+      int[] slots = new int[1 << bits];
+      for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+        int candidate = random.nextInt() | 1;
+        if (place(tags, candidate, 32 - bits, keys, slots)) {
+          sparseKeys = keys;
+          sparseSlots = slots;
+          multiplier = candidate;
+          shift = 32 - bits;
+          return;
+        }
+      }
+      bits++;
+    }
+  }
+
+  private static boolean place(int[] tags, int multiplier, int shift, int[] keys, int[] slots) {
+    Arrays.fill(keys, 0);
+    for (int i = 0; i < tags.length; i++) {
+      int tag = tags[i];
+      if (tag < DENSE_LIMIT) {
+        continue;
+      }
+      int index = (tag * multiplier) >>> shift;
+      if (keys[index] != 0) {
+        return false;
+      }
+      keys[index] = tag;
+      slots[index] = i + 1;
+    }
+    return true;
+  }
+
+  public int slot(int tag) {
+    if (tag >= 0 && tag < DENSE_LIMIT) {
+      return dense[tag];
+    }
+    int index = (tag * multiplier) >>> shift;
+    return sparseKeys[index] == tag ? sparseSlots[index] : 0;
+  }
+
+  public int size() {
+    return size;
+  }
+}
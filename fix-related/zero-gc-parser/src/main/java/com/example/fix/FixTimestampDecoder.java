@@ -0,0 +1,143 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+
+// Decodes UTCTimestamp values (YYYYMMDD-HH:MM:SS[.fraction], 1-9 fraction
+// digits) to epoch nanoseconds without allocating.
+//
+// The date and the time are each one 8-byte SWAR load. Messages in a session
+// share the date, so the start of the last decoded day is cached by the raw
+// YYYYMMDD word and the calendar arithmetic runs only when the date changes.
+// One decoder per thread; it is not thread-safe.
+public final class FixTimestampDecoder {
+  public static final long INVALID = Long.MIN_VALUE;
+
+  private static final ValueLayout.OfLong LONG_LE =
+      ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+  private static final int SECONDS_LENGTH = 17;
+  private static final int MAX_LENGTH = SECONDS_LENGTH + 1 + 9;
+
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+  private static final long NANOS_PER_DAY = 86_400L * NANOS_PER_SECOND;
+
+  // "HH:MM:SS" with the two ':' lanes isolated, and the same word with '0' in
+  // those lanes, which turns it into the 8-digit number HH0MM0SS.
+  private static final long COLON_LANES = 0x0000FF0000FF0000L;
+  private static final long COLONS = (long) ':' << 16 | (long) ':' << 40;
+  private static final long ZERO_LANES = (long) '0' << 16 | (long) '0' << 40;
+
+  private static final long[] FRACTION_SCALE = {
+      0, 100_000_000L, 10_000_000L, 1_000_000L, 100_000L, 10_000L, 1_000L, 100L, 10L, 1L
+  };
+
+  // All 0xFF bytes, which no valid date word matches. Starting at 0 would let
+  // eight NUL bytes hit the empty cache and skip validation.
+  private long cachedDate = -1L;
+  private long cachedDayStartNanos;
+
+  // Returns epoch nanoseconds, or INVALID if the value is not a UTCTimestamp.
+  public long decode(MemorySegment buffer, long offset, int length) {
+    if (length < SECONDS_LENGTH || length > MAX_LENGTH || length == SECONDS_LENGTH + 1) {
+      return INVALID;
+    }
+
+    long date = buffer.get(LONG_LE, offset);
+    long dayStart;
+    if (date == cachedDate) {
+      dayStart = cachedDayStartNanos;
+    } else {
+      dayStart = dayStartNanos(date);
+      if (dayStart == INVALID) {
+        return INVALID;
+      }
+      cachedDate = date;
+      cachedDayStartNanos = dayStart;
+    }
+
+    if (buffer.get(ValueLayout.JAVA_BYTE, offset + 8) != '-') {
+      return INVALID;
+    }
+    long time = buffer.get(LONG_LE, offset + 9);
+    if ((time & COLON_LANES) != COLONS) {
+      return INVALID;
+    }
+    time = (time & ~COLON_LANES) | ZERO_LANES;
+    if (!FixDecoding.isDigits(time)) {
+      return INVALID;
+    }
+    int hhmmss = (int) FixDecoding.eightDigits(time);
+    int hours = hhmmss / 1_000_000;
+    int minutes = hhmmss / 1_000 % 1_000;
+    int seconds = hhmmss % 1_000;
+    // Second 60 is a leap second, which FIX allows.
+    if (hours > 23 || minutes > 59 || seconds > 60) {
+      return INVALID;
+    }
+
+    long nanos = 0;
+    if (length > SECONDS_LENGTH) {
+      if (buffer.get(ValueLayout.JAVA_BYTE, offset + SECONDS_LENGTH) != '.') {
+        return INVALID;
+      }
+      long fractionStart = offset + SECONDS_LENGTH + 1;
+      long fraction = FixDecoding.parseLong(buffer, fractionStart, offset + length);
+      if (fraction < 0) {
+        return INVALID;
+      }
+      nanos = fraction * FRACTION_SCALE[length - SECONDS_LENGTH - 1];
+    }
+
+    return dayStart + ((hours * 60L + minutes) * 60L + seconds) * NANOS_PER_SECOND + nanos;
+  }
+
+  public long sendingTime(FixNewOrderSingle order) {
+    return decodeField(order, order.sendingTimeOffset(), order.sendingTimeLength());
+  }
+
+  public long transactTime(FixNewOrderSingle order) {
+    return decodeField(order, order.transactTimeOffset(), order.transactTimeLength());
+  }
+
+  private long decodeField(FixNewOrderSingle order, int offset, int length) {
+    if (offset < 0) {
+      return INVALID;
+    }
+    return decode(order.buffer(), order.baseOffset() + offset, length);
+  }
+
+  private static long dayStartNanos(long date) {
+    if (!FixDecoding.isDigits(date)) {
+      return INVALID;
+    }
+    int yyyymmdd = (int) FixDecoding.eightDigits(date);
+    int year = yyyymmdd / 10_000;
+    int month = yyyymmdd / 100 % 100;
+    int day = yyyymmdd % 100;
+    if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+      return INVALID;
+    }
+    return epochDay(year, month, day) * NANOS_PER_DAY;
+  }
+
+  private static int daysInMonth(int year, int month) {
+    return switch (month) {
+      case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+      case 4, 6, 9, 11 -> 30;
+      default -> 31;
+    };
+  }
+
+  // Days since 1970-01-01 in the proleptic Gregorian calendar, counting years
+  // from March so that the leap day is the last day of the year.
+  private static long epochDay(int year, int month, int day) {
+    int y = month <= 2 ? year - 1 : year;
+    int era = y / 400;
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146_097L + dayOfEra - 719_468;
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.fix;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteOrder;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+// FixScanner's vector backend: ByteVector.SPECIES_PREFERRED compares, then
+// SWAR for the rest (parser-v2/Main). Kept out of FixScanner so that only
+// this class links against jdk.incubator.vector; FixScanner loads it only
+// when the module is in the boot layer (--add-modules jdk.incubator.vector).
+final class FixVectorScanner implements FixScanner.Backend {
+  private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+  private static final int LANES = SPECIES.length();
+
+  static int bits() {
+    return LANES * 8;
+  }
+
+  @Override
+  public String name() {
+    return "vector";
+  }
+
+  @Override
+  public long indexOfSoh(MemorySegment buffer, long from, long to) {
+    long p = from;
+    for (; p + LANES <= to; p += LANES) {
+      ByteVector vector = ByteVector.fromMemorySegment(SPECIES, buffer, p, ByteOrder.LITTLE_ENDIAN);
+      int first = vector.eq(FixFraming.SOH).firstTrue();
+      if (first < LANES) {
+        return p + first;
+      }
+    }
+    return FixScanner.swarTail(buffer, p, to);
+  }
+}
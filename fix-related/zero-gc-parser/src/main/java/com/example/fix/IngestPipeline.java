@@ -0,0 +1,309 @@
+package com.example.fix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// Spreads parsing over several cores in the style of the LMAX Disruptor. One
+// ring of preallocated slots connects three stages:
+//
+//   framer   the thread calling onMessage (normally a FixFramer's handler)
+//            copies each message into the next slot and picks its partition
+//   workers  N threads; each parses only the slots of its own partition into
+//            the slot's reusable FixNewOrderSingle
+//   handler  one thread that hands the slots to an OrderHandler in publish
+//            order once every worker has passed them
+//
+// Partitioning by session (SenderCompID/TargetCompID) or Symbol keeps all
+// messages of one key on one worker, so per-key parser state stays
+// single-threaded. The handler sees every message in arrival order regardless.
+//
+// Stages only communicate through PaddedSequences: each publishes how far it
+// got and waits on the sequences of the stage before it (the framer waits on
+// the handler so it never overwrites an unhandled slot). Waiting busy-spins
+// and then yields. Nothing is allocated after construction.
+public final class IngestPipeline implements FixFramer.MessageHandler, AutoCloseable {
+  public enum Partitioning {
+    SESSION,
+    SYMBOL,
+    ROUND_ROBIN
+  }
+
+  public interface OrderHandler {
+    // The order and its message bytes are valid until the call returns.
+    void onOrder(long sequence, FixNewOrderSingle order);
+
+    // Messages that are not NewOrderSingles or failed to parse.
+    default void onOther(long sequence, MemorySegment buffer, long offset, int length) {
+    }
+  }
+
+  private static final int NOT_ORDER = -1;
+  private static final int SPINS_BEFORE_YIELD = 1 << 10;
+
+  private final int ringSize;
+  private final int mask;
+  private final int slotBytes;
+  private final int workerCount;
+  private final Partitioning partitioning;
+  private final OrderHandler handler;
+
+  private final Arena arena;
+  private final MemorySegment slab;
+  private final int[] lengths;
+  private final int[] partitions;
+  private final boolean[] parsed;
+  private final FixNewOrderSingle[] orders;
+
+  private final PaddedSequence cursor = new PaddedSequence();
+  private final PaddedSequence[] workerSequences;
+  private final PaddedSequence handlerSequence = new PaddedSequence();
+  private final Thread[] threads;
+
+  private volatile boolean running = true;
+  private volatile Throwable failure;
+
+  // Framer-thread state.
+  private long nextSequence;
+  private long cachedGate = PaddedSequence.INITIAL;
+  private int nextWorker;
+  private long oversized;
+
+  public IngestPipeline(int ringSize, int maxMessageLength, int workers,
+      Partitioning partitioning, boolean validate, OrderHandler handler) {
+    if (ringSize <= 0 || Integer.bitCount(ringSize) != 1) {
+      throw new IllegalArgumentException("ringSize must be a power of two");
+    }
+    if (maxMessageLength <= 0) {
+      throw new IllegalArgumentException("maxMessageLength must be positive");
+    }
+    if (workers <= 0) {
+      throw new IllegalArgumentException("workers must be positive");
+    }
+    this.ringSize = ringSize;
+    this.mask = ringSize - 1;
+    this.slotBytes = (maxMessageLength + 63) & ~63;
+    this.workerCount = workers;
+    this.partitioning = partitioning;
+    this.handler = handler;
+
+    this.arena = Arena.ofShared();
+    this.slab = arena.allocate((long) ringSize * slotBytes, 64);
+    this.lengths = new int[ringSize];
+    this.partitions = new int[ringSize];
+    this.parsed = new boolean[ringSize];
+    this.orders = new FixNewOrderSingle[ringSize];
+    for (int i = 0; i < ringSize; i++) {
+      orders[i] = new FixNewOrderSingle();
+    }
+
+    this.workerSequences = new PaddedSequence[workers];
+    this.threads = new Thread[workers + 1];
+    for (int w = 0; w < workers; w++) {
+      workerSequences[w] = new PaddedSequence();
+      int partition = w;
+      FixNewOrderSingleParser parser = new FixNewOrderSingleParser(validate);
+      threads[w] = stage("fix-parser-" + w, () -> parse(partition, parser));
+    }
+    threads[workers] = stage("fix-handler", this::handle);
+    for (Thread thread : threads) {
+      thread.start();
+    }
+  }
+
+  // Publishes one message. Must always be called from the same thread. Blocks
+  // while the ring is full; messages longer than a slot (maxMessageLength
+  // rounded up to 64 bytes) are dropped and counted.
+  @Override
+  public void onMessage(MemorySegment buffer, long offset, int length) {
+    if (length > slotBytes) {
+      oversized++;
+      return;
+    }
+    long sequence = nextSequence;
+    long wrapPoint = sequence - ringSize;
+    if (cachedGate < wrapPoint) {
+      int spins = 0;
+      while ((cachedGate = handlerSequence.get()) < wrapPoint) {
+        spins = idle(spins);
+      }
+    }
+    int index = (int) sequence & mask;
+    MemorySegment.copy(buffer, offset, slab, (long) index * slotBytes, length);
+    lengths[index] = length;
+    partitions[index] = route(buffer, offset, length);
+    cursor.set(sequence);
+    nextSequence = sequence + 1;
+  }
+
+  // Waits until the handler has seen every published message.
+  public void drain() {
+    long last = nextSequence - 1;
+    int spins = 0;
+    while (handlerSequence.get() < last) {
+      spins = idle(spins);
+    }
+  }
+
+  public long published() {
+    return nextSequence;
+  }
+
+  public long handled() {
+    return handlerSequence.get() + 1;
+  }
+
+  public long oversized() {
+    return oversized;
+  }
+
+  public int workers() {
+    return workerCount;
+  }
+
+  // Drains, stops the stage threads and frees the ring.
+  @Override
+  public void close() {
+    try {
+      if (failure == null) {
+        drain();
+      }
+    } finally {
+      running = false;
+      for (Thread thread : threads) {
+        try {
+          thread.join();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      arena.close();
+    }
+  }
+
+  private void parse(int partition, FixNewOrderSingleParser parser) {
+    PaddedSequence sequence = workerSequences[partition];
+    long next = 0;
+    int spins = 0;
+    while (true) {
+      long available = cursor.get();
+      if (available < next) {
+        if (!running) {
+          return;
+        }
+        spins = idle(spins);
+        continue;
+      }
+      spins = 0;
+      for (long s = next; s <= available; s++) {
+        int index = (int) s & mask;
+        if (partitions[index] == partition) {
+          parsed[index] = parser.parse(slab, (long) index * slotBytes, lengths[index], orders[index]);
+        }
+      }
+      sequence.set(available);
+      next = available + 1;
+    }
+  }
+
+  private void handle() {
+    long next = 0;
+    int spins = 0;
+    while (true) {
+      long available = minimumWorkerSequence();
+      if (available < next) {
+        if (!running) {
+          return;
+        }
+        spins = idle(spins);
+        continue;
+      }
+      spins = 0;
+      for (long s = next; s <= available; s++) {
+        int index = (int) s & mask;
+        if (partitions[index] != NOT_ORDER && parsed[index]) {
+          handler.onOrder(s, orders[index]);
+        } else {
+          handler.onOther(s, slab, (long) index * slotBytes, lengths[index]);
+        }
+      }
+      handlerSequence.set(available);
+      next = available + 1;
+    }
+  }
+
+  private long minimumWorkerSequence() {
+    long minimum = Long.MAX_VALUE;
+    for (PaddedSequence sequence : workerSequences) {
+      minimum = Math.min(minimum, sequence.get());
+    }
+    return minimum;
+  }
+
+  // Only NewOrderSingles go to a worker. The session key sits in the first
+  // few header fields, so SESSION stops scanning long before the body; SYMBOL
+  // walks fields up to 55.
+  private int route(MemorySegment buffer, long offset, int length) {
+    if (FixFraming.peekMsgType(buffer, offset, length) != 'D') {
+      return NOT_ORDER;
+    }
+    if (workerCount == 1) {
+      return 0;
+    }
+    if (partitioning == Partitioning.ROUND_ROBIN) {
+      int worker = nextWorker;
+      nextWorker = worker + 1 == workerCount ? 0 : worker + 1;
+      return worker;
+    }
+
+    int wanted = partitioning == Partitioning.SESSION ? 2 : 1;
+    long h = 0;
+    long limit = offset + length;
+    long p = offset;
+    while (wanted > 0 && p < limit) {
+      int tag = 0;
+      byte b;
+      while (p < limit && (b = buffer.get(ValueLayout.JAVA_BYTE, p)) != '=') {
+        tag = tag * 10 + (b - '0');
+        p++;
+      }
+      long valueStart = p + 1;
+      long soh = FixFraming.indexOfSoh(buffer, valueStart, limit);
+      if (soh < 0) {
+        break;
+      }
+      if (partitioning == Partitioning.SESSION ? tag == 49 || tag == 56 : tag == 55) {
+        h = Long.rotateLeft(h, 31) ^ FixHash.hash(buffer, valueStart, (int) (soh - valueStart));
+        wanted--;
+      }
+      p = soh + 1;
+    }
+    return (int) Long.remainderUnsigned(h, workerCount);
+  }
+
+  private int idle(int spins) {
+    if (failure != null) {
+      throw new IllegalStateException("Pipeline stage failed", failure);
+    }
+    if (spins < SPINS_BEFORE_YIELD) {
+      Thread.onSpinWait();
+      return spins + 1;
+    }
+    Thread.yield();
+    return spins;
+  }
+
+  private Thread stage(String name, Runnable loop) {
+    Thread thread = new Thread(() -> {
+      try {
+        loop.run();
+      } catch (Throwable t) {
+        if (failure == null) {
+          failure = t;
+        }
+      }
+    }, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+}
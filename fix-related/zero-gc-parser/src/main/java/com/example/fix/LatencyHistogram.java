@@ -0,0 +1,110 @@
+package com.example.fix;
+
+import java.util.Arrays;
+
+// Log-linear histogram of non-negative long values (normally nanoseconds) in
+// one preallocated long[], in the style of HdrHistogram. Values below 256 get
+// a bucket each; above that every power of two is split into 128 linear
+// buckets, so a bucket is never wider than 1/128 of its values (under 0.8%
+// error). The bucket index is two shifts and an add, with no branches and no
+// floating point, and recording never allocates.
+//
+// Values above MAX_VALUE (about 18 minutes in nanoseconds) are clamped to it;
+// max() is kept exactly. Not thread-safe: one thread records, and other
+// threads read through a LatencyRecorder snapshot.
+public final class LatencyHistogram {
+  public static final long MAX_VALUE = (1L << 40) - 1;
+
+  private static final int SUB_BITS = 8;
+  private static final int HALF_BITS = SUB_BITS - 1;
+  private static final int BUCKETS = (64 - Long.numberOfLeadingZeros(MAX_VALUE) - SUB_BITS + 2) << HALF_BITS;
+
+  // The total count and the exact maximum live after the buckets, so a
+  // histogram is a single array.
+  private static final int TOTAL = BUCKETS;
+  private static final int MAX = BUCKETS + 1;
+
+  private final long[] counts = new long[BUCKETS + 2];
+
+  public void record(long value) {
+    long v = Math.min(Math.max(value, 0), MAX_VALUE);
+    counts[index(v)]++;
+    counts[TOTAL]++;
+    if (v > counts[MAX]) {
+      counts[MAX] = v;
+    }
+  }
+
+  public long count() {
+    return counts[TOTAL];
+  }
+
+  public long max() {
+    return counts[MAX];
+  }
+
+  // Smallest recorded value v such that at least quantile of all values are
+  // <= v, reported as the top of its bucket. 0 when nothing was recorded.
+  public long valueAtQuantile(double quantile) {
+    long total = counts[TOTAL];
+    if (total == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(quantile * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts[i];
+      if (seen >= target) {
+        return Math.min(highestEquivalent(i), counts[MAX]);
+      }
+    }
+    return counts[MAX];
+  }
+
+  // Mean of the bucket midpoints, weighted by their counts.
+  public double mean() {
+    long total = counts[TOTAL];
+    if (total == 0) {
+      return 0;
+    }
+    double sum = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      long n = counts[i];
+      if (n != 0) {
+        sum += n * ((lowestEquivalent(i) + highestEquivalent(i)) / 2.0);
+      }
+    }
+    return sum / total;
+  }
+
+  public void add(LatencyHistogram other) {
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] += other.counts[i];
+    }
+    counts[TOTAL] += other.counts[TOTAL];
+    counts[MAX] = Math.max(counts[MAX], other.counts[MAX]);
+  }
+
+  public void reset() {
+    Arrays.fill(counts, 0);
+  }
+
+  // For v with its highest bit at m >= SUB_BITS, shift = m - SUB_BITS + 1
+  // leaves SUB_BITS significant bits, whose top bit is always set; shift
+  // selects the block of 128 buckets and those bits the bucket within it.
+  // Below 256 shift is 0 and the index is the value itself.
+  static int index(long v) {
+    int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(v) - SUB_BITS);
+    return (shift << HALF_BITS) + (int) (v >>> shift);
+  }
+
+  static long lowestEquivalent(int index) {
+    int shift = Math.max(0, (index >>> HALF_BITS) - 1);
+    return (long) (index - (shift << HALF_BITS)) << shift;
+  }
+
+  static long highestEquivalent(int index) {
+    int shift = Math.max(0, (index >>> HALF_BITS) - 1);
+    return ((long) (index - (shift << HALF_BITS) + 1) << shift) - 1;
+  }
+}
@@ -0,0 +1,56 @@
+package com.example.fix;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// A LatencyHistogram that one thread records into while another takes
+// interval snapshots, without locks on the recording side. snapshot() swaps
+// in a cleared histogram and returns the one that was being recorded into.
+//
+// The writer brackets each record with two counters. It publishes enter
+// before reading the active histogram and exit after updating it; the
+// reader installs the new histogram, reads enter and waits until exit has
+// caught up. Either the writer saw the new histogram or the reader saw its
+// enter and waits for it, so a returned snapshot is never written again.
+// A record costs one volatile store on top of the histogram update.
+public final class LatencyRecorder {
+  private static final VarHandle ENTER;
+  private static final VarHandle EXIT;
+
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      ENTER = lookup.findVarHandle(LatencyRecorder.class, "enter", long.class);
+      EXIT = lookup.findVarHandle(LatencyRecorder.class, "exit", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private volatile LatencyHistogram active = new LatencyHistogram();
+  private long enter;
+  private long exit;
+
+  // Writer thread only.
+  public void record(long value) {
+    long e = enter + 1;
+    ENTER.setVolatile(this, e);
+    active.record(value);
+    EXIT.setRelease(this, e);
+  }
+
+  // Clears recycle, makes it the histogram being recorded into and returns
+  // the previous one, which holds everything recorded since the last
+  // snapshot. Pass the returned histogram back in next time to avoid
+  // allocating.
+  public synchronized LatencyHistogram snapshot(LatencyHistogram recycle) {
+    recycle.reset();
+    LatencyHistogram previous = active;
+    active = recycle;
+    long e = (long) ENTER.getVolatile(this);
+    while ((long) EXIT.getAcquire(this) < e) {
+      Thread.onSpinWait();
+    }
+    return previous;
+  }
+}
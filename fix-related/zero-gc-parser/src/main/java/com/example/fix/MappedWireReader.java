@@ -0,0 +1,93 @@
+package com.example.fix;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Walks a wire capture mapped with FileChannel.map and exposes each message as
+// an (offset, length) range of the mapping, ready for
+// FixNewOrderSingleParser.parse(segment(), messageOffset(), messageLength(), out).
+// Nothing is copied and nothing is allocated per message; the file never has to
+// fit in the heap. Bytes between messages (e.g. the newlines gen.py writes) are
+// skipped, and a truncated final message is not reported.
+public final class MappedWireReader implements AutoCloseable {
+  private final Arena arena;
+  private final MemorySegment segment;
+  private final long limit;
+
+  private long position;
+  private long messageOffset = -1;
+  private int messageLength;
+
+  public MappedWireReader(MemorySegment segment) {
+    this(null, segment);
+  }
+
+  private MappedWireReader(Arena arena, MemorySegment segment) {
+    this.arena = arena;
+    this.segment = segment;
+    this.limit = segment.byteSize();
+  }
+
+  public static MappedWireReader open(Path path) throws IOException {
+    Arena arena = Arena.ofShared();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      MemorySegment mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+      return new MappedWireReader(arena, mapped);
+    } catch (IOException | RuntimeException e) {
+      arena.close();
+      throw e;
+    }
+  }
+
+  public boolean next() {
+    long start = FixFraming.findMessageStart(segment, position, limit);
+    if (start < 0) {
+      position = limit;
+      return false;
+    }
+    long end = FixFraming.findMessageEnd(segment, start, limit);
+    if (end < 0) {
+      position = limit;
+      return false;
+    }
+    messageOffset = start;
+    messageLength = (int) (end - start);
+    position = end;
+    return true;
+  }
+
+  public MemorySegment segment() {
+    return segment;
+  }
+
+  public long messageOffset() {
+    return messageOffset;
+  }
+
+  public int messageLength() {
+    return messageLength;
+  }
+
+  public long position() {
+    return position;
+  }
+
+  public void position(long value) {
+    position = value;
+  }
+
+  public long limit() {
+    return limit;
+  }
+
+  @Override
+  public void close() {
+    if (arena != null) {
+      arena.close();
+    }
+  }
+}
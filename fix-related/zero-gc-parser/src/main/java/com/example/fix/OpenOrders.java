@@ -0,0 +1,101 @@
+package com.example.fix;
+
+// Matches inbound ExecutionReports (35=8) to the NewOrderSingles (35=D) that
+// created them. Orders live in an OrderStore and are found through two
+// OrderIdIndexes: by ClOrdID, which every 35=D carries, and by the OrderID the
+// counterparty assigns, learned from the first report that carries both. An
+// order is dropped when a report moves it to a terminal OrdStatus (39).
+//
+// Nothing here allocates per message. Single-threaded.
+public final class OpenOrders implements AutoCloseable {
+  public static final int NO_SLOT = OrderStore.NO_SLOT;
+
+  private final OrderStore store;
+  private final OrderIdIndex byClOrdId;
+  private final OrderIdIndex byOrderId;
+
+  public OpenOrders(int capacity) {
+    store = new OrderStore(capacity);
+    byClOrdId = new OrderIdIndex(capacity);
+    byOrderId = new OrderIdIndex(capacity);
+  }
+
+  // Returns the new order's slot, or NO_SLOT if the ClOrdID is already open,
+  // is too long to store, or the store is full.
+  public int onNewOrder(FixNewOrderSingle order) {
+    if (byClOrdId.get(order) != OrderIdIndex.NOT_FOUND) {
+      return NO_SLOT;
+    }
+    int slot = store.add(order);
+    if (slot != NO_SLOT) {
+      byClOrdId.put(order, slot);
+    }
+    return slot;
+  }
+
+  // Updates the matching order and returns its slot, or NO_SLOT if no open
+  // order matches. When the report is terminal the slot has already been
+  // released on return; its record stays readable until the next onNewOrder.
+  public int onExecutionReport(FixExecutionReport report) {
+    long base = report.baseOffset();
+    int slot = NO_SLOT;
+    if (report.clOrdIdOffset() >= 0) {
+      slot = byClOrdId.get(report.buffer(), base + report.clOrdIdOffset(), report.clOrdIdLength());
+    }
+    if (slot == NO_SLOT && report.orderIdOffset() >= 0) {
+      slot = byOrderId.get(report.buffer(), base + report.orderIdOffset(), report.orderIdLength());
+    }
+    if (slot == NO_SLOT) {
+      return NO_SLOT;
+    }
+
+    if (store.orderIdLength(slot) == 0 && report.orderIdOffset() >= 0) {
+      long orderIdOffset = base + report.orderIdOffset();
+      if (store.orderId(slot, report.buffer(), orderIdOffset, report.orderIdLength())) {
+        byOrderId.put(report.buffer(), orderIdOffset, report.orderIdLength(), slot);
+      }
+    }
+    store.fill(slot, report.cumQty(), report.ordStatus());
+
+    if (terminal(report.ordStatus())) {
+      remove(slot);
+    }
+    return slot;
+  }
+
+  public int get(FixNewOrderSingle order) {
+    return byClOrdId.get(order);
+  }
+
+  public OrderStore store() {
+    return store;
+  }
+
+  public int size() {
+    return store.size();
+  }
+
+  @Override
+  public void close() {
+    byOrderId.close();
+    byClOrdId.close();
+    store.close();
+  }
+
+  private void remove(int slot) {
+    byClOrdId.remove(store.records(), store.clOrdIdOffset(slot), store.clOrdIdLength(slot));
+    int orderIdLength = store.orderIdLength(slot);
+    if (orderIdLength > 0) {
+      byOrderId.remove(store.records(), store.orderIdOffset(slot), orderIdLength);
+    }
+    store.release(slot);
+  }
+
+  // Filled, DoneForDay, Canceled, Rejected, Expired.
+  private static boolean terminal(byte ordStatus) {
+    return switch (ordStatus) {
+      case '2', '3', '4', '8', 'C' -> true;
+      default -> false;
+    };
+  }
+}
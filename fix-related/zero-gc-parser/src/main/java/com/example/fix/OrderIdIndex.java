@@ -0,0 +1,169 @@
+package com.example.fix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// Off-heap hash index from an order identifier (ClOrdID (11), OrderID (37))
+// to an int, normally a slot in an OrderStore. Keys are read straight from
+// the parsed segment and copied inline into the table, so put, get and remove
+// allocate nothing.
+//
+// Linear probing over 64-byte slots (hash, value, length, key), kept at most
+// half full. remove uses backward-shift deletion instead of tombstones: later
+// entries of the probe chain are moved back into the hole, so the table does
+// not degrade however many orders come and go during a session.
+//
+// Single-threaded: give each session or matching thread its own index.
+public final class OrderIdIndex implements AutoCloseable {
+  public static final int NOT_FOUND = -1;
+  public static final int MAX_KEY_LENGTH = 48;
+
+  private static final int SLOT_BYTES = 64;
+  private static final long HASH_OFFSET = 0;
+  private static final long VALUE_OFFSET = 8;
+  private static final long LENGTH_OFFSET = 12;
+  private static final long KEY_OFFSET = 16;
+
+  // Stored in LENGTH_OFFSET of a free slot; real keys have length >= 0.
+  private static final int EMPTY = -1;
+
+  private final Arena arena;
+  private final MemorySegment slots;
+  private final long slotMask;
+  private final int capacity;
+
+  private int size;
+
+  public OrderIdIndex(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    long slotCount = Long.highestOneBit(Math.max(1, capacity * 2L - 1)) << 1;
+    this.capacity = capacity;
+    this.slotMask = slotCount - 1;
+    this.arena = Arena.ofShared();
+    this.slots = arena.allocate(slotCount * SLOT_BYTES, SLOT_BYTES);
+    clear();
+  }
+
+  public int get(MemorySegment buffer, long offset, int length) {
+    long slot = find(buffer, offset, length, FixHash.hash(buffer, offset, length));
+    return slot < 0 ? NOT_FOUND : slots.get(ValueLayout.JAVA_INT, slot + VALUE_OFFSET);
+  }
+
+  // Maps the key to value and returns the previous value, or NOT_FOUND if the
+  // key is new. Throws IllegalStateException when the index is full and
+  // IllegalArgumentException for keys longer than MAX_KEY_LENGTH.
+  public int put(MemorySegment buffer, long offset, int length, int value) {
+    if (length > MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException("Key longer than " + MAX_KEY_LENGTH + " bytes");
+    }
+    long h = FixHash.hash(buffer, offset, length);
+    long index = h & slotMask;
+    while (true) {
+      long slot = index * SLOT_BYTES;
+      int storedLength = slots.get(ValueLayout.JAVA_INT, slot + LENGTH_OFFSET);
+      if (storedLength == EMPTY) {
+        if (size == capacity) {
+          throw new IllegalStateException("OrderIdIndex is full (" + capacity + " keys)");
+        }
+        slots.set(ValueLayout.JAVA_LONG, slot + HASH_OFFSET, h);
+        slots.set(ValueLayout.JAVA_INT, slot + VALUE_OFFSET, value);
+        slots.set(ValueLayout.JAVA_INT, slot + LENGTH_OFFSET, length);
+        MemorySegment.copy(buffer, offset, slots, slot + KEY_OFFSET, length);
+        size++;
+        return NOT_FOUND;
+      }
+      if (matches(slot, h, storedLength, buffer, offset, length)) {
+        int previous = slots.get(ValueLayout.JAVA_INT, slot + VALUE_OFFSET);
+        slots.set(ValueLayout.JAVA_INT, slot + VALUE_OFFSET, value);
+        return previous;
+      }
+      index = (index + 1) & slotMask;
+    }
+  }
+
+  // Removes the key and returns its value, or NOT_FOUND.
+  public int remove(MemorySegment buffer, long offset, int length) {
+    long slot = find(buffer, offset, length, FixHash.hash(buffer, offset, length));
+    if (slot < 0) {
+      return NOT_FOUND;
+    }
+    int value = slots.get(ValueLayout.JAVA_INT, slot + VALUE_OFFSET);
+
+    // Walk the rest of the cluster. An entry whose home slot is not in the
+    // cyclic range (hole, current] can be reached from the hole, so it moves
+    // back and its old slot becomes the new hole.
+    long hole = slot / SLOT_BYTES;
+    long index = (hole + 1) & slotMask;
+    while (true) {
+      long current = index * SLOT_BYTES;
+      if (slots.get(ValueLayout.JAVA_INT, current + LENGTH_OFFSET) == EMPTY) {
+        break;
+      }
+      long home = slots.get(ValueLayout.JAVA_LONG, current + HASH_OFFSET) & slotMask;
+      if (((index - home) & slotMask) >= ((index - hole) & slotMask)) {
+        MemorySegment.copy(slots, current, slots, hole * SLOT_BYTES, SLOT_BYTES);
+        hole = index;
+      }
+      index = (index + 1) & slotMask;
+    }
+    slots.set(ValueLayout.JAVA_INT, hole * SLOT_BYTES + LENGTH_OFFSET, EMPTY);
+    size--;
+    return value;
+  }
+
+  public int get(FixNewOrderSingle order) {
+    return get(order.buffer(), order.baseOffset() + order.clOrdIdOffset(), order.clOrdIdLength());
+  }
+
+  public int put(FixNewOrderSingle order, int value) {
+    return put(order.buffer(), order.baseOffset() + order.clOrdIdOffset(), order.clOrdIdLength(), value);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public void clear() {
+    for (long slot = 0; slot < slots.byteSize(); slot += SLOT_BYTES) {
+      slots.set(ValueLayout.JAVA_INT, slot + LENGTH_OFFSET, EMPTY);
+    }
+    size = 0;
+  }
+
+  @Override
+  public void close() {
+    arena.close();
+  }
+
+  private long find(MemorySegment buffer, long offset, int length, long h) {
+    if (length > MAX_KEY_LENGTH) {
+      return -1;
+    }
+    long index = h & slotMask;
+    while (true) {
+      long slot = index * SLOT_BYTES;
+      int storedLength = slots.get(ValueLayout.JAVA_INT, slot + LENGTH_OFFSET);
+      if (storedLength == EMPTY) {
+        return -1;
+      }
+      if (matches(slot, h, storedLength, buffer, offset, length)) {
+        return slot;
+      }
+      index = (index + 1) & slotMask;
+    }
+  }
+
+  private boolean matches(long slot, long h, int storedLength, MemorySegment buffer, long offset, int length) {
+    return storedLength == length
+        && slots.get(ValueLayout.JAVA_LONG, slot + HASH_OFFSET) == h
+        && MemorySegment.mismatch(buffer, offset, offset + length,
+            slots, slot + KEY_OFFSET, slot + KEY_OFFSET + length) < 0;
+  }
+}
@@ -0,0 +1,179 @@
+package com.example.fix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+// Preallocated off-heap store of open orders, addressed by int slot. One
+// 128-byte record (two cache lines) per order holds the decoded fields of the
+// originating NewOrderSingle, the fill state and copies of ClOrdID and OrderID,
+// so the index keys can be removed without the original message. Free slots
+// sit on a preallocated stack; add and release never allocate.
+//
+// Single-threaded, like OrderIdIndex.
+public final class OrderStore implements AutoCloseable {
+  public static final int NO_SLOT = -1;
+  public static final int MAX_ID_LENGTH = 40;
+
+  private static final int RECORD_BYTES = 128;
+  private static final long ORDER_QTY = 0;
+  private static final long PRICE_MANTISSA = 8;
+  private static final long CUM_QTY = 16;
+  private static final long SYMBOL_ID = 24;
+  private static final long PRICE_SCALE = 28;
+  private static final long SIDE = 29;
+  private static final long ORD_TYPE = 30;
+  private static final long ORD_STATUS = 31;
+  private static final long CL_ORD_ID_LENGTH = 32;
+  private static final long ORDER_ID_LENGTH = 33;
+  private static final long CL_ORD_ID = 40;
+  private static final long ORDER_ID = CL_ORD_ID + MAX_ID_LENGTH;
+
+  // OrdStatus (39) of an order that has been accepted locally but not yet
+  // acknowledged: PendingNew.
+  private static final byte PENDING_NEW = 'A';
+
+  private final Arena arena;
+  private final MemorySegment records;
+  private final int[] freeSlots;
+  private final int capacity;
+
+  private int freeCount;
+
+  public OrderStore(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    this.capacity = capacity;
+    this.arena = Arena.ofShared();
+    this.records = arena.allocate((long) capacity * RECORD_BYTES, 64);
+    this.freeSlots = new int[capacity];
+    clear();
+  }
+
+  // Copies the order into a free record. Returns the slot, or NO_SLOT when the
+  // store is full or the ClOrdID is longer than MAX_ID_LENGTH.
+  public int add(FixNewOrderSingle order) {
+    int clOrdIdLength = order.clOrdIdLength();
+    if (freeCount == 0 || clOrdIdLength > MAX_ID_LENGTH) {
+      return NO_SLOT;
+    }
+    int slot = freeSlots[--freeCount];
+    long record = (long) slot * RECORD_BYTES;
+    records.set(ValueLayout.JAVA_LONG, record + ORDER_QTY, order.orderQty());
+    records.set(ValueLayout.JAVA_LONG, record + PRICE_MANTISSA, order.pricePresent() ? order.priceMantissa() : 0);
+    records.set(ValueLayout.JAVA_LONG, record + CUM_QTY, 0);
+    records.set(ValueLayout.JAVA_INT, record + SYMBOL_ID, order.symbolId());
+    records.set(ValueLayout.JAVA_BYTE, record + PRICE_SCALE, (byte) order.priceScale());
+    records.set(ValueLayout.JAVA_BYTE, record + SIDE, order.side());
+    records.set(ValueLayout.JAVA_BYTE, record + ORD_TYPE, order.ordType());
+    records.set(ValueLayout.JAVA_BYTE, record + ORD_STATUS, PENDING_NEW);
+    records.set(ValueLayout.JAVA_BYTE, record + CL_ORD_ID_LENGTH, (byte) clOrdIdLength);
+    records.set(ValueLayout.JAVA_BYTE, record + ORDER_ID_LENGTH, (byte) 0);
+    MemorySegment.copy(order.buffer(), order.baseOffset() + order.clOrdIdOffset(),
+        records, record + CL_ORD_ID, clOrdIdLength);
+    return slot;
+  }
+
+  public void release(int slot) {
+    checkSlot(slot);
+    freeSlots[freeCount++] = slot;
+  }
+
+  // Records the OrderID assigned by the counterparty. Returns false if it is
+  // longer than MAX_ID_LENGTH.
+  boolean orderId(int slot, MemorySegment buffer, long offset, int length) {
+    if (length > MAX_ID_LENGTH) {
+      return false;
+    }
+    long record = (long) slot * RECORD_BYTES;
+    MemorySegment.copy(buffer, offset, records, record + ORDER_ID, length);
+    records.set(ValueLayout.JAVA_BYTE, record + ORDER_ID_LENGTH, (byte) length);
+    return true;
+  }
+
+  void fill(int slot, long cumQty, byte ordStatus) {
+    long record = (long) slot * RECORD_BYTES;
+    records.set(ValueLayout.JAVA_LONG, record + CUM_QTY, cumQty);
+    records.set(ValueLayout.JAVA_BYTE, record + ORD_STATUS, ordStatus);
+  }
+
+  public long orderQty(int slot) {
+    return records.get(ValueLayout.JAVA_LONG, (long) slot * RECORD_BYTES + ORDER_QTY);
+  }
+
+  public long priceMantissa(int slot) {
+    return records.get(ValueLayout.JAVA_LONG, (long) slot * RECORD_BYTES + PRICE_MANTISSA);
+  }
+
+  public int priceScale(int slot) {
+    return records.get(ValueLayout.JAVA_BYTE, (long) slot * RECORD_BYTES + PRICE_SCALE);
+  }
+
+  public long cumQty(int slot) {
+    return records.get(ValueLayout.JAVA_LONG, (long) slot * RECORD_BYTES + CUM_QTY);
+  }
+
+  public int symbolId(int slot) {
+    return records.get(ValueLayout.JAVA_INT, (long) slot * RECORD_BYTES + SYMBOL_ID);
+  }
+
+  public byte side(int slot) {
+    return records.get(ValueLayout.JAVA_BYTE, (long) slot * RECORD_BYTES + SIDE);
+  }
+
+  public byte ordType(int slot) {
+    return records.get(ValueLayout.JAVA_BYTE, (long) slot * RECORD_BYTES + ORD_TYPE);
+  }
+
+  public byte ordStatus(int slot) {
+    return records.get(ValueLayout.JAVA_BYTE, (long) slot * RECORD_BYTES + ORD_STATUS);
+  }
+
+  // ClOrdID and OrderID live inside records(); these give their position.
+  public long clOrdIdOffset(int slot) {
+    return (long) slot * RECORD_BYTES + CL_ORD_ID;
+  }
+
+  public int clOrdIdLength(int slot) {
+    return records.get(ValueLayout.JAVA_BYTE, (long) slot * RECORD_BYTES + CL_ORD_ID_LENGTH);
+  }
+
+  public long orderIdOffset(int slot) {
+    return (long) slot * RECORD_BYTES + ORDER_ID;
+  }
+
+  public int orderIdLength(int slot) {
+    return records.get(ValueLayout.JAVA_BYTE, (long) slot * RECORD_BYTES + ORDER_ID_LENGTH);
+  }
+
+  public MemorySegment records() {
+    return records;
+  }
+
+  public int size() {
+    return capacity - freeCount;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public void clear() {
+    for (int i = 0; i < capacity; i++) {
+      freeSlots[i] = capacity - 1 - i;
+    }
+    freeCount = capacity;
+  }
+
+  @Override
+  public void close() {
+    arena.close();
+  }
+
+  private void checkSlot(int slot) {
+    if (slot < 0 || slot >= capacity) {
+      throw new IllegalArgumentException("Invalid slot " + slot);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.example.fix;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// A sequence counter alone on its cache lines. Each pipeline stage publishes
+// progress through one of these and other stages poll it; without the padding
+// neighbouring sequences would share a line and every publish would invalidate
+// the others' reads. Padding lives in superclasses so the JVM cannot reorder
+// the value next to another object's fields.
+abstract class SequenceLeftPadding {
+  protected long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SequenceValue extends SequenceLeftPadding {
+  protected long value;
+}
+
+final class PaddedSequence extends SequenceValue {
+  static final long INITIAL = -1;
+
+  private static final VarHandle VALUE;
+
+  static {
+    try {
+      VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  protected long p11, p12, p13, p14, p15, p16, p17;
+
+  PaddedSequence() {
+    value = INITIAL;
+  }
+
+  long get() {
+    return (long) VALUE.getAcquire(this);
+  }
+
+  void set(long sequence) {
+    VALUE.setRelease(this, sequence);
+  }
+}
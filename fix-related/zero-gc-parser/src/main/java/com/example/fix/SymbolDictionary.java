@@ -0,0 +1,167 @@
+package com.example.fix;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+
+// Off-heap open-addressing table that maps Symbol (55) bytes to a dense int id
+// (0, 1, 2, ... in insertion order), so risk and routing can key on an int
+// instead of a String built per order.
+//
+// Each slot is one 64-byte cache line holding the full hash, the id, the key
+// length and up to MAX_KEY_LENGTH key bytes inline, so a hit on the home slot
+// touches a single line. Collisions probe linearly.
+//
+// Reads are lock-free. Inserts are serialized on the table and publish a slot
+// by writing its id last with release semantics; lookups read the id with
+// acquire semantics, so a visible id always comes with its key. Slots are never
+// removed or moved, and the table does not grow: capacity is fixed up front.
+public final class SymbolDictionary implements AutoCloseable {
+  public static final int NOT_FOUND = -1;
+  public static final int MAX_KEY_LENGTH = 48;
+
+  private static final int SLOT_BYTES = 64;
+  private static final long HASH_OFFSET = 0;
+  private static final long ID_OFFSET = 8;
+  private static final long LENGTH_OFFSET = 12;
+  private static final long KEY_OFFSET = 16;
+
+  private static final VarHandle INT_HANDLE = ValueLayout.JAVA_INT.varHandle();
+
+  private final Arena arena;
+  private final MemorySegment slots;
+  private final long slotMask;
+  private final int capacity;
+  // Slot index per id, for reverse lookups on cold paths.
+  private final long[] slotById;
+
+  private int size;
+
+  public SymbolDictionary(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive");
+    }
+    // At most half full, so probe chains stay short.
+    long slotCount = Long.highestOneBit(Math.max(1, capacity * 2L - 1)) << 1;
+    this.capacity = capacity;
+    this.slotMask = slotCount - 1;
+    this.slotById = new long[capacity];
+    this.arena = Arena.ofShared();
+    this.slots = arena.allocate(slotCount * SLOT_BYTES, SLOT_BYTES);
+  }
+
+  // Lock-free. Returns the id of the symbol, or NOT_FOUND.
+  public int lookup(MemorySegment buffer, long offset, int length) {
+    if (length > MAX_KEY_LENGTH) {
+      return NOT_FOUND;
+    }
+    long h = FixHash.hash(buffer, offset, length);
+    for (long index = h & slotMask; ; index = (index + 1) & slotMask) {
+      long slot = index * SLOT_BYTES;
+      int stored = (int) INT_HANDLE.getAcquire(slots, slot + ID_OFFSET);
+      if (stored == 0) {
+        return NOT_FOUND;
+      }
+      if (matches(slot, h, buffer, offset, length)) {
+        return stored - 1;
+      }
+    }
+  }
+
+  // Returns the id of the symbol, adding it if it is new. Throws
+  // IllegalStateException when the dictionary is full and
+  // IllegalArgumentException for keys longer than MAX_KEY_LENGTH.
+  public int intern(MemorySegment buffer, long offset, int length) {
+    int id = lookup(buffer, offset, length);
+    return id != NOT_FOUND ? id : insert(buffer, offset, length, true);
+  }
+
+  // Like intern, but returns NOT_FOUND for a new key when the dictionary is
+  // full, for callers that would rather skip the key than fail.
+  public int tryIntern(MemorySegment buffer, long offset, int length) {
+    int id = lookup(buffer, offset, length);
+    return id != NOT_FOUND ? id : insert(buffer, offset, length, false);
+  }
+
+  public int intern(String symbol) {
+    byte[] bytes = symbol.getBytes(StandardCharsets.US_ASCII);
+    return intern(MemorySegment.ofArray(bytes), 0, bytes.length);
+  }
+
+  // Looks up the order's Symbol and stores the id (or NOT_FOUND) on it.
+  public int resolve(FixNewOrderSingle order) {
+    int id = order.symbolOffset() < 0
+        ? NOT_FOUND
+        : lookup(order.buffer(), order.baseOffset() + order.symbolOffset(), order.symbolLength());
+    order.symbolId(id);
+    return id;
+  }
+
+  // Allocates; for logging and reporting, not the hot path.
+  public String symbol(int id) {
+    if (id < 0 || id >= size()) {
+      throw new IllegalArgumentException("Unknown symbol id " + id);
+    }
+    long slot = slotById[id] * SLOT_BYTES;
+    int length = slots.get(ValueLayout.JAVA_INT, slot + LENGTH_OFFSET);
+    byte[] bytes = slots.asSlice(slot + KEY_OFFSET, length).toArray(ValueLayout.JAVA_BYTE);
+    return new String(bytes, StandardCharsets.US_ASCII);
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  @Override
+  public void close() {
+    arena.close();
+  }
+
+  private synchronized int insert(MemorySegment buffer, long offset, int length, boolean throwWhenFull) {
+    if (length > MAX_KEY_LENGTH) {
+      throw new IllegalArgumentException("Symbol longer than " + MAX_KEY_LENGTH + " bytes");
+    }
+    long h = FixHash.hash(buffer, offset, length);
+    long index = h & slotMask;
+    while (true) {
+      long slot = index * SLOT_BYTES;
+      int stored = slots.get(ValueLayout.JAVA_INT, slot + ID_OFFSET);
+      if (stored == 0) {
+        break;
+      }
+      // Another thread may have added it since our lock-free miss.
+      if (matches(slot, h, buffer, offset, length)) {
+        return stored - 1;
+      }
+      index = (index + 1) & slotMask;
+    }
+    if (size == capacity) {
+      if (!throwWhenFull) {
+        return NOT_FOUND;
+      }
+      throw new IllegalStateException("SymbolDictionary is full (" + capacity + " symbols)");
+    }
+
+    long slot = index * SLOT_BYTES;
+    slots.set(ValueLayout.JAVA_LONG, slot + HASH_OFFSET, h);
+    slots.set(ValueLayout.JAVA_INT, slot + LENGTH_OFFSET, length);
+    MemorySegment.copy(buffer, offset, slots, slot + KEY_OFFSET, length);
+    int id = size++;
+    slotById[id] = index;
+    INT_HANDLE.setRelease(slots, slot + ID_OFFSET, id + 1);
+    return id;
+  }
+
+  private boolean matches(long slot, long h, MemorySegment buffer, long offset, int length) {
+    return slots.get(ValueLayout.JAVA_LONG, slot + HASH_OFFSET) == h
+        && slots.get(ValueLayout.JAVA_INT, slot + LENGTH_OFFSET) == length
+        && MemorySegment.mismatch(buffer, offset, offset + length,
+            slots, slot + KEY_OFFSET, slot + KEY_OFFSET + length) < 0;
+  }
+}